@@ -0,0 +1,24 @@
+package com.example.ampliar.benchmarks;
+
+/** Dados sintéticos que passam pela validação das entidades. */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /** CPF com dígitos verificadores válidos, exigidos pelo setter da entidade. */
+    static String cpf(long seed) {
+        String base = String.format("%09d", 100_000_000L + seed);
+        int first = checkDigit(base);
+        return base + first + checkDigit(base + first);
+    }
+
+    private static int checkDigit(String digits) {
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (digits.length() + 1 - i);
+        }
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+}
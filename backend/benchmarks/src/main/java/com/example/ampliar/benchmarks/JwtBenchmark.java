@@ -0,0 +1,50 @@
+package com.example.ampliar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.ampliar.security.JwtUtil;
+
+/** Emissão e verificação do token de acesso, executadas em toda requisição autenticada. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil("chave-de-benchmark-com-pelo-menos-32-bytes!", 900_000L);
+        token = jwtUtil.generateToken("ana@clinica.com", 1L, "3f1c2a9e-6d0b-4c55-9a43-2b7f0d1e8c10");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("ana@clinica.com", 1L, "3f1c2a9e-6d0b-4c55-9a43-2b7f0d1e8c10");
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+}
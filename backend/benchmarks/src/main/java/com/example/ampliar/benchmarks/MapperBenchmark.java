@@ -0,0 +1,117 @@
+package com.example.ampliar.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.ampliar.dto.appointment.AppointmentDTO;
+import com.example.ampliar.dto.patient.PatientAppointmentCountDTO;
+import com.example.ampliar.dto.patient.PatientDTO;
+import com.example.ampliar.mapper.AppointmentDTOMapper;
+import com.example.ampliar.mapper.PatientDTOMapper;
+import com.example.ampliar.model.AppointmentModel;
+import com.example.ampliar.model.PatientModel;
+import com.example.ampliar.model.PaymentModel;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.repository.AppointmentRepository;
+
+/**
+ * Custo dos mappers de listagem sem banco: o {@link AppointmentRepository} é substituído por um
+ * proxy que devolve contagens fixas, então o resultado mede apenas o mapeamento.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"30"})
+    public int listSize;
+
+    private AppointmentDTOMapper appointmentMapper;
+    private PatientDTOMapper patientMapper;
+    private AppointmentModel appointment;
+    private PatientModel patient;
+    private List<PatientModel> patients;
+    private Long psychologistId;
+
+    @Setup
+    public void setUp() {
+        PsychologistModel psychologist = new PsychologistModel(
+                "Ana Souza", "12345678909", "11987654321", "ana@clinica.com", "hash");
+        psychologist.setId(1L);
+        psychologistId = psychologist.getId();
+
+        patients = new ArrayList<>();
+        List<PatientAppointmentCountDTO> counts = new ArrayList<>();
+        for (long i = 1; i <= listSize; i++) {
+            PatientModel p = new PatientModel(LocalDate.of(1990, 1, 1), new ArrayList<>(), "Paciente " + i,
+                    BenchmarkData.cpf(i), "11912345678", "paciente" + i + "@mail.com", "Rua A, " + i,
+                    null, psychologist, LocalDate.of(2024, 1, 1));
+            p.setId(i);
+            patients.add(p);
+            counts.add(new PatientAppointmentCountDTO(i, 12L));
+        }
+        patient = patients.get(0);
+
+        appointment = new AppointmentModel();
+        appointment.setPsychologist(psychologist);
+        appointment.setAppointmentDate(LocalDateTime.of(2025, 3, 10, 14, 0));
+        appointment.setAppointmentEndDate(LocalDateTime.of(2025, 3, 10, 14, 50));
+        appointment.setPatients(new ArrayList<>(patients.subList(0, 2)));
+        appointment.setAppointmentType("Terapia de casal");
+        PaymentModel payment = new PaymentModel();
+        payment.setId(7L);
+        appointment.allocate(payment, new BigDecimal("180.00"));
+
+        appointmentMapper = new AppointmentDTOMapper();
+        patientMapper = new PatientDTOMapper(stubRepository(counts));
+    }
+
+    @Benchmark
+    public AppointmentDTO appointmentApply() {
+        return appointmentMapper.apply(appointment);
+    }
+
+    @Benchmark
+    public PatientDTO patientApply() {
+        return patientMapper.apply(patient);
+    }
+
+    @Benchmark
+    public List<PatientDTO> patientApplyAll() {
+        return patientMapper.applyAll(patients, psychologistId);
+    }
+
+    private static AppointmentRepository stubRepository(List<PatientAppointmentCountDTO> counts) {
+        return (AppointmentRepository) Proxy.newProxyInstance(
+                AppointmentRepository.class.getClassLoader(),
+                new Class<?>[] {AppointmentRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "countByPatientsContainsAndPsychologistId" -> 12;
+                    case "countByPatientIds" -> counts;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "AppointmentRepositoryStub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.ampliar.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.example.ampliar.AmpliarApplication;
+import com.example.ampliar.dto.appointment.AppointmentDTO;
+import com.example.ampliar.dto.appointment.AppointmentRowDTO;
+import com.example.ampliar.dto.patient.PatientDTO;
+import com.example.ampliar.dto.patient.PatientRowDTO;
+import com.example.ampliar.dto.payment.PaymentDTO;
+import com.example.ampliar.mapper.AppointmentDTOMapper;
+import com.example.ampliar.mapper.PatientDTOMapper;
+import com.example.ampliar.mapper.PaymentDTOMapper;
+import com.example.ampliar.model.AppointmentModel;
+import com.example.ampliar.model.LegalGuardianModel;
+import com.example.ampliar.model.PatientModel;
+import com.example.ampliar.model.PayerModel;
+import com.example.ampliar.model.PaymentModel;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.repository.AppointmentRepository;
+import com.example.ampliar.repository.LegalGuardianRepository;
+import com.example.ampliar.repository.PatientRepository;
+import com.example.ampliar.repository.PayerRepository;
+import com.example.ampliar.repository.PaymentRepository;
+import com.example.ampliar.repository.PsychologistRepository;
+
+/**
+ * Listagens lidas por entidades gerenciadas + mapper (caminho antigo) contra projeções em DTO
+ * (caminho atual), sobre um Postgres descartável com {@code listSize} linhas de cada recurso.
+ * Cada operação roda em uma transação somente leitura, como nos serviços.
+ *
+ * <p>A latência sai no resultado normal; a memória, com o profiler de GC do JMH:
+ * {@code -Djmh.args="-prof gc ReadPath"} e a métrica {@code gc.alloc.rate.norm} (bytes por
+ * operação).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadPathBenchmark {
+
+    @Param({"50", "500"})
+    public int listSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext app;
+    private TransactionTemplate readOnly;
+    private Long psychologistId;
+
+    private PatientRepository patientRepository;
+    private AppointmentRepository appointmentRepository;
+    private PaymentRepository paymentRepository;
+    private PatientDTOMapper patientMapper;
+    private AppointmentDTOMapper appointmentMapper;
+    private PaymentDTOMapper paymentMapper;
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine").withDatabaseName("ampliar_bench");
+        postgres.start();
+        app = new SpringApplicationBuilder(AmpliarApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.main.banner-mode=off"
+                );
+
+        PlatformTransactionManager transactionManager = app.getBean(PlatformTransactionManager.class);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        patientRepository = app.getBean(PatientRepository.class);
+        appointmentRepository = app.getBean(AppointmentRepository.class);
+        paymentRepository = app.getBean(PaymentRepository.class);
+        patientMapper = app.getBean(PatientDTOMapper.class);
+        appointmentMapper = app.getBean(AppointmentDTOMapper.class);
+        paymentMapper = app.getBean(PaymentDTOMapper.class);
+
+        psychologistId = new TransactionTemplate(transactionManager).execute(status -> seed());
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<PatientDTO> patientsEntities() {
+        return inReadOnly(() -> patientMapper.applyAll(
+                patientRepository.findAllByPsychologistIdAndDeletedAtIsNull(psychologistId), psychologistId));
+    }
+
+    @Benchmark
+    public List<PatientDTO> patientsProjection() {
+        return inReadOnly(() -> {
+            List<PatientRowDTO> rows = patientRepository.findRowsByPsychologistId(psychologistId);
+            List<Long> ids = rows.stream().map(PatientRowDTO::id).toList();
+            return patientMapper.fromRows(rows, patientRepository.findGuardianLinks(ids), psychologistId);
+        });
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> appointmentsEntities() {
+        return inReadOnly(() -> appointmentRepository.findByPsychologistId(psychologistId)
+                .stream()
+                .map(appointmentMapper)
+                .toList());
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> appointmentsProjection() {
+        return inReadOnly(() -> {
+            List<AppointmentRowDTO> rows = appointmentRepository.findRowsByPsychologistId(psychologistId);
+            List<Long> ids = rows.stream().map(AppointmentRowDTO::id).toList();
+            return appointmentMapper.fromRows(rows, appointmentRepository.findPatientRows(ids));
+        });
+    }
+
+    @Benchmark
+    public List<PaymentDTO> paymentsEntities() {
+        return inReadOnly(() -> paymentRepository.findAll()
+                .stream()
+                .map(paymentMapper)
+                .toList());
+    }
+
+    @Benchmark
+    public List<PaymentDTO> paymentsProjection() {
+        return inReadOnly(() -> paymentRepository.findAllDTOByPsychologistId(psychologistId));
+    }
+
+    private <T> T inReadOnly(Supplier<T> read) {
+        return readOnly.execute(status -> read.get());
+    }
+
+    /** Um psicólogo com {@code listSize} pacientes, pagamentos e agendamentos; metade quitada. */
+    private Long seed() {
+        PsychologistModel psychologist = app.getBean(PsychologistRepository.class).save(
+                new PsychologistModel("Ana Souza", BenchmarkData.cpf(0), "11987654321", "ana@clinica.com", "hash"));
+
+        List<LegalGuardianModel> guardians = new ArrayList<>();
+        for (long i = 1; i <= Math.max(1, listSize / 5); i++) {
+            guardians.add(new LegalGuardianModel(new ArrayList<>(), "Responsável " + i,
+                    BenchmarkData.cpf(100_000 + i), "11912345678", psychologist));
+        }
+        app.getBean(LegalGuardianRepository.class).saveAll(guardians);
+
+        List<PatientModel> patients = new ArrayList<>();
+        for (long i = 1; i <= listSize; i++) {
+            LegalGuardianModel guardian = guardians.get((int) (i % guardians.size()));
+            patients.add(new PatientModel(LocalDate.of(1990, 1, 1), new ArrayList<>(List.of(guardian)),
+                    "Paciente " + i, BenchmarkData.cpf(200_000 + i), "11912345678", "paciente" + i + "@mail.com",
+                    "Rua A, " + i, null, psychologist, LocalDate.of(2024, 1, 1)));
+        }
+        patientRepository.saveAll(patients);
+
+        PayerModel payer = app.getBean(PayerRepository.class).save(
+                new PayerModel("Pagador", BenchmarkData.cpf(300_000), "11912345678", psychologist));
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 8, 8, 0);
+        for (int i = 0; i < listSize; i++) {
+            PaymentModel payment = new PaymentModel();
+            payment.setValor(new BigDecimal("180.00"));
+            payment.setPaymentDate(LocalDate.of(2024, 1, 1).plusDays(i % 300));
+            payment.setPayer(payer);
+            paymentRepository.save(payment);
+
+            AppointmentModel appointment = new AppointmentModel();
+            appointment.setAppointmentDate(start.plusHours(i));
+            appointment.setAppointmentEndDate(start.plusHours(i).plusMinutes(50));
+            appointment.setAppointmentType("Sessão individual");
+            appointment.setPsychologist(psychologist);
+            appointment.setPatients(new ArrayList<>(List.of(patients.get(i))));
+            if (i % 2 == 0) {
+                appointment.allocate(payment, payment.getValor());
+            }
+            appointmentRepository.save(appointment);
+        }
+        return psychologist.getId();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.ampliar.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.example.ampliar.AmpliarApplication;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.service.ReceiptNumberService;
+
+/**
+ * Vazão da numeração de recibos com {@value #THREADS} threads: todas no mesmo psicólogo
+ * ({@code shared}, disputando a linha do contador) ou cada uma no seu ({@code perThread}).
+ * Com o lock por psicólogo, {@code perThread} deve escalar com as threads; com um lock global
+ * os dois cenários ficariam iguais. {@code workMillis} simula o restante da transação do
+ * pagamento com o lock do contador aberto.
+ *
+ * <p>A correção (números únicos e sem buracos) fica no ReceiptNumberServiceConcurrencyTest.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(ReceiptNumberBenchmark.THREADS)
+@State(Scope.Benchmark)
+public class ReceiptNumberBenchmark {
+
+    static final int THREADS = 8;
+
+    @Param({"shared", "perThread"})
+    public String distribution;
+
+    @Param({"0", "5"})
+    public long workMillis;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext app;
+    private TransactionTemplate transaction;
+    private ReceiptNumberService receiptNumberService;
+    private final List<Long> psychologists = new ArrayList<>();
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class ThreadPsychologist {
+        private Long id;
+
+        @Setup
+        public void setUp(ReceiptNumberBenchmark benchmark) {
+            int thread = benchmark.nextThread.getAndIncrement();
+            id = "shared".equals(benchmark.distribution)
+                    ? benchmark.psychologists.get(0)
+                    : benchmark.psychologists.get(thread % THREADS);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine").withDatabaseName("ampliar_bench");
+        postgres.start();
+        app = new SpringApplicationBuilder(AmpliarApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.main.banner-mode=off"
+                );
+
+        transaction = new TransactionTemplate(app.getBean(PlatformTransactionManager.class));
+        receiptNumberService = app.getBean(ReceiptNumberService.class);
+
+        PsychologistRepository psychologistRepository = app.getBean(PsychologistRepository.class);
+        for (int i = 0; i < THREADS; i++) {
+            psychologists.add(psychologistRepository.save(new PsychologistModel(
+                    "Psicóloga " + i, BenchmarkData.cpf(i), "11987654321", "psi" + i + "@clinica.com", "hash")).getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public long nextReceiptNumber(ThreadPsychologist psychologist) {
+        return transaction.execute(status -> {
+            long number = receiptNumberService.nextReceiptNumber(psychologist.id);
+            if (workMillis > 0) {
+                try {
+                    Thread.sleep(workMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return number;
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.ampliar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.validation.FieldFormats;
+
+/** Validação de formato nos setters de {@code PersonAbstract} e {@code PsychologistModel} e em {@link FieldFormats}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+    // Campos não finais: evitam que o JIT trate a entrada como constante
+    private String cpf = "52998224725";
+    private String cnpj = "11222333000181";
+    private PsychologistModel psychologist;
+
+    @Setup
+    public void setUp() {
+        psychologist = new PsychologistModel(
+                "Ana Souza", "12345678909", "11987654321", "ana@clinica.com", "hash");
+    }
+
+    @Benchmark
+    public String setCpf() {
+        psychologist.setCpf("52998224725");
+        return psychologist.getCpf();
+    }
+
+    @Benchmark
+    public String setPhoneNumber() {
+        psychologist.setPhoneNumber("11987654321");
+        return psychologist.getPhoneNumber();
+    }
+
+    @Benchmark
+    public String setEmail() {
+        psychologist.setEmail("Ana.Souza@Clinica-Ampliar.com.br");
+        return psychologist.getEmail();
+    }
+
+    @Benchmark
+    public boolean cpfCheckDigits() {
+        return FieldFormats.isCpf(cpf);
+    }
+
+    @Benchmark
+    public boolean cnpjCheckDigits() {
+        return FieldFormats.isCnpj(cnpj);
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.ampliar.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Popula o esquema criado pelo Flyway com COPY, sem passar pelo JPA. Os IDs são determinísticos:
+ * o psicólogo {@code p} tem e-mail {@code psi<p>@loadtest.ampliar}, os pacientes e pagadores
+ * {@code (p-1)*n+1 .. p*n}, e o agendamento {@code a} pertence ao psicólogo {@code (a-1) % P + 1}.
+ * O pagamento {@code j} é alocado integralmente ao agendamento {@code j}.
+ *
+ * <p>Ao final as sequences são avançadas além do maior ID semeado, para que o otimizador pooled
+ * do Hibernate (blocos de 50) não gere IDs repetidos.
+ */
+public class ClinicDatasetSeeder {
+
+    public static final String PASSWORD = "LoadTest@2025";
+    public static final String SESSION_PRICE = "180.00";
+
+    private static final Logger log = LoggerFactory.getLogger(ClinicDatasetSeeder.class);
+    private static final int FLUSH_BYTES = 1 << 20;
+    private static final String[] SESSION_TYPES = {"Sessão individual", "Terapia de casal", "Avaliação", "Retorno"};
+
+    private final DataSource dataSource;
+    private final LoadTestSettings settings;
+    private final LocalDateTime firstAppointment;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public ClinicDatasetSeeder(DataSource dataSource, LoadTestSettings settings) {
+        this.dataSource = dataSource;
+        this.settings = settings;
+        // Horários de 4 em 4 horas por psicólogo: 90% da agenda no passado e o restante à frente
+        long slots = (settings.appointments() + settings.psychologists() - 1L) / settings.psychologists();
+        this.firstAppointment = now.minusHours(slots * 4 * 9 / 10).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    public static String email(int psychologistId) {
+        return "psi" + psychologistId + "@loadtest.ampliar";
+    }
+
+    public static long firstPatientId(int psychologistId, LoadTestSettings settings) {
+        return (long) (psychologistId - 1) * settings.patientsPerPsychologist() + 1;
+    }
+
+    public static long firstPayerId(int psychologistId, LoadTestSettings settings) {
+        return (long) (psychologistId - 1) * settings.payersPerPsychologist() + 1;
+    }
+
+    public void seed() throws SQLException {
+        long start = System.nanoTime();
+        String passwordHash = new BCryptPasswordEncoder(10).encode(PASSWORD);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            PGConnection pg = connection.unwrap(PGConnection.class);
+
+            copy(pg, "psychologist (id, full_name, cpf, phone_number, email, password)",
+                    settings.psychologists(), (row, i) -> row
+                            .append(i).append('\t').append("Psicóloga ").append(i).append('\t')
+                            .append(cpf(1, i)).append('\t').append("11999990000").append('\t')
+                            .append(email(i)).append('\t').append(passwordHash));
+
+            copy(pg, "patient (id, full_name, cpf, phone_number, birth_date, email, address, dta_primeira_consulta, psychologist_id)",
+                    settings.patients(), (row, i) -> row
+                            .append(i).append('\t').append("Paciente ").append(i).append('\t')
+                            .append(cpf(2, i)).append('\t').append("11988880000").append('\t')
+                            .append(LocalDate.of(1970, 1, 1).plusDays(i % 15_000)).append('\t')
+                            .append("paciente").append(i).append("@loadtest.ampliar").append('\t')
+                            .append("Rua das Flores, ").append(i).append('\t')
+                            .append(firstAppointment.toLocalDate()).append('\t')
+                            .append((i - 1) / settings.patientsPerPsychologist() + 1));
+
+            copy(pg, "payer (id, full_name, cpf, phone_number, psychologist_id)",
+                    settings.payers(), (row, i) -> row
+                            .append(i).append('\t').append("Pagador ").append(i).append('\t')
+                            .append(cpf(3, i)).append('\t').append("11977770000").append('\t')
+                            .append((i - 1) / settings.payersPerPsychologist() + 1));
+
+            copy(pg, "appointment (id, appointment_date, psychologist_id, appointment_end_date, appointment_type, status)",
+                    settings.appointments(), (row, i) -> {
+                        LocalDateTime date = appointmentDate(i);
+                        row.append(i).append('\t').append(date).append('\t')
+                                .append(psychologistOf(i)).append('\t').append(date.plusMinutes(50)).append('\t')
+                                .append(SESSION_TYPES[i % SESSION_TYPES.length]).append('\t')
+                                .append(status(i, date));
+                    });
+
+            copy(pg, "appointment_patients (appointment_id, patient_id)",
+                    settings.appointments(), (row, i) -> row
+                            .append(i).append('\t').append(patientOf(i)));
+
+            copy(pg, "payment (id, valor, payment_date, version, payer_id)",
+                    settings.payments(), (row, i) -> row
+                            .append(i).append('\t').append(SESSION_PRICE).append('\t')
+                            .append(paymentDate(i)).append('\t').append(0).append('\t')
+                            .append(payerOf(i)));
+
+            copy(pg, "payment_allocation (id, payment_id, appointment_id, amount, allocated_at)",
+                    settings.payments(), (row, i) -> row
+                            .append(i).append('\t').append(i).append('\t').append(i).append('\t')
+                            .append(SESSION_PRICE).append('\t').append(now));
+
+            try (Statement statement = connection.createStatement()) {
+                for (String table : new String[] {"psychologist", "patient", "payer", "appointment", "payment", "payment_allocation"}) {
+                    statement.execute("SELECT setval('" + table + "_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM " + table + "))");
+                }
+                connection.commit();
+                // VACUUM não roda dentro de transação
+                connection.setAutoCommit(true);
+                statement.execute("VACUUM ANALYZE");
+            }
+        }
+
+        log.info("Base sintética carregada em {} ms: {} psicólogos, {} pacientes, {} agendamentos, {} pagamentos",
+                (System.nanoTime() - start) / 1_000_000, settings.psychologists(), settings.patients(),
+                settings.appointments(), settings.payments());
+    }
+
+    private int psychologistOf(int appointmentId) {
+        return (appointmentId - 1) % settings.psychologists() + 1;
+    }
+
+    private long patientOf(int appointmentId) {
+        int slot = (appointmentId - 1) / settings.psychologists();
+        return firstPatientId(psychologistOf(appointmentId), settings) + slot % settings.patientsPerPsychologist();
+    }
+
+    private long payerOf(int paymentId) {
+        int slot = (paymentId - 1) / settings.psychologists();
+        return firstPayerId(psychologistOf(paymentId), settings) + slot % settings.payersPerPsychologist();
+    }
+
+    private LocalDateTime appointmentDate(int appointmentId) {
+        int slot = (appointmentId - 1) / settings.psychologists();
+        return firstAppointment.plusHours(4L * slot);
+    }
+
+    private LocalDate paymentDate(int paymentId) {
+        LocalDate date = appointmentDate(paymentId).toLocalDate();
+        return date.isAfter(now.toLocalDate()) ? now.toLocalDate() : date;
+    }
+
+    private String status(int appointmentId, LocalDateTime date) {
+        if (date.isAfter(now)) {
+            return "SCHEDULED";
+        }
+        return switch (appointmentId % 20) {
+            case 0 -> "CANCELLED";
+            case 1 -> "NO_SHOW";
+            default -> "COMPLETED";
+        };
+    }
+
+    /**
+     * CPF sintético com dígitos verificadores válidos, único por tabela; o prefixo separa
+     * psicólogos, pacientes e pagadores.
+     */
+    private static String cpf(int prefix, long id) {
+        String base = String.format("%d%08d", prefix, id);
+        int first = checkDigit(base);
+        return base + first + checkDigit(base + first);
+    }
+
+    private static int checkDigit(String digits) {
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (digits.length() + 1 - i);
+        }
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(StringBuilder row, int id);
+    }
+
+    private void copy(PGConnection pg, String target, int rows, RowWriter writer) throws SQLException {
+        long start = System.nanoTime();
+        CopyIn copy = pg.getCopyAPI().copyIn("COPY " + target + " FROM STDIN");
+        try {
+            StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 1024);
+            for (int id = 1; id <= rows; id++) {
+                writer.write(buffer, id);
+                buffer.append('\n');
+                if (buffer.length() >= FLUSH_BYTES) {
+                    flush(copy, buffer);
+                }
+            }
+            flush(copy, buffer);
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+        log.info("COPY {}: {} linhas em {} ms", target.substring(0, target.indexOf(' ')), rows,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void flush(CopyIn copy, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
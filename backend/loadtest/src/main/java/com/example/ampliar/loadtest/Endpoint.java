@@ -0,0 +1,47 @@
+package com.example.ampliar.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Operações do mix de carga e o peso de cada uma no sorteio do usuário virtual. Os pesos
+ * aproximam o uso real: a agenda e o painel são abertos muito mais vezes do que se agenda ou
+ * registra pagamento, e o login acontece no início da sessão e quando o token expira.
+ */
+public enum Endpoint {
+
+    LOGIN("POST /auth/login", 5),
+    AGENDA("GET /appointments", 40),
+    BOOKING("POST /appointments", 15),
+    PAYMENT("POST /payments", 10),
+    DASHBOARD("GET /reports/income", 30);
+
+    private static final int TOTAL_WEIGHT = Arrays.stream(values()).mapToInt(e -> e.weight).sum();
+
+    private final String label;
+    private final int weight;
+
+    Endpoint(String label, int weight) {
+        this.label = label;
+        this.weight = weight;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /** Sorteia uma operação a partir de {@code roll} em {@code [0, totalWeight())}. */
+    public static Endpoint pick(int roll) {
+        int acc = 0;
+        for (Endpoint endpoint : values()) {
+            acc += endpoint.weight;
+            if (roll < acc) {
+                return endpoint;
+            }
+        }
+        return values()[values().length - 1];
+    }
+
+    public static int totalWeight() {
+        return TOTAL_WEIGHT;
+    }
+}
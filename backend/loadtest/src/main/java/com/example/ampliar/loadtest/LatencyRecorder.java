@@ -0,0 +1,68 @@
+package com.example.ampliar.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latências por endpoint em histogramas HDR (microssegundos, 3 dígitos significativos). O
+ * {@link Recorder} aceita gravações concorrentes dos usuários virtuais e entrega o intervalo
+ * acumulado sem pausar a carga, o que permite descartar o aquecimento.
+ */
+public class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+
+    public LatencyRecorder() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    public void record(Endpoint endpoint, long elapsedNanos, boolean success) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS);
+        recorders.get(endpoint).recordValue(micros);
+        if (!success) {
+            errors.get(endpoint).increment();
+        }
+    }
+
+    /** Descarta o que foi gravado até aqui (fim do aquecimento). */
+    public void reset() {
+        recorders.values().forEach(Recorder::getIntervalHistogram);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    public LoadTestReport snapshot(double elapsedSeconds) {
+        List<LoadTestReport.EndpointResult> results = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = recorders.get(endpoint).getIntervalHistogram();
+            long requests = histogram.getTotalCount();
+            results.add(new LoadTestReport.EndpointResult(
+                    endpoint.label(),
+                    requests,
+                    errors.get(endpoint).sum(),
+                    requests / elapsedSeconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMaxValue())
+            ));
+        }
+        return new LoadTestReport(elapsedSeconds, results);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
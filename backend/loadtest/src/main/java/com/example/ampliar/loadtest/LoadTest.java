@@ -0,0 +1,106 @@
+package com.example.ampliar.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.example.ampliar.AmpliarApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Teste de carga ponta a ponta: sobe um Postgres descartável, inicia a aplicação com a
+ * configuração de produção (Flyway, pool, caches), carrega a base sintética com COPY e dispara
+ * {@code loadtest.users} usuários virtuais contra a API HTTP real.
+ *
+ * <p>O aquecimento ({@code loadtest.warmup}) é descartado; o relatório cobre apenas a janela
+ * {@code loadtest.duration}.
+ */
+public final class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                .withDatabaseName("ampliar_loadtest")) {
+            postgres.start();
+
+            try (ConfigurableApplicationContext app = startApplication(postgres)) {
+                new ClinicDatasetSeeder(app.getBean(DataSource.class), settings).seed();
+
+                String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+                LoadTestReport report = run(settings, baseUrl);
+
+                report.print(System.out);
+                Path output = Path.of("target", "loadtest-report.json");
+                report.writeJson(output);
+                log.info("Relatório gravado em {}", output.toAbsolutePath());
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(PostgreSQLContainer<?> postgres) {
+        // Argumentos de linha de comando têm precedência sobre o application.properties da aplicação
+        return new SpringApplicationBuilder(AmpliarApplication.class).run(
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--server.port=0",
+                "--management.server.port=-1",
+                // Todos os usuários virtuais saem do mesmo IP; o limite por IP/e-mail mediria só 429
+                "--security.rate-limit.ip.capacity=1000000",
+                "--security.rate-limit.email.capacity=1000000",
+                "--spring.main.banner-mode=off"
+        );
+    }
+
+    private static LoadTestReport run(LoadTestSettings settings, String baseUrl) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ObjectMapper json = new ObjectMapper();
+        LatencyRecorder recorder = new LatencyRecorder();
+        AtomicLong bookingSlots = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        List<Thread> users = new ArrayList<>();
+        for (int i = 0; i < settings.virtualUsers(); i++) {
+            int psychologistId = i % settings.psychologists() + 1;
+            VirtualUser user = new VirtualUser(http, json, baseUrl, psychologistId, settings, recorder, bookingSlots,
+                    running::get);
+            Thread thread = new Thread(user, "vu-" + i);
+            thread.setDaemon(true);
+            users.add(thread);
+        }
+
+        log.info("Iniciando {} usuários virtuais: aquecimento {}, medição {}",
+                settings.virtualUsers(), settings.warmup(), settings.duration());
+        users.forEach(Thread::start);
+
+        Thread.sleep(settings.warmup().toMillis());
+        recorder.reset();
+        long measureStart = System.nanoTime();
+
+        Thread.sleep(settings.duration().toMillis());
+        LoadTestReport report = recorder.snapshot((System.nanoTime() - measureStart) / 1e9);
+
+        running.set(false);
+        for (Thread user : users) {
+            user.join(30_000);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ampliar.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/** Resultado da janela medida: vazão e percentis de latência por endpoint. */
+public record LoadTestReport(double elapsedSeconds, List<EndpointResult> endpoints) {
+
+    public record EndpointResult(
+            String endpoint,
+            long requests,
+            long errors,
+            double throughputPerSecond,
+            double p50Ms,
+            double p95Ms,
+            double p99Ms,
+            double maxMs
+    ) {}
+
+    public void print(PrintStream out) {
+        out.printf("%nJanela medida: %.1f s%n", elapsedSeconds);
+        out.printf("%-22s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (EndpointResult r : endpoints) {
+            out.printf("%-22s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    r.endpoint(), r.requests(), r.errors(), r.throughputPerSecond(),
+                    r.p50Ms(), r.p95Ms(), r.p99Ms(), r.maxMs());
+        }
+    }
+
+    public void writeJson(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ampliar.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Tamanho da base sintética e perfil de carga, lidos de propriedades de sistema
+ * ({@code -Dloadtest.*}). Os padrões geram uma clínica média de produção: 50 psicólogos,
+ * 5 mil pacientes, 200 mil agendamentos e 100 mil pagamentos.
+ */
+public record LoadTestSettings(
+        int psychologists,
+        int patientsPerPsychologist,
+        int payersPerPsychologist,
+        int appointments,
+        int payments,
+        int virtualUsers,
+        Duration warmup,
+        Duration duration
+) {
+
+    public LoadTestSettings {
+        if (payments > appointments) {
+            throw new IllegalArgumentException("Cada pagamento semeado é alocado a um agendamento: payments <= appointments");
+        }
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.psychologists", 50),
+                Integer.getInteger("loadtest.patients-per-psychologist", 100),
+                Integer.getInteger("loadtest.payers-per-psychologist", 20),
+                Integer.getInteger("loadtest.appointments", 200_000),
+                Integer.getInteger("loadtest.payments", 100_000),
+                Integer.getInteger("loadtest.users", 32),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT2M"))
+        );
+    }
+
+    public int patients() {
+        return psychologists * patientsPerPsychologist;
+    }
+
+    public int payers() {
+        return psychologists * payersPerPsychologist;
+    }
+}
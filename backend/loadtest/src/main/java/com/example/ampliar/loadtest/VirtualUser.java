@@ -0,0 +1,137 @@
+package com.example.ampliar.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Um psicólogo usando o sistema em laço fechado (sem tempo de pensamento): faz login e sorteia
+ * operações do {@link Endpoint mix} até o fim do teste. Cada agendamento criado recebe um
+ * horário único e futuro, para que a carga meça o caminho feliz e não conflitos de agenda.
+ */
+class VirtualUser implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualUser.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final LocalDateTime BOOKING_BASE = LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.HOURS);
+
+    private final HttpClient http;
+    private final ObjectMapper json;
+    private final String baseUrl;
+    private final int psychologistId;
+    private final LoadTestSettings settings;
+    private final LatencyRecorder recorder;
+    private final AtomicLong bookingSlots;
+    private final BooleanSupplier running;
+
+    private String token;
+
+    VirtualUser(HttpClient http, ObjectMapper json, String baseUrl, int psychologistId, LoadTestSettings settings,
+                LatencyRecorder recorder, AtomicLong bookingSlots, BooleanSupplier running) {
+        this.http = http;
+        this.json = json;
+        this.baseUrl = baseUrl;
+        this.psychologistId = psychologistId;
+        this.settings = settings;
+        this.recorder = recorder;
+        this.bookingSlots = bookingSlots;
+        this.running = running;
+    }
+
+    @Override
+    public void run() {
+        while (running.getAsBoolean()) {
+            Endpoint endpoint = token == null
+                    ? Endpoint.LOGIN
+                    : Endpoint.pick(ThreadLocalRandom.current().nextInt(Endpoint.totalWeight()));
+            try {
+                execute(endpoint);
+            } catch (IOException e) {
+                log.warn("Falha de rede em {}: {}", endpoint.label(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void execute(Endpoint endpoint) throws IOException, InterruptedException {
+        HttpRequest request = switch (endpoint) {
+            case LOGIN -> post("/auth/login", Map.of(
+                    "email", ClinicDatasetSeeder.email(psychologistId),
+                    "password", ClinicDatasetSeeder.PASSWORD));
+            case AGENDA -> get("/appointments");
+            case BOOKING -> post("/appointments", booking());
+            case PAYMENT -> post("/payments", Map.of(
+                    "valor", ClinicDatasetSeeder.SESSION_PRICE,
+                    "paymentDate", LocalDate.now().toString(),
+                    "payerId", randomId(ClinicDatasetSeeder.firstPayerId(psychologistId, settings), settings.payersPerPsychologist())));
+            case DASHBOARD -> get("/reports/income?month=" + YearMonth.now());
+        };
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        long elapsed = System.nanoTime() - start;
+
+        int status = response.statusCode();
+        recorder.record(endpoint, elapsed, status >= 200 && status < 300);
+
+        if (endpoint == Endpoint.LOGIN && status == 200) {
+            JsonNode body = json.readTree(response.body());
+            token = body.path("token").asText(null);
+        } else if (status == 401 || status == 403) {
+            token = null;
+        }
+    }
+
+    private Map<String, Object> booking() {
+        LocalDateTime start = BOOKING_BASE.plusHours(bookingSlots.getAndIncrement());
+        return Map.of(
+                "appointmentDate", start.toString(),
+                "appointmentEndDate", start.plusMinutes(50).toString(),
+                "type", "Sessão individual",
+                "psychologistId", psychologistId,
+                "patientIds", List.of(randomId(ClinicDatasetSeeder.firstPatientId(psychologistId, settings), settings.patientsPerPsychologist())));
+    }
+
+    private static long randomId(long first, int count) {
+        return first + ThreadLocalRandom.current().nextInt(count);
+    }
+
+    private HttpRequest get(String path) {
+        return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path))).GET().build();
+    }
+
+    private HttpRequest post(String path, Map<String, ?> body) throws IOException {
+        return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder builder) {
+        builder.timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.ampliar.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String RECEIPTS = "receipts";
+    public static final String INCOME_REPORTS = "incomeReports";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${receipt.cache.max-weight-bytes:67108864}") long receiptMaxWeightBytes,
+            @Value("${receipt.cache.expire-after-access:PT12H}") Duration receiptExpireAfterAccess,
+            @Value("${report.income.cache.max-size:10000}") long incomeReportMaxSize,
+            @Value("${report.income.cache.expire-after-write:PT1H}") Duration incomeReportExpireAfterWrite
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(RECEIPTS, Caffeine.newBuilder()
+                .maximumWeight(receiptMaxWeightBytes)
+                .weigher((Object key, Object value) -> value instanceof byte[] bytes ? bytes.length : 1)
+                .expireAfterAccess(receiptExpireAfterAccess)
+                .recordStats()
+                .build());
+        // A invalidação é local: a expiração limita o tempo em que outra instância serve totais antigos.
+        cacheManager.registerCustomCache(INCOME_REPORTS, Caffeine.newBuilder()
+                .maximumSize(incomeReportMaxSize)
+                .expireAfterWrite(incomeReportExpireAfterWrite)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ampliar.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limites por região do cache de segundo nível do Hibernate. Sem {@code ttl} a região não expira
+ * por tempo, apenas pelo tamanho máximo.
+ */
+@ConfigurationProperties(prefix = "hibernate-cache")
+public record HibernateCacheProperties(Map<String, Region> regions) {
+
+    public record Region(long maxSize, Duration ttl) {
+    }
+
+    public HibernateCacheProperties {
+        regions = regions != null ? Map.copyOf(regions) : Map.of();
+    }
+}
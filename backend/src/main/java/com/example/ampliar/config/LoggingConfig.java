@@ -0,0 +1,20 @@
+package com.example.ampliar.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import com.example.ampliar.logging.MdcTaskDecorator;
+
+@Configuration
+public class LoggingConfig {
+
+    /**
+     * Aplicado pelo Spring Boot ao executor padrão (usado pelos downloads em streaming), para que
+     * os logs emitidos fora da thread do Tomcat mantenham o {@code requestId}.
+     */
+    @Bean
+    public TaskDecorator mdcTaskDecorator() {
+        return new MdcTaskDecorator();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ampliar.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.example.ampliar.logging.MdcTaskDecorator;
+
+@Configuration
+public class PasswordHashingConfig {
+
+    /**
+     * Pool dedicado ao BCrypt. O número de threads limita quantos núcleos o hashing pode ocupar;
+     * com a fila cheia a tarefa é recusada (AbortPolicy) e a requisição recebe 429, em vez de
+     * prender as threads do Tomcat que atendem o restante da API.
+     */
+    @Bean(name = "passwordHashExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${security.password-hash.pool-size:2}") int poolSize,
+            @Value("${security.password-hash.queue-capacity:32}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ampliar.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.example.ampliar.logging.MdcTaskDecorator;
+
+@Configuration
+public class ReceiptExecutorConfig {
+
+    /**
+     * Pool limitado para renderização de recibos em lote. Quando a fila enche, a thread que
+     * submeteu a tarefa a executa (CallerRunsPolicy), o que segura o ritmo do produtor em vez
+     * de descartar recibos ou crescer a memória sem limite.
+     */
+    @Bean(name = "receiptExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor receiptExecutor(
+            @Value("${receipt.executor.pool-size:4}") int poolSize,
+            @Value("${receipt.executor.queue-capacity:64}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("receipt-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+}
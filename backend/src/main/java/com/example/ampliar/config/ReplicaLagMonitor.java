@@ -0,0 +1,65 @@
+package com.example.ampliar.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mede periodicamente o atraso de replicação da réplica de leitura. Acima do limite configurado,
+ * ou se a réplica não responder, as leituras voltam para o primário até a próxima medição boa.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Atraso em segundos. Sem WAL pendente o atraso é zero, mesmo que a última transação replicada
+     * seja antiga (primário ocioso); uma instância que não está em recovery não tem atraso.
+     */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica-lag.check-interval:PT2S}")
+    public void checkReplicaLag() {
+        boolean usable;
+        try {
+            Double lagSeconds = replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+            Duration lag = Duration.ofMillis(Math.round((lagSeconds != null ? lagSeconds : 0) * 1000));
+            usable = lag.compareTo(maxLag) <= 0;
+            if (!usable && replicaUsable) {
+                log.warn("Réplica com atraso de {} (limite {}); leituras redirecionadas ao primário", lag, maxLag);
+            }
+        } catch (Exception e) {
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Réplica indisponível; leituras redirecionadas ao primário: {}", e.getMessage());
+            }
+        }
+        if (usable && !replicaUsable) {
+            log.info("Réplica dentro do limite de atraso ({}); leituras somente leitura voltam para a réplica", maxLag);
+        }
+        replicaUsable = usable;
+    }
+}
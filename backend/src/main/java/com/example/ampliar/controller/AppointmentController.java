@@ -3,11 +3,13 @@ package com.example.ampliar.controller;
 import com.example.ampliar.dto.appointment.AppointmentCreateDTO;
 import com.example.ampliar.dto.appointment.AppointmentDTO;
 import com.example.ampliar.dto.appointment.AppointmentUpdateDTO;
+import com.example.ampliar.model.enums.VersionedResource;
 import com.example.ampliar.service.AppointmentService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,9 +19,11 @@ import java.util.List;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final ConditionalRequests conditionalRequests;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, ConditionalRequests conditionalRequests) {
         this.appointmentService = appointmentService;
+        this.conditionalRequests = conditionalRequests;
     }
 
     @PostMapping
@@ -50,18 +54,22 @@ public class AppointmentController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<AppointmentDTO> getAppointmentById(@PathVariable Long id) {
+    public ResponseEntity<AppointmentDTO> getAppointmentById(@PathVariable Long id, WebRequest request) {
         log.debug("Recebida requisição GET /appointments/{} - Buscar agendamento por ID", id);
-        AppointmentDTO result = appointmentService.getAppointmentById(id);
-        log.debug("Agendamento encontrado - ID: {}, Data: {}", id, result.appointmentDate());
-        return ResponseEntity.ok(result);
+        return conditionalRequests.get(VersionedResource.APPOINTMENTS, request, () -> {
+            AppointmentDTO result = appointmentService.getAppointmentById(id);
+            log.debug("Agendamento encontrado - ID: {}, Data: {}", id, result.appointmentDate());
+            return result;
+        });
     }
 
     @GetMapping
-    public ResponseEntity<List<AppointmentDTO>> getAllAppointments() {
+    public ResponseEntity<List<AppointmentDTO>> getAllAppointments(WebRequest request) {
         log.debug("Recebida requisição GET /appointments - Listar todos os agendamentos");
-        List<AppointmentDTO> result = appointmentService.getAllAppointments();
-        log.debug("Lista de agendamentos retornada - Total: {}", result.size());
-        return ResponseEntity.ok(result);
+        return conditionalRequests.get(VersionedResource.APPOINTMENTS, request, () -> {
+            List<AppointmentDTO> result = appointmentService.getAllAppointments();
+            log.debug("Lista de agendamentos retornada - Total: {}", result.size());
+            return result;
+        });
     }
 }
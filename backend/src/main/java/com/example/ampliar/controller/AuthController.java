@@ -3,16 +3,23 @@ package com.example.ampliar.controller;
 import com.example.ampliar.dto.AuthRequestDTO;
 import com.example.ampliar.dto.AuthResponseDTO;
 import com.example.ampliar.dto.ForgotPasswordRequestDTO;
+import com.example.ampliar.dto.RefreshTokenRequestDTO;
 import com.example.ampliar.dto.ResetPasswordRequestDTO;
 import com.example.ampliar.dto.psychologist.PsychologistCreateDTO;
+import com.example.ampliar.exception.TooManyRequestsException;
+import com.example.ampliar.metrics.BusinessMetrics;
 import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.security.AuthRateLimiter;
 import com.example.ampliar.security.JwtUtil;
+import com.example.ampliar.security.PasswordHasher;
 import com.example.ampliar.service.PasswordResetService;
 import com.example.ampliar.service.PsychologistService;
+import com.example.ampliar.service.RefreshTokenService;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -24,53 +31,83 @@ import java.util.Optional;
 public class AuthController {
 
     private final PsychologistService psychologistService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
     private final PasswordResetService passwordResetService;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthRateLimiter authRateLimiter;
+    private final BusinessMetrics businessMetrics;
 
-    public AuthController(PsychologistService psychologistService, JwtUtil jwtUtil, PasswordEncoder passwordEncoder,
-                          PasswordResetService passwordResetService) {
+    public AuthController(PsychologistService psychologistService, JwtUtil jwtUtil, PasswordHasher passwordHasher,
+                          PasswordResetService passwordResetService, RefreshTokenService refreshTokenService,
+                          AuthRateLimiter authRateLimiter, BusinessMetrics businessMetrics) {
         this.psychologistService = psychologistService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtil = jwtUtil;
         this.passwordResetService = passwordResetService;
+        this.refreshTokenService = refreshTokenService;
+        this.authRateLimiter = authRateLimiter;
+        this.businessMetrics = businessMetrics;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody PsychologistCreateDTO request) {
+    public ResponseEntity<?> register(@Valid @RequestBody PsychologistCreateDTO request, HttpServletRequest httpRequest) {
         log.info("Recebida requisição POST /auth/register - Registrar psicólogo: {}", request.email());
+        authRateLimiter.checkRegistration(httpRequest.getRemoteAddr());
         var result = psychologistService.createPsychologist(request);
         log.info("Registro realizado com sucesso - Email: {}, ID: {}", request.email(), result.id());
         return ResponseEntity.ok(result);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody AuthRequestDTO request) {
+    public ResponseEntity<?> login(@Valid @RequestBody AuthRequestDTO request, HttpServletRequest httpRequest) {
         log.info("Recebida requisição POST /auth/login - Login: {}", request.email());
+        Timer.Sample sample = businessMetrics.startTimer();
 
-        Optional<PsychologistModel> userOpt = psychologistService.findByEmail(request.email());
+        try {
+            authRateLimiter.checkLogin(request.email(), httpRequest.getRemoteAddr());
 
-        if (userOpt.isEmpty()) {
-            log.warn("Tentativa de login com email não encontrado: {}", request.email());
-            return ResponseEntity.status(401).body(Map.of("message", "Credenciais inválidas"));
-        }
+            Optional<PsychologistModel> userOpt = psychologistService.findByEmail(request.email());
+
+            if (userOpt.isEmpty()) {
+                log.warn("Tentativa de login com email não encontrado: {}", request.email());
+                businessMetrics.recordLogin(sample, BusinessMetrics.INVALID_CREDENTIALS);
+                return ResponseEntity.status(401).body(Map.of("message", "Credenciais inválidas"));
+            }
+
+            PsychologistModel user = userOpt.get();
+            if (!passwordHasher.matches(request.password(), user.getPassword())) {
+                log.warn("Tentativa de login com senha incorreta para: {}", request.email());
+                businessMetrics.recordLogin(sample, BusinessMetrics.INVALID_CREDENTIALS);
+                return ResponseEntity.status(401).body(Map.of("message", "Credenciais inválidas"));
+            }
+
+            AuthResponseDTO response = toAuthResponse(refreshTokenService.startSession(user));
 
-        PsychologistModel user = userOpt.get();
-        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
-            log.warn("Tentativa de login com senha incorreta para: {}", request.email());
-            return ResponseEntity.status(401).body(Map.of("message", "Credenciais inválidas"));
+            log.info("Login realizado com sucesso - Email: {}, ID: {}", user.getEmail(), user.getId());
+            businessMetrics.recordLogin(sample, BusinessMetrics.SUCCESS);
+            return ResponseEntity.ok(response);
+        } catch (TooManyRequestsException e) {
+            businessMetrics.recordLogin(sample, BusinessMetrics.RATE_LIMITED);
+            throw e;
         }
+    }
 
-        String token = jwtUtil.generateToken(user.getEmail());
-        AuthResponseDTO response = new AuthResponseDTO(
-                token,
-                user.getEmail(),
-                user.getId(),
-                user.getFullName()
-        );
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        log.info("Recebida requisição POST /auth/refresh");
+        Optional<RefreshTokenService.Session> session = refreshTokenService.rotate(request.refreshToken());
+        if (session.isEmpty()) {
+            return ResponseEntity.status(401).body(Map.of("message", "Sessão expirada"));
+        }
+        return ResponseEntity.ok(toAuthResponse(session.get()));
+    }
 
-        log.info("Login realizado com sucesso - Email: {}, ID: {}", user.getEmail(), user.getId());
-        return ResponseEntity.ok(response);
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        log.info("Recebida requisição POST /auth/logout");
+        refreshTokenService.endSession(request.refreshToken());
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/forgot-password")
@@ -90,4 +127,16 @@ public class AuthController {
         passwordResetService.resetPassword(request.token(), request.newPassword());
         return ResponseEntity.ok(Map.of("message", "Senha redefinida com sucesso"));
     }
+
+    private AuthResponseDTO toAuthResponse(RefreshTokenService.Session session) {
+        String token = jwtUtil.generateToken(session.email(), session.psychologistId(), session.sessionId());
+        return new AuthResponseDTO(
+                token,
+                session.email(),
+                session.psychologistId(),
+                session.fullName(),
+                session.refreshToken(),
+                jwtUtil.getExpirationTime() / 1000
+        );
+    }
 }
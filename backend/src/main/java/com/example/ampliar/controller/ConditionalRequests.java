@@ -0,0 +1,56 @@
+package com.example.ampliar.controller;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
+
+import com.example.ampliar.model.enums.VersionedResource;
+import com.example.ampliar.security.CurrentPsychologist;
+import com.example.ampliar.service.ResourceVersionService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * GET condicional das listagens e detalhes por psicólogo. O ETag fraco é a versão do recurso
+ * ({@link ResourceVersionService}); com {@code If-None-Match} igual, a resposta é 304 sem
+ * executar as consultas do recurso.
+ */
+@Component
+@Slf4j
+public class ConditionalRequests {
+
+    // Sem no-store: o navegador guarda a resposta e revalida com If-None-Match a cada uso.
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final ResourceVersionService resourceVersionService;
+    private final CurrentPsychologist currentPsychologist;
+
+    public ConditionalRequests(ResourceVersionService resourceVersionService, CurrentPsychologist currentPsychologist) {
+        this.resourceVersionService = resourceVersionService;
+        this.currentPsychologist = currentPsychologist;
+    }
+
+    /**
+     * Responde 304 ou o corpo de {@code body} com o ETag da versão lida antes dele. Versão e
+     * dados são lidos na mesma transação (e, portanto, no mesmo banco, primário ou réplica):
+     * os dados nunca são mais antigos que o ETag que os acompanha.
+     *
+     * @return {@code null} quando a resposta já foi marcada como 304
+     */
+    @Transactional(readOnly = true)
+    public <T> ResponseEntity<T> get(VersionedResource resource, WebRequest request, Supplier<T> body) {
+        Long psychologistId = currentPsychologist.getId();
+        long version = resourceVersionService.currentVersion(psychologistId, resource);
+        // O ID do psicólogo entra no ETag: outro login no mesmo navegador não reaproveita a resposta.
+        String etag = "W/\"" + psychologistId + "-" + version + "\"";
+        if (request.checkNotModified(etag)) {
+            log.debug("{} não modificado desde a versão {} - psicólogo ID: {}", resource, version, psychologistId);
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+}
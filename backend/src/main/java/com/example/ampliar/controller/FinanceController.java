@@ -0,0 +1,62 @@
+package com.example.ampliar.controller;
+
+import com.example.ampliar.exception.BusinessRuleException;
+import com.example.ampliar.exception.ErrorCode;
+import com.example.ampliar.security.CurrentPsychologist;
+import com.example.ampliar.service.FinanceExportService;
+import com.example.ampliar.service.FinanceExportService.Format;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+
+@RestController
+@RequestMapping("/finance")
+@Slf4j
+public class FinanceController {
+
+    private static final int MIN_EXPORT_YEAR = 1900;
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType XLSX = MediaType.parseMediaType(
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final FinanceExportService financeExportService;
+    private final CurrentPsychologist currentPsychologist;
+
+    public FinanceController(FinanceExportService financeExportService, CurrentPsychologist currentPsychologist) {
+        this.financeExportService = financeExportService;
+        this.currentPsychologist = currentPsychologist;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportYear(
+            @RequestParam int year,
+            @RequestParam(defaultValue = "CSV") Format format) {
+        log.info("Recebida requisição GET /finance/export?year={}&format={} - Exportar financeiro", year, format);
+
+        // Validado antes do streaming: depois que a resposta começa, o erro não vira mais um 400.
+        // Pagamentos não podem ter data futura, então o ano corrente é o último com dados.
+        if (year < MIN_EXPORT_YEAR || year > Year.now().getValue()) {
+            throw new BusinessRuleException(ErrorCode.INVALID_ARGUMENT,
+                    "O ano deve estar entre " + MIN_EXPORT_YEAR + " e o ano corrente");
+        }
+
+        // O usuário é resolvido aqui: o corpo é escrito em outra thread, fora do escopo da requisição.
+        Long psychologistId = currentPsychologist.getId();
+        StreamingResponseBody body = out -> financeExportService.exportYear(psychologistId, year, format, out);
+
+        String extension = format == Format.XLSX ? "xlsx" : "csv";
+        return ResponseEntity.ok()
+                .contentType(format == Format.XLSX ? XLSX : TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("financeiro-" + year + "." + extension).build().toString())
+                .body(body);
+    }
+}
@@ -3,11 +3,13 @@ package com.example.ampliar.controller;
 import com.example.ampliar.dto.legalGuardian.LegalGuardianCreateDTO;
 import com.example.ampliar.dto.legalGuardian.LegalGuardianDTO;
 import com.example.ampliar.dto.legalGuardian.LegalGuardianUpdateDTO;
+import com.example.ampliar.model.enums.VersionedResource;
 import com.example.ampliar.service.LegalGuardianService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,9 +19,11 @@ import java.util.List;
 public class LegalGuardianController {
 
     private final LegalGuardianService legalGuardianService;
+    private final ConditionalRequests conditionalRequests;
 
-    public LegalGuardianController(LegalGuardianService legalGuardianService) {
+    public LegalGuardianController(LegalGuardianService legalGuardianService, ConditionalRequests conditionalRequests) {
         this.legalGuardianService = legalGuardianService;
+        this.conditionalRequests = conditionalRequests;
     }
 
     @PostMapping
@@ -39,19 +43,23 @@ public class LegalGuardianController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<LegalGuardianDTO> getGuardianById(@PathVariable Long id) {
+    public ResponseEntity<LegalGuardianDTO> getGuardianById(@PathVariable Long id, WebRequest request) {
         log.debug("Recebida requisição GET /guardians/{} - Buscar responsável legal por ID", id);
-        LegalGuardianDTO result = legalGuardianService.getGuardianById(id);
-        log.debug("Responsável legal encontrado - ID: {}", id);
-        return ResponseEntity.ok(result);
+        return conditionalRequests.get(VersionedResource.LEGAL_GUARDIANS, request, () -> {
+            LegalGuardianDTO result = legalGuardianService.getGuardianById(id);
+            log.debug("Responsável legal encontrado - ID: {}", id);
+            return result;
+        });
     }
 
     @GetMapping
-    public ResponseEntity<List<LegalGuardianDTO>> getAllGuardians() {
+    public ResponseEntity<List<LegalGuardianDTO>> getAllGuardians(WebRequest request) {
         log.debug("Recebida requisição GET /guardians - Listar todos os responsáveis legais");
-        List<LegalGuardianDTO> result = legalGuardianService.getAllGuardians();
-        log.debug("Lista de responsáveis legais retornada - Total: {}", result.size());
-        return ResponseEntity.ok(result);
+        return conditionalRequests.get(VersionedResource.LEGAL_GUARDIANS, request, () -> {
+            List<LegalGuardianDTO> result = legalGuardianService.getAllGuardians();
+            log.debug("Lista de responsáveis legais retornada - Total: {}", result.size());
+            return result;
+        });
     }
 
     @DeleteMapping("/{id}")
@@ -3,11 +3,13 @@ package com.example.ampliar.controller;
 import com.example.ampliar.dto.patient.PatientCreateDTO;
 import com.example.ampliar.dto.patient.PatientDTO;
 import com.example.ampliar.dto.patient.PatientUpdateDTO;
+import com.example.ampliar.model.enums.VersionedResource;
 import com.example.ampliar.service.PatientService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,9 +19,11 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService patientService;
+    private final ConditionalRequests conditionalRequests;
 
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService, ConditionalRequests conditionalRequests) {
         this.patientService = patientService;
+        this.conditionalRequests = conditionalRequests;
     }
 
     @PostMapping
@@ -47,18 +51,22 @@ public class PatientController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PatientDTO> getPatientById(@PathVariable Long id) {
+    public ResponseEntity<PatientDTO> getPatientById(@PathVariable Long id, WebRequest request) {
         log.debug("Recebida requisição GET /patients/{} - Buscar paciente por ID", id);
-        PatientDTO result = patientService.getPatientById(id);
-        log.debug("Paciente encontrado - ID: {}", id);
-        return ResponseEntity.ok(result);
+        return conditionalRequests.get(VersionedResource.PATIENTS, request, () -> {
+            PatientDTO result = patientService.getPatientById(id);
+            log.debug("Paciente encontrado - ID: {}", id);
+            return result;
+        });
     }
 
     @GetMapping
-    public ResponseEntity<List<PatientDTO>> getAllPatients() {
+    public ResponseEntity<List<PatientDTO>> getAllPatients(WebRequest request) {
         log.debug("Recebida requisição GET /patients - Listar todos os pacientes");
-        List<PatientDTO> result = patientService.getAllPatients();
-        log.debug("Lista de pacientes retornada - Total: {}", result.size());
-        return ResponseEntity.ok(result);
+        return conditionalRequests.get(VersionedResource.PATIENTS, request, () -> {
+            List<PatientDTO> result = patientService.getAllPatients();
+            log.debug("Lista de pacientes retornada - Total: {}", result.size());
+            return result;
+        });
     }
 }
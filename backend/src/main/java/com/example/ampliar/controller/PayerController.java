@@ -1,13 +1,17 @@
 package com.example.ampliar.controller;
 
+import com.example.ampliar.dto.allocation.PayerCreditDTO;
 import com.example.ampliar.dto.payer.PayerCreateDTO;
 import com.example.ampliar.dto.payer.PayerDTO;
 import com.example.ampliar.dto.payer.PayerUpdateDTO;
+import com.example.ampliar.model.enums.VersionedResource;
 import com.example.ampliar.service.PayerService;
+import com.example.ampliar.service.PaymentAllocationService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,9 +21,13 @@ import java.util.List;
 public class PayerController {
 
     private final PayerService payerService;
+    private final PaymentAllocationService paymentAllocationService;
+    private final ConditionalRequests conditionalRequests;
 
-    public PayerController(PayerService payerService){
+    public PayerController(PayerService payerService, PaymentAllocationService paymentAllocationService, ConditionalRequests conditionalRequests){
         this.payerService = payerService;
+        this.paymentAllocationService = paymentAllocationService;
+        this.conditionalRequests = conditionalRequests;
     }
 
     @PostMapping
@@ -39,18 +47,30 @@ public class PayerController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PayerDTO>> getAllPayers() {
+    public ResponseEntity<List<PayerDTO>> getAllPayers(WebRequest request) {
         log.debug("Recebida requisição GET /payers - Listar todos os pagadores");
-        List<PayerDTO> result = payerService.getAllPayers();
-        log.debug("Lista de pagadores retornada - Total: {}", result.size());
-        return ResponseEntity.ok(result);
+        return conditionalRequests.get(VersionedResource.PAYERS, request, () -> {
+            List<PayerDTO> result = payerService.getAllPayers();
+            log.debug("Lista de pagadores retornada - Total: {}", result.size());
+            return result;
+        });
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PayerDTO> getPayerById(@PathVariable Long id) {
+    public ResponseEntity<PayerDTO> getPayerById(@PathVariable Long id, WebRequest request) {
         log.debug("Recebida requisição GET /payers/{} - Buscar pagador por ID", id);
-        PayerDTO result = payerService.getPayerById(id);
-        log.debug("Pagador encontrado - ID: {}, Nome: {}", id, result.fullName());
+        return conditionalRequests.get(VersionedResource.PAYERS, request, () -> {
+            PayerDTO result = payerService.getPayerById(id);
+            log.debug("Pagador encontrado - ID: {}, Nome: {}", id, result.fullName());
+            return result;
+        });
+    }
+
+    @GetMapping("/{id}/credit")
+    public ResponseEntity<PayerCreditDTO> getPayerCredit(@PathVariable Long id) {
+        log.debug("Recebida requisição GET /payers/{}/credit - Consultar crédito não alocado", id);
+        PayerCreditDTO result = paymentAllocationService.getPayerCredit(id);
+        log.debug("Crédito não alocado do pagador ID: {} - {}", id, result.unallocatedCredit());
         return ResponseEntity.ok(result);
     }
 
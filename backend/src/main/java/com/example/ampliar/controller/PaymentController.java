@@ -1,13 +1,19 @@
 package com.example.ampliar.controller;
 
+import com.example.ampliar.dto.allocation.AutoAllocationRequestDTO;
+import com.example.ampliar.dto.allocation.PaymentAllocationCreateDTO;
+import com.example.ampliar.dto.allocation.PaymentAllocationDTO;
 import com.example.ampliar.dto.payment.PaymentCreateDTO;
 import com.example.ampliar.dto.payment.PaymentDTO;
 import com.example.ampliar.dto.payment.PaymentUpdateDTO;
+import com.example.ampliar.model.enums.VersionedResource;
+import com.example.ampliar.service.PaymentAllocationService;
 import com.example.ampliar.service.PaymentService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,9 +23,13 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentAllocationService paymentAllocationService;
+    private final ConditionalRequests conditionalRequests;
 
-    public PaymentController(PaymentService paymentService){
+    public PaymentController(PaymentService paymentService, PaymentAllocationService paymentAllocationService, ConditionalRequests conditionalRequests){
         this.paymentService = paymentService;
+        this.paymentAllocationService = paymentAllocationService;
+        this.conditionalRequests = conditionalRequests;
     }
 
     @PostMapping
@@ -48,18 +58,55 @@ public class PaymentController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PaymentDTO> getPaymentById(@PathVariable Long id) {
+    public ResponseEntity<PaymentDTO> getPaymentById(@PathVariable Long id, WebRequest request) {
         log.debug("Recebida requisição GET /payments/{} - Buscar pagamento por ID", id);
-        PaymentDTO result = paymentService.getPaymentById(id);
-        log.debug("Pagamento encontrado - ID: {}, Valor: {}", id, result.valor());
-        return ResponseEntity.ok(result);
+        return conditionalRequests.get(VersionedResource.PAYMENTS, request, () -> {
+            PaymentDTO result = paymentService.getPaymentById(id);
+            log.debug("Pagamento encontrado - ID: {}, Valor: {}", id, result.valor());
+            return result;
+        });
     }
 
     @GetMapping
-    public ResponseEntity<List<PaymentDTO>> getAllPayments() {
+    public ResponseEntity<List<PaymentDTO>> getAllPayments(WebRequest request) {
         log.debug("Recebida requisição GET /payments - Listar todos os pagamentos");
-        List<PaymentDTO> result = paymentService.getAllPayments();
-        log.debug("Lista de pagamentos retornada - Total: {}", result.size());
+        return conditionalRequests.get(VersionedResource.PAYMENTS, request, () -> {
+            List<PaymentDTO> result = paymentService.getAllPayments();
+            log.debug("Lista de pagamentos retornada - Total: {}", result.size());
+            return result;
+        });
+    }
+
+    @GetMapping("/{id}/allocations")
+    public ResponseEntity<List<PaymentAllocationDTO>> getAllocations(@PathVariable Long id) {
+        log.debug("Recebida requisição GET /payments/{}/allocations - Listar alocações", id);
+        List<PaymentAllocationDTO> result = paymentAllocationService.getAllocations(id);
+        log.debug("Lista de alocações retornada - Total: {}", result.size());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/{id}/allocations")
+    public ResponseEntity<PaymentAllocationDTO> createAllocation(@PathVariable Long id, @Valid @RequestBody PaymentAllocationCreateDTO allocation) {
+        log.info("Recebida requisição POST /payments/{}/allocations - Agendamento: {}, Valor: {}",
+                 id, allocation.appointmentId(), allocation.amount());
+        PaymentAllocationDTO result = paymentAllocationService.createAllocation(id, allocation);
+        log.info("Alocação criada com sucesso - ID: {}", result.id());
         return ResponseEntity.ok(result);
     }
+
+    @PostMapping("/{id}/allocations/auto")
+    public ResponseEntity<List<PaymentAllocationDTO>> autoAllocate(@PathVariable Long id, @Valid @RequestBody AutoAllocationRequestDTO request) {
+        log.info("Recebida requisição POST /payments/{}/allocations/auto - Paciente: {}, Valor da sessão: {}",
+                 id, request.patientId(), request.sessionPrice());
+        List<PaymentAllocationDTO> result = paymentAllocationService.autoAllocate(id, request);
+        log.info("Alocação automática concluída - Pagamento: {}, Alocações: {}", id, result.size());
+        return ResponseEntity.ok(result);
+    }
+
+    @DeleteMapping("/{id}/allocations/{appointmentId}")
+    public ResponseEntity<Void> deleteAllocation(@PathVariable Long id, @PathVariable Long appointmentId) {
+        log.info("Recebida requisição DELETE /payments/{}/allocations/{} - Remover alocação", id, appointmentId);
+        paymentAllocationService.deleteAllocation(id, appointmentId);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,52 @@
+package com.example.ampliar.controller;
+
+import com.example.ampliar.dto.receipt.ReceiptDataDTO;
+import com.example.ampliar.service.ReceiptService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/receipts")
+@Slf4j
+public class ReceiptController {
+
+    private static final MediaType APPLICATION_ZIP = MediaType.parseMediaType("application/zip");
+
+    private final ReceiptService receiptService;
+
+    public ReceiptController(ReceiptService receiptService) {
+        this.receiptService = receiptService;
+    }
+
+    @GetMapping("/{paymentId}")
+    public ResponseEntity<byte[]> getReceipt(@PathVariable Long paymentId) {
+        log.debug("Recebida requisição GET /receipts/{} - Gerar recibo", paymentId);
+        byte[] pdf = receiptService.getReceipt(paymentId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("recibo-" + paymentId + ".pdf").build().toString())
+                .body(pdf);
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> getMonthlyReceipts(
+            @RequestParam YearMonth month) {
+        log.info("Recebida requisição GET /receipts?month={} - Gerar recibos do mês", month);
+        List<ReceiptDataDTO> receipts = receiptService.findMonthlyReceipts(month);
+        StreamingResponseBody body = out -> receiptService.writeReceiptsZip(receipts, out);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_ZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("recibos-" + month + ".zip").build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ampliar.controller;
+
+import com.example.ampliar.dto.report.IncomeReportDTO;
+import com.example.ampliar.service.IncomeReportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/reports")
+@Slf4j
+public class ReportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final IncomeReportService incomeReportService;
+
+    public ReportController(IncomeReportService incomeReportService) {
+        this.incomeReportService = incomeReportService;
+    }
+
+    @GetMapping("/income")
+    public ResponseEntity<IncomeReportDTO> getMonthlyIncome(@RequestParam YearMonth month) {
+        log.debug("Recebida requisição GET /reports/income?month={} - Rendimentos por CPF", month);
+        IncomeReportDTO result = incomeReportService.getMonthlyIncome(month);
+        log.debug("Relatório de rendimentos retornado - Pagadores: {}, Total: {}", result.rows().size(), result.total());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/income/csv")
+    public ResponseEntity<String> exportMonthlyIncome(@RequestParam YearMonth month) {
+        log.info("Recebida requisição GET /reports/income/csv?month={} - Exportar rendimentos", month);
+        String csv = incomeReportService.exportMonthlyIncomeCsv(month);
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("carne-leao-" + month + ".csv").build().toString())
+                .body(csv);
+    }
+}
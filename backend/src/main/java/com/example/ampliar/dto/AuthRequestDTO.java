@@ -1,11 +1,12 @@
 package com.example.ampliar.dto;
 
-import jakarta.validation.constraints.Email;
+import com.example.ampliar.validation.constraints.EmailAddress;
+
 import jakarta.validation.constraints.NotBlank;
 
 public record AuthRequestDTO (
         @NotBlank(message = "O email é obrigatório")
-        @Email
+        @EmailAddress
         String email,
 
         @NotBlank(message = "A senha é obrigatório")
@@ -5,5 +5,7 @@ public record AuthResponseDTO(
         String token,      
         String email,       
         Long userId,       
-        String fullName    
-) {}
\ No newline at end of file
+        String fullName,
+        String refreshToken,
+        long expiresIn
+) {}
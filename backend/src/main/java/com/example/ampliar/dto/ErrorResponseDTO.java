@@ -2,13 +2,15 @@ package com.example.ampliar.dto;
 
 import java.util.List;
 
-public record ErrorResponseDTO(String message, List<FieldErrorDTO> errors) {
+import com.example.ampliar.exception.ErrorCode;
 
-    public static ErrorResponseDTO of(String message) {
-        return new ErrorResponseDTO(message, null);
+public record ErrorResponseDTO(String code, String message, List<FieldErrorDTO> errors) {
+
+    public static ErrorResponseDTO of(ErrorCode code, String message) {
+        return new ErrorResponseDTO(code.name(), message, null);
     }
 
-    public static ErrorResponseDTO of(String message, List<FieldErrorDTO> errors) {
-        return new ErrorResponseDTO(message, errors);
+    public static ErrorResponseDTO of(ErrorCode code, String message, List<FieldErrorDTO> errors) {
+        return new ErrorResponseDTO(code.name(), message, errors);
     }
 }
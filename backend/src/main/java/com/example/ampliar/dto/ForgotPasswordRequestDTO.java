@@ -1,10 +1,11 @@
 package com.example.ampliar.dto;
 
-import jakarta.validation.constraints.Email;
+import com.example.ampliar.validation.constraints.EmailAddress;
+
 import jakarta.validation.constraints.NotBlank;
 
 public record ForgotPasswordRequestDTO(
         @NotBlank(message = "O e-mail é obrigatório")
-        @Email(message = "O e-mail deve ser válido")
+        @EmailAddress
         String email
 ) {}
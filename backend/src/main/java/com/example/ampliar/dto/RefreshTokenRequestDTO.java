@@ -0,0 +1,8 @@
+package com.example.ampliar.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequestDTO(
+        @NotBlank(message = "O refresh token é obrigatório")
+        String refreshToken
+) {}
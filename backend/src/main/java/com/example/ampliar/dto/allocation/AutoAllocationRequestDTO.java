@@ -0,0 +1,15 @@
+package com.example.ampliar.dto.allocation;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record AutoAllocationRequestDTO(
+        @NotNull(message = "O paciente é obrigatório.")
+        Long patientId,
+
+        @NotNull(message = "O valor da sessão é obrigatório.")
+        @Positive(message = "O valor da sessão deve ser maior que zero.")
+        BigDecimal sessionPrice
+) {}
@@ -0,0 +1,8 @@
+package com.example.ampliar.dto.allocation;
+
+import java.math.BigDecimal;
+
+public record PayerCreditDTO(
+        Long payerId,
+        BigDecimal unallocatedCredit
+) {}
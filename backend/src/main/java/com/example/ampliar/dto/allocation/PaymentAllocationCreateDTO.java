@@ -0,0 +1,14 @@
+package com.example.ampliar.dto.allocation;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record PaymentAllocationCreateDTO(
+        @NotNull(message = "O agendamento é obrigatório.")
+        Long appointmentId,
+
+        @Positive(message = "O valor alocado deve ser maior que zero.")
+        BigDecimal amount
+) {}
@@ -0,0 +1,12 @@
+package com.example.ampliar.dto.allocation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PaymentAllocationDTO(
+        Long id,
+        Long paymentId,
+        Long appointmentId,
+        BigDecimal amount,
+        LocalDateTime allocatedAt
+) {}
@@ -1,5 +1,6 @@
 package com.example.ampliar.dto.appointment;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -9,6 +10,7 @@ import com.fasterxml.jackson.annotation.JsonAlias;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 public record AppointmentCreateDTO(
         @AppointmentDate
@@ -23,12 +25,15 @@ public record AppointmentCreateDTO(
 
         String notes,
 
-        @NotNull(message = "O psicólogo é obrigatório.")
+        // Opcional: o dono é sempre o psicólogo autenticado; um ID diferente é recusado.
         Long psychologistId,
 
         @NotNull(message = "Informe pelo menos um paciente.")
         @JsonAlias({"patientId"})
         List<Long> patientIds,
 
-        Long paymentId
+        Long paymentId,
+
+        @Positive(message = "O valor alocado deve ser maior que zero.")
+        BigDecimal allocatedAmount
 ) {}
@@ -0,0 +1,7 @@
+package com.example.ampliar.dto.appointment;
+
+public record AppointmentPatientRowDTO(
+        Long appointmentId,
+        Long patientId,
+        String fullName
+) {}
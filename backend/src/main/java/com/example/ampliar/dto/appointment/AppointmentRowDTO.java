@@ -0,0 +1,19 @@
+package com.example.ampliar.dto.appointment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.ampliar.model.enums.AppointmentStatus;
+
+public record AppointmentRowDTO(
+        Long id,
+        LocalDateTime appointmentDate,
+        LocalDateTime appointmentEndDate,
+        AppointmentStatus status,
+        String type,
+        String notes,
+        Long psychologistId,
+        String psychologistName,
+        Long paymentId,
+        BigDecimal paymentAmount
+) {}
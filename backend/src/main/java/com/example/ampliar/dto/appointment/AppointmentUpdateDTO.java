@@ -1,11 +1,14 @@
 package com.example.ampliar.dto.appointment;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import com.example.ampliar.model.enums.AppointmentStatus;
 import com.example.ampliar.validation.constraints.AppointmentDate;
 
+import jakarta.validation.constraints.Positive;
+
 public record AppointmentUpdateDTO(
         @AppointmentDate
         LocalDateTime appointmentDate,
@@ -15,5 +18,9 @@ public record AppointmentUpdateDTO(
         String notes,
         Long psychologistId,
         List<Long> patientIds,
-        Long paymentId
+        Long paymentId,
+        @Positive(message = "O valor alocado deve ser maior que zero.")
+        BigDecimal allocatedAmount,
+        // Remove as alocações existentes antes de aplicar paymentId; sem ela, as alocações são mantidas.
+        Boolean clearAllocations
 ) {}
@@ -0,0 +1,20 @@
+package com.example.ampliar.dto.finance;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.example.ampliar.model.enums.AppointmentStatus;
+
+public record FinanceExportRowDTO(
+        Long paymentId,
+        Long receiptNumber,
+        LocalDate paymentDate,
+        BigDecimal valor,
+        String payerName,
+        String payerCpf,
+        Long appointmentId,
+        LocalDateTime appointmentDate,
+        AppointmentStatus appointmentStatus,
+        BigDecimal allocatedAmount
+) {}
@@ -0,0 +1,6 @@
+package com.example.ampliar.dto.legalGuardian;
+
+public record GuardianPatientLinkDTO(
+        Long guardianId,
+        Long patientId
+) {}
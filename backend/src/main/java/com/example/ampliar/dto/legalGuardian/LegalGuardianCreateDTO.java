@@ -2,8 +2,10 @@ package com.example.ampliar.dto.legalGuardian;
 
 import java.util.List;
 
+import com.example.ampliar.validation.constraints.Cpf;
+import com.example.ampliar.validation.constraints.PhoneNumber;
+
 import jakarta.validation.constraints.*;
-import org.hibernate.validator.constraints.br.CPF;
 
 public record LegalGuardianCreateDTO(
         @NotBlank(message = "O nome completo é obrigatório")
@@ -11,14 +13,11 @@ public record LegalGuardianCreateDTO(
         String fullName,
 
         @NotBlank(message = "O CPF é obrigatório")
-        @CPF(message = "O CPF deve ser válido")
+        @Cpf
         String cpf,
 
         @NotBlank(message = "O número de telefone é obrigatório")
-        @Pattern(
-                regexp = "^\\d{10,11}$",
-                message = "O número de telefone deve conter 10 ou 11 dígitos"
-        )
+        @PhoneNumber
         String phoneNumber,
 
         @NotNull(message = "É necessário associar pelo menos um paciente")
@@ -0,0 +1,8 @@
+package com.example.ampliar.dto.legalGuardian;
+
+public record LegalGuardianRowDTO(
+        Long id,
+        String fullName,
+        String cpf,
+        String phoneNumber
+) {}
@@ -0,0 +1,6 @@
+package com.example.ampliar.dto.patient;
+
+public record PatientAppointmentCountDTO(
+        Long patientId,
+        Long total
+) {}
@@ -3,14 +3,13 @@ package com.example.ampliar.dto.patient;
 import java.time.LocalDate;
 import java.util.List;
 
-import org.hibernate.validator.constraints.br.CPF;
-
 import com.example.ampliar.validation.constraints.BirthDate;
+import com.example.ampliar.validation.constraints.Cpf;
+import com.example.ampliar.validation.constraints.EmailAddress;
+import com.example.ampliar.validation.constraints.PhoneNumber;
 
-import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 public record PatientCreateDTO(
@@ -19,21 +18,18 @@ public record PatientCreateDTO(
         String fullName,
 
         @NotBlank(message = "O CPF é obrigatório")
-        @CPF(message = "O CPF deve ser válido")
+        @Cpf
         String cpf,
 
         @NotBlank(message = "O número de telefone é obrigatório")
-        @Pattern(
-                regexp = "^\\d{10,11}$",
-                message = "O número de telefone deve conter 10 ou 11 dígitos"
-        )
+        @PhoneNumber
         String phoneNumber,
 
         @NotNull(message = "O aniversário é obrigatório")
         @BirthDate
         LocalDate birthDate,
 
-        @Email(message = "Email inválido")
+        @EmailAddress
         String email,
 
         String address,
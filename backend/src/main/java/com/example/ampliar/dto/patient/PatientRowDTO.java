@@ -0,0 +1,15 @@
+package com.example.ampliar.dto.patient;
+
+import java.time.LocalDate;
+
+public record PatientRowDTO(
+        Long id,
+        String fullName,
+        String phone,
+        String email,
+        String cpf,
+        LocalDate birthDate,
+        String address,
+        String notes,
+        LocalDate firstConsultationDate
+) {}
@@ -3,31 +3,27 @@ package com.example.ampliar.dto.patient;
 import java.time.LocalDate;
 import java.util.List;
 
-import org.hibernate.validator.constraints.br.CPF;
-
 import com.example.ampliar.validation.constraints.BirthDate;
+import com.example.ampliar.validation.constraints.Cpf;
+import com.example.ampliar.validation.constraints.EmailAddress;
+import com.example.ampliar.validation.constraints.PhoneNumber;
 
-import jakarta.validation.constraints.Email;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 public record PatientUpdateDTO(
         @Size(min = 3, max = 100, message = "O nome deve ter entre 3 e 100 caracteres")
         String fullName,
 
-        @CPF
+        @Cpf
         String cpf,
 
-        @Pattern(
-                regexp = "^\\d{10,11}$",
-                message = "O número de telefone deve conter 10 ou 11 dígitos"
-        )
+        @PhoneNumber
         String phoneNumber,
 
         @BirthDate
         LocalDate birthDate,
 
-        @Email(message = "Email inválido")
+        @EmailAddress
         String email,
 
         String address,
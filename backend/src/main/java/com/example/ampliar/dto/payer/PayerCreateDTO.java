@@ -1,9 +1,9 @@
 package com.example.ampliar.dto.payer;
 
-import org.hibernate.validator.constraints.br.CPF;
+import com.example.ampliar.validation.constraints.Cpf;
+import com.example.ampliar.validation.constraints.PhoneNumber;
 
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 public record PayerCreateDTO(
@@ -12,13 +12,10 @@ public record PayerCreateDTO(
         String fullName,
 
         @NotBlank(message = "O CPF é obrigatório")
-        @CPF(message = "O CPF deve ser válido")
+        @Cpf
         String cpf,
 
         @NotBlank(message = "O número de telefone é obrigatório")
-        @Pattern(
-                regexp = "^\\d{10,11}$",
-                message = "O número de telefone deve conter 10 ou 11 dígitos"
-        )
+        @PhoneNumber
         String phoneNumber
 ) {}
@@ -1,10 +1,10 @@
 package com.example.ampliar.dto.psychologist;
 
-import org.hibernate.validator.constraints.br.CPF;
+import com.example.ampliar.validation.constraints.Cpf;
+import com.example.ampliar.validation.constraints.EmailAddress;
+import com.example.ampliar.validation.constraints.PhoneNumber;
 
-import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 public record PsychologistCreateDTO(
@@ -13,18 +13,15 @@ public record PsychologistCreateDTO(
         String fullName,
 
         @NotBlank(message = "O CPF é obrigatório")
-        @CPF(message = "O CPF deve ser válido")
+        @Cpf
         String cpf,
 
         @NotBlank(message = "O telefone é obrigatório")
-        @Pattern(
-                regexp = "^\\d{10,11}$",
-                message = "O número de telefone deve conter 10 ou 11 dígitos"
-        )
+        @PhoneNumber
         String phoneNumber,
 
         @NotBlank(message = "O email é obrigatório")
-        @Email(message = "O email deve ser válido")
+        @EmailAddress
         String email,
 
         @NotBlank(message = "A senha é obrigatória")
@@ -0,0 +1,16 @@
+package com.example.ampliar.dto.receipt;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record ReceiptDataDTO(
+        Long paymentId,
+        Long version,
+        Long receiptNumber,
+        BigDecimal valor,
+        LocalDate paymentDate,
+        String payerName,
+        String payerCpf,
+        String psychologistName,
+        String psychologistCpf
+) {}
@@ -0,0 +1,12 @@
+package com.example.ampliar.dto.report;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+public record IncomeReportDTO(
+        YearMonth month,
+        boolean closed,
+        BigDecimal total,
+        List<IncomeReportRowDTO> rows
+) {}
@@ -0,0 +1,12 @@
+package com.example.ampliar.dto.report;
+
+import java.math.BigDecimal;
+
+public record IncomeReportRowDTO(
+        Integer year,
+        Integer month,
+        String payerCpf,
+        String payerName,
+        BigDecimal total,
+        Long paymentCount
+) {}
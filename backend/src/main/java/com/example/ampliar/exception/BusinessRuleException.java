@@ -0,0 +1,9 @@
+package com.example.ampliar.exception;
+
+/** Operação recusada por uma regra de negócio, como alocar além do saldo do pagamento (HTTP 400). */
+public class BusinessRuleException extends DomainException {
+
+    public BusinessRuleException(ErrorCode code, String message) {
+        super(code, message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ampliar.exception;
+
+/** Conflito com o estado atual: horário ocupado, e-mail ou CPF já cadastrado (HTTP 409). */
+public class ConflictException extends DomainException {
+
+    public ConflictException(ErrorCode code, String message) {
+        super(code, message);
+    }
+}
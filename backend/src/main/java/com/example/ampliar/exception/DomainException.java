@@ -0,0 +1,20 @@
+package com.example.ampliar.exception;
+
+/**
+ * Base dos desfechos de negócio esperados (recurso inexistente, conflito de agenda, regra
+ * violada). Não captura stack trace nem aceita supressão: são lançadas em fluxo normal, às vezes
+ * em rajadas, e o {@link GlobalExceptionHandler} as registra em uma linha, sem pilha.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private final ErrorCode code;
+
+    protected DomainException(ErrorCode code, String message) {
+        super(message, null, false, false);
+        this.code = code;
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ampliar.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Códigos estáveis devolvidos no campo {@code code} do {@link com.example.ampliar.dto.ErrorResponseDTO}.
+ * O cliente pode decidir pelo código em vez de comparar a mensagem, que é texto para o usuário.
+ */
+public enum ErrorCode {
+
+    PSYCHOLOGIST_NOT_FOUND(HttpStatus.NOT_FOUND),
+    PATIENT_NOT_FOUND(HttpStatus.NOT_FOUND),
+    LEGAL_GUARDIAN_NOT_FOUND(HttpStatus.NOT_FOUND),
+    PAYER_NOT_FOUND(HttpStatus.NOT_FOUND),
+    PAYMENT_NOT_FOUND(HttpStatus.NOT_FOUND),
+    APPOINTMENT_NOT_FOUND(HttpStatus.NOT_FOUND),
+    ALLOCATION_NOT_FOUND(HttpStatus.NOT_FOUND),
+    RESOURCE_NOT_FOUND(HttpStatus.NOT_FOUND),
+
+    PSYCHOLOGIST_SCHEDULE_CONFLICT(HttpStatus.CONFLICT),
+    PATIENT_SCHEDULE_CONFLICT(HttpStatus.CONFLICT),
+    EMAIL_ALREADY_REGISTERED(HttpStatus.CONFLICT),
+    CPF_ALREADY_REGISTERED(HttpStatus.CONFLICT),
+    RECEIPT_ALREADY_ISSUED(HttpStatus.CONFLICT),
+
+    ALLOCATION_NOT_ALLOWED(HttpStatus.BAD_REQUEST),
+    INSUFFICIENT_PAYMENT_BALANCE(HttpStatus.BAD_REQUEST),
+    INVALID_RESET_TOKEN(HttpStatus.BAD_REQUEST),
+    INVALID_ARGUMENT(HttpStatus.BAD_REQUEST),
+    INVALID_STATE(HttpStatus.BAD_REQUEST),
+    VALIDATION_FAILED(HttpStatus.BAD_REQUEST),
+
+    AUTHENTICATION_REQUIRED(HttpStatus.UNAUTHORIZED),
+
+    RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS),
+    INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR);
+
+    private final HttpStatus status;
+
+    ErrorCode(HttpStatus status) {
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
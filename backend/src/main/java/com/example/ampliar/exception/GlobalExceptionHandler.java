@@ -3,6 +3,7 @@ package com.example.ampliar.exception;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -19,22 +20,45 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    /**
+     * Desfechos esperados: uma linha de log, sem pilha (as {@link DomainException} nem a capturam).
+     * Conflitos de agenda e recursos inexistentes são rotina, não incidentes.
+     */
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ErrorResponseDTO> handleDomain(DomainException e) {
+        log.info("Requisição recusada [{}]: {}", e.getCode(), e.getMessage());
+        return ResponseEntity.status(e.getCode().getStatus())
+                .body(ErrorResponseDTO.of(e.getCode(), e.getMessage()));
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponseDTO> handleTooManyRequests(TooManyRequestsException e) {
+        log.warn("Requisição limitada: {}", e.getMessage());
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(ErrorResponseDTO.of(e.getCode(), e.getMessage()));
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ErrorResponseDTO> handleEntityNotFound(EntityNotFoundException e) {
         log.warn("Recurso não encontrado: {}", e.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorResponseDTO.of(e.getMessage()));
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ErrorResponseDTO.of(ErrorCode.RESOURCE_NOT_FOUND, e.getMessage()));
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponseDTO> handleIllegalArgument(IllegalArgumentException e) {
         log.warn("Argumento inválido: {}", e.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ErrorResponseDTO.of(e.getMessage()));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ErrorResponseDTO.of(ErrorCode.INVALID_ARGUMENT, e.getMessage()));
     }
 
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<ErrorResponseDTO> handleIllegalState(IllegalStateException e) {
         log.warn("Estado inválido: {}", e.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ErrorResponseDTO.of(e.getMessage()));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ErrorResponseDTO.of(ErrorCode.INVALID_STATE, e.getMessage()));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -44,20 +68,20 @@ public class GlobalExceptionHandler {
                 .collect(Collectors.toList());
         log.warn("Erro de validação: {} campos com erro", errors.size());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(ErrorResponseDTO.of("Erro de validação", errors));
+                .body(ErrorResponseDTO.of(ErrorCode.VALIDATION_FAILED, "Erro de validação", errors));
     }
 
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponseDTO> handleRuntime(RuntimeException e) {
         log.error("Erro interno do servidor", e);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(ErrorResponseDTO.of("Erro interno do servidor"));
+                .body(ErrorResponseDTO.of(ErrorCode.INTERNAL_ERROR, "Erro interno do servidor"));
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDTO> handleException(Exception e) {
         log.error("Erro inesperado", e);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(ErrorResponseDTO.of("Erro interno do servidor"));
+                .body(ErrorResponseDTO.of(ErrorCode.INTERNAL_ERROR, "Erro interno do servidor"));
     }
 }
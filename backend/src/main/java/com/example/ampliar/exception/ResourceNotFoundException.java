@@ -0,0 +1,9 @@
+package com.example.ampliar.exception;
+
+/** Recurso inexistente, excluído ou de outro psicólogo (HTTP 404). */
+public class ResourceNotFoundException extends DomainException {
+
+    public ResourceNotFoundException(ErrorCode code, String message) {
+        super(code, message);
+    }
+}
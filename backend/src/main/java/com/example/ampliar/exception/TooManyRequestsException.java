@@ -0,0 +1,17 @@
+package com.example.ampliar.exception;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/** Requisição recusada por limite de taxa ou por saturação do hashing de senhas (HTTP 429). */
+@Getter
+public class TooManyRequestsException extends DomainException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(ErrorCode.RATE_LIMITED, message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ampliar.exception;
+
+/** Requisição sem psicólogo autenticado onde a operação exige um (HTTP 401). */
+public class UnauthenticatedException extends DomainException {
+
+    public UnauthenticatedException(String message) {
+        super(ErrorCode.AUTHENTICATION_REQUIRED, message);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ampliar.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Amostragem de linhas INFO repetitivas: para os loggers configurados (por prefixo), apenas uma a
+ * cada {@code rate} ocorrências de cada mensagem é mantida. A contagem é por logger e por modelo
+ * de mensagem, então uma linha rara não é engolida por outra frequente do mesmo logger. WARN e
+ * ERROR nunca são amostrados.
+ *
+ * <p>Configurado no {@code logback-spring.xml}; roda antes do evento ser criado, então as linhas
+ * descartadas não custam formatação nem espaço no buffer assíncrono.
+ */
+public class InfoSamplingTurboFilter extends TurboFilter {
+
+    private final List<String> loggerPrefixes = new ArrayList<>();
+    private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private int rate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (rate <= 1 || level != Level.INFO || format == null || !isSampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        long count = counters.computeIfAbsent(logger.getName() + '|' + format, key -> new AtomicLong())
+                .getAndIncrement();
+        return count % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean isSampled(String loggerName) {
+        for (String prefix : loggerPrefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Lista de prefixos separados por vírgula, por exemplo {@code com.example.ampliar.controller}. */
+    public void setLoggers(String loggers) {
+        loggerPrefixes.clear();
+        for (String prefix : loggers.split(",")) {
+            if (!prefix.isBlank()) {
+                loggerPrefixes.add(prefix.trim());
+            }
+        }
+    }
+
+    public void setRate(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+}
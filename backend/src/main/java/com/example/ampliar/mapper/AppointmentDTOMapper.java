@@ -1,8 +1,9 @@
 package com.example.ampliar.mapper;
 
 import com.example.ampliar.dto.appointment.AppointmentDTO;
+import com.example.ampliar.dto.appointment.AppointmentPatientRowDTO;
+import com.example.ampliar.dto.appointment.AppointmentRowDTO;
 import com.example.ampliar.model.AppointmentModel;
-import com.example.ampliar.model.PaymentModel;
 import com.example.ampliar.model.enums.AppointmentStatus;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -10,7 +11,9 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -34,10 +37,10 @@ public class AppointmentDTOMapper implements Function<AppointmentModel, Appointm
             );
         }
 
-        var payment = model.getPayment();
-        Long paymentId = payment != null ? payment.getId() : null;
-        BigDecimal paymentAmount = payment != null ? payment.getValor() : BigDecimal.ZERO;
-        String paymentStatus = resolvePaymentStatus(model.getStatus(), model.getAppointmentDate(), model.getAppointmentEndDate(), payment);
+        var allocations = model.getAllocations();
+        Long paymentId = allocations.isEmpty() ? null : allocations.get(0).getPayment().getId();
+        BigDecimal paymentAmount = model.getAllocatedAmount();
+        String paymentStatus = resolvePaymentStatus(model.getStatus(), model.getAppointmentDate(), model.getAppointmentEndDate(), !allocations.isEmpty());
 
         log.debug("Agendamento ID: {} - {} pacientes, pagamento: {}",
                  model.getId(), patients.size(), paymentId != null ? paymentId : "Nenhum");
@@ -57,11 +60,40 @@ public class AppointmentDTOMapper implements Function<AppointmentModel, Appointm
         );
     }
 
-    private String resolvePaymentStatus(AppointmentStatus status, LocalDateTime start, LocalDateTime end, PaymentModel payment) {
+    /** Monta a listagem a partir das projeções, sem passar por entidades gerenciadas. */
+    public List<AppointmentDTO> fromRows(List<AppointmentRowDTO> rows, List<AppointmentPatientRowDTO> patientRows) {
+        Map<Long, List<AppointmentDTO.PatientSummary>> patientsByAppointment = patientRows.stream()
+                .collect(Collectors.groupingBy(
+                        AppointmentPatientRowDTO::appointmentId,
+                        Collectors.mapping(p -> new AppointmentDTO.PatientSummary(p.patientId(), p.fullName()), Collectors.toList())));
+
+        return rows.stream()
+                .map(row -> fromRow(row, patientsByAppointment.getOrDefault(row.id(), List.of())))
+                .toList();
+    }
+
+    private AppointmentDTO fromRow(AppointmentRowDTO row, List<AppointmentDTO.PatientSummary> patients) {
+        boolean paid = row.paymentId() != null;
+        return new AppointmentDTO(
+                row.id(),
+                row.appointmentDate(),
+                row.appointmentEndDate(),
+                row.status(),
+                row.type(),
+                row.notes(),
+                new AppointmentDTO.PsychologistSummary(row.psychologistId(), row.psychologistName()),
+                patients,
+                resolvePaymentStatus(row.status(), row.appointmentDate(), row.appointmentEndDate(), paid),
+                paid ? row.paymentAmount() : BigDecimal.ZERO,
+                row.paymentId()
+        );
+    }
+
+    private String resolvePaymentStatus(AppointmentStatus status, LocalDateTime start, LocalDateTime end, boolean paid) {
         if (status == AppointmentStatus.CANCELLED) {
             return "cancelled";
         }
-        if (payment != null) {
+        if (paid) {
             return "paid";
         }
 
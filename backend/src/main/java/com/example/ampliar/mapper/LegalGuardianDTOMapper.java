@@ -1,11 +1,14 @@
 package com.example.ampliar.mapper;
 
+import com.example.ampliar.dto.legalGuardian.GuardianPatientLinkDTO;
 import com.example.ampliar.dto.legalGuardian.LegalGuardianDTO;
+import com.example.ampliar.dto.legalGuardian.LegalGuardianRowDTO;
 import com.example.ampliar.model.LegalGuardianModel;
 import com.example.ampliar.model.PatientModel;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -27,4 +30,21 @@ public class LegalGuardianDTOMapper implements Function<LegalGuardianModel, Lega
                 patientIds
         );
     }
+
+    /** Monta os DTOs a partir das projeções e dos vínculos lidos da tabela de junção. */
+    public List<LegalGuardianDTO> fromRows(List<LegalGuardianRowDTO> rows, List<GuardianPatientLinkDTO> patientLinks) {
+        Map<Long, List<Long>> patientsByGuardian = patientLinks.stream()
+                .collect(Collectors.groupingBy(
+                        GuardianPatientLinkDTO::guardianId,
+                        Collectors.mapping(GuardianPatientLinkDTO::patientId, Collectors.toList())));
+
+        return rows.stream()
+                .map(row -> new LegalGuardianDTO(
+                        row.id(),
+                        row.fullName(),
+                        row.cpf(),
+                        row.phoneNumber(),
+                        patientsByGuardian.getOrDefault(row.id(), List.of())))
+                .toList();
+    }
 }
@@ -1,11 +1,16 @@
 package com.example.ampliar.mapper;
 
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import com.example.ampliar.dto.legalGuardian.GuardianPatientLinkDTO;
+import com.example.ampliar.dto.patient.PatientAppointmentCountDTO;
 import com.example.ampliar.dto.patient.PatientDTO;
+import com.example.ampliar.dto.patient.PatientRowDTO;
 import com.example.ampliar.model.LegalGuardianModel;
 import com.example.ampliar.model.PatientModel;
 import com.example.ampliar.repository.AppointmentRepository;
@@ -21,15 +26,68 @@ public class PatientDTOMapper implements Function<PatientModel, PatientDTO> {
 
     @Override
     public PatientDTO apply(PatientModel patientModel) {
-        List<Long> guardianIds = patientModel.getLegalGuardians()
-                .stream()
-                .map(LegalGuardianModel::getId)
-                .toList();
-
         Integer totalAppointments = appointmentRepository.countByPatientsContainsAndPsychologistId(
             patientModel,
             patientModel.getPsychologist().getId()
         );
+        return toDTO(patientModel, totalAppointments);
+    }
+
+    /** Mapeia uma listagem do mesmo psicólogo com uma única consulta de contagem de agendamentos. */
+    public List<PatientDTO> applyAll(List<PatientModel> patients, Long psychologistId) {
+        if (patients.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> patientIds = patients.stream().map(PatientModel::getId).toList();
+        Map<Long, Long> totals = appointmentRepository.countByPatientIds(patientIds, psychologistId)
+                .stream()
+                .collect(Collectors.toMap(PatientAppointmentCountDTO::patientId, PatientAppointmentCountDTO::total));
+
+        return patients.stream()
+                .map(patient -> toDTO(patient, totals.getOrDefault(patient.getId(), 0L).intValue()))
+                .toList();
+    }
+
+    /**
+     * Monta os DTOs a partir das projeções: uma consulta de contagem para todos os pacientes, e os
+     * vínculos com responsáveis já lidos da tabela de junção.
+     */
+    public List<PatientDTO> fromRows(List<PatientRowDTO> rows, List<GuardianPatientLinkDTO> guardianLinks, Long psychologistId) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> patientIds = rows.stream().map(PatientRowDTO::id).toList();
+        Map<Long, Long> totals = appointmentRepository.countByPatientIds(patientIds, psychologistId)
+                .stream()
+                .collect(Collectors.toMap(PatientAppointmentCountDTO::patientId, PatientAppointmentCountDTO::total));
+        Map<Long, List<Long>> guardiansByPatient = guardianLinks.stream()
+                .collect(Collectors.groupingBy(
+                        GuardianPatientLinkDTO::patientId,
+                        Collectors.mapping(GuardianPatientLinkDTO::guardianId, Collectors.toList())));
+
+        return rows.stream()
+                .map(row -> new PatientDTO(
+                        row.id(),
+                        row.fullName(),
+                        row.phone(),
+                        row.email(),
+                        row.cpf(),
+                        row.birthDate(),
+                        row.address(),
+                        row.notes(),
+                        row.firstConsultationDate(),
+                        guardiansByPatient.getOrDefault(row.id(), List.of()),
+                        totals.getOrDefault(row.id(), 0L).intValue()))
+                .toList();
+    }
+
+    private PatientDTO toDTO(PatientModel patientModel, Integer totalAppointments) {
+        List<Long> guardianIds = patientModel.getLegalGuardians()
+                .stream()
+                .map(LegalGuardianModel::getId)
+                .toList();
 
         return new PatientDTO(
                 patientModel.getId(),
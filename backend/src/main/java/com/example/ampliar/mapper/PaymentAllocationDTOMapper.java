@@ -0,0 +1,22 @@
+package com.example.ampliar.mapper;
+
+import com.example.ampliar.dto.allocation.PaymentAllocationDTO;
+import com.example.ampliar.model.PaymentAllocationModel;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Function;
+
+@Service
+public class PaymentAllocationDTOMapper implements Function<PaymentAllocationModel, PaymentAllocationDTO> {
+
+    @Override
+    public PaymentAllocationDTO apply(PaymentAllocationModel allocation) {
+        return new PaymentAllocationDTO(
+                allocation.getId(),
+                allocation.getPayment().getId(),
+                allocation.getAppointment().getId(),
+                allocation.getAmount(),
+                allocation.getAllocatedAt()
+        );
+    }
+}
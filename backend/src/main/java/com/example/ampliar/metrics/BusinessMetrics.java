@@ -0,0 +1,102 @@
+package com.example.ampliar.metrics;
+
+import java.math.BigDecimal;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.example.ampliar.exception.DomainException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas de negócio publicadas junto das técnicas (HTTP, Hikari, Hibernate, JVM). Os timers
+ * contam e medem a operação, com o desfecho na tag {@code outcome}; assim a vazão de agendamentos,
+ * logins e pagamentos sai do mesmo medidor que a latência.
+ */
+@Component
+public class BusinessMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String CONFLICT = "conflict";
+    public static final String NOT_FOUND = "not_found";
+    public static final String INVALID_CREDENTIALS = "invalid_credentials";
+    public static final String RATE_LIMITED = "rate_limited";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final Counter psychologistConflicts;
+    private final Counter patientConflicts;
+    private final DistributionSummary paymentAmounts;
+
+    public BusinessMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.psychologistConflicts = conflictCounter("psychologist");
+        this.patientConflicts = conflictCounter("patient");
+        this.paymentAmounts = DistributionSummary.builder("ampliar.payments.amount")
+                .description("Valor dos pagamentos registrados")
+                .baseUnit("BRL")
+                .register(registry);
+    }
+
+    /** Desfecho da tag {@code outcome} para uma operação interrompida por exceção. */
+    public static String outcomeOf(RuntimeException e) {
+        if (!(e instanceof DomainException domain)) {
+            return ERROR;
+        }
+        HttpStatus status = domain.getCode().getStatus();
+        if (status == HttpStatus.NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        if (status == HttpStatus.CONFLICT) {
+            return CONFLICT;
+        }
+        return status == HttpStatus.TOO_MANY_REQUESTS ? RATE_LIMITED : ERROR;
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void recordAppointmentCreation(Timer.Sample sample, String outcome) {
+        sample.stop(timer("ampliar.appointments.create", "Criação de agendamentos", outcome));
+    }
+
+    public void recordLogin(Timer.Sample sample, String outcome) {
+        sample.stop(timer("ampliar.auth.login", "Tentativas de login", outcome));
+    }
+
+    public void recordPaymentCreation(Timer.Sample sample, String outcome) {
+        sample.stop(timer("ampliar.payments.create", "Registro de pagamentos", outcome));
+    }
+
+    public void paymentAmount(BigDecimal amount) {
+        paymentAmounts.record(amount.doubleValue());
+    }
+
+    public void psychologistConflict() {
+        psychologistConflicts.increment();
+    }
+
+    public void patientConflict() {
+        patientConflicts.increment();
+    }
+
+    private Counter conflictCounter(String resource) {
+        return Counter.builder("ampliar.appointments.conflicts")
+                .description("Agendamentos recusados por conflito de horário")
+                .tag("resource", resource)
+                .register(registry);
+    }
+
+    private Timer timer(String name, String description, String outcome) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,14 +13,16 @@ import java.util.List;
 import com.example.ampliar.model.enums.AppointmentStatus;
 
 @Entity
-@Table(name = "appointment")
+@Table(name = "appointment", indexes = @Index(name = "idx_appointment_psychologist_date_status",
+        columnList = "psychologist_id, appointment_date, status"))
 @Getter
 @NoArgsConstructor
 @Slf4j
 public class AppointmentModel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -32,14 +35,13 @@ public class AppointmentModel {
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "appointment_patients",
-            joinColumns = @JoinColumn(name = "appointment_id"),
+            joinColumns = @JoinColumn(name = "appointment_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)),
             inverseJoinColumns = @JoinColumn(name = "patient_id")
     )
     private List<PatientModel> patients = new ArrayList<>();
 
-    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY, optional = true)
-    @JoinColumn(name = "payment_id", nullable = true, unique = false)
-    private PaymentModel payment;
+    @OneToMany(mappedBy = "appointment", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    private List<PaymentAllocationModel> allocations = new ArrayList<>();
 
     @Column(name = "appointment_end_date")
     private LocalDateTime appointmentEndDate;
@@ -85,13 +87,22 @@ public class AppointmentModel {
         log.debug("{} pacientes definidos para o agendamento", patients.size());
     }
 
-    public void setPayment(PaymentModel payment) {
-        this.payment = payment;
-        if (payment != null) {
-            log.debug("Pagamento definido para agendamento: {}", payment.getId());
-        } else {
-            log.debug("Agendamento definido sem pagamento");
-        }
+    public PaymentAllocationModel allocate(PaymentModel payment, BigDecimal amount) {
+        PaymentAllocationModel allocation = new PaymentAllocationModel(payment, this, amount);
+        allocations.add(allocation);
+        log.debug("Pagamento {} alocado ao agendamento no valor de {}", payment.getId(), amount);
+        return allocation;
+    }
+
+    public void clearAllocations() {
+        allocations.clear();
+        log.debug("Alocações de pagamento removidas do agendamento");
+    }
+
+    public BigDecimal getAllocatedAmount() {
+        return allocations.stream()
+                .map(PaymentAllocationModel::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
     public void setAppointmentEndDate(LocalDateTime appointmentEndDate) {
@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.SQLRestriction;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import jakarta.persistence.Column;
@@ -12,9 +14,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -22,9 +26,13 @@ import lombok.NoArgsConstructor;
 @Getter
 @NoArgsConstructor
 @Entity
-@Table(name = "legal_guardian")
+// Índice parcial (WHERE deleted_at IS NULL), criado na V5
+@Table(name = "legal_guardian", indexes = @Index(name = "idx_legal_guardian_psychologist_active", columnList = "psychologist_id"))
+// Excluídos somem também da lista de responsáveis dos pacientes.
+@SQLRestriction("deleted_at IS NULL")
 public class LegalGuardianModel extends PersonAbstract {
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "legal_guardian_seq")
+    @SequenceGenerator(name = "legal_guardian_seq", sequenceName = "legal_guardian_seq", allocationSize = 50)
     @Id
     Long id;
 
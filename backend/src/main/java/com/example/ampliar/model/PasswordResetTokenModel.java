@@ -8,8 +8,10 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -17,15 +19,19 @@ import lombok.NoArgsConstructor;
 @Getter
 @NoArgsConstructor
 @Entity
-@Table(name = "password_reset_token")
+@Table(name = "password_reset_token", indexes = {
+        @Index(name = "idx_password_reset_token_expires_at", columnList = "expires_at")
+})
 public class PasswordResetTokenModel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "password_reset_token_seq")
+    @SequenceGenerator(name = "password_reset_token_seq", sequenceName = "password_reset_token_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 120)
-    private String token;
+    /** SHA-256 do token enviado ao usuário; o valor em claro não é armazenado. */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "psychologist_id", nullable = false)
@@ -37,13 +43,9 @@ public class PasswordResetTokenModel {
     @Column(name = "used", nullable = false)
     private boolean used = false;
 
-    public PasswordResetTokenModel(String token, PsychologistModel psychologist, LocalDateTime expiresAt) {
-        this.token = token;
+    public PasswordResetTokenModel(String tokenHash, PsychologistModel psychologist, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
         this.psychologist = psychologist;
         this.expiresAt = expiresAt;
     }
-
-    public void setUsed(boolean used) {
-        this.used = used;
-    }
 }
@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.example.ampliar.validation.constraints.BirthDate;
+import com.example.ampliar.validation.constraints.EmailAddress;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
@@ -16,12 +17,13 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import jakarta.validation.constraints.Email;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -30,10 +32,12 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "patient")
+// Índice parcial (WHERE deleted_at IS NULL), criado na V5
+@Table(name = "patient", indexes = @Index(name = "idx_patient_psychologist_active", columnList = "psychologist_id"))
 public class PatientModel extends PersonAbstract {
 
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_seq")
+    @SequenceGenerator(name = "patient_seq", sequenceName = "patient_seq", allocationSize = 50)
     @Id
     Long id;
 
@@ -41,7 +45,7 @@ public class PatientModel extends PersonAbstract {
     @Column(name = "birth_date", nullable = false)
     private LocalDate birthDate;
 
-    @Email
+    @EmailAddress
     @Column(unique = true)
     private String email;
 
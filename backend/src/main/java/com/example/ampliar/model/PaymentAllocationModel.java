@@ -0,0 +1,72 @@
+package com.example.ampliar.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "payment_allocation",
+        uniqueConstraints = @UniqueConstraint(name = "uk_payment_allocation_payment_appointment", columnNames = {"payment_id", "appointment_id"}),
+        indexes = @Index(name = "idx_payment_allocation_appointment", columnList = "appointment_id")
+)
+@Slf4j
+public class PaymentAllocationModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_allocation_seq")
+    @SequenceGenerator(name = "payment_allocation_seq", sequenceName = "payment_allocation_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    // Sem FK no banco: payment e appointment são particionadas (V4)
+    @JoinColumn(name = "payment_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private PaymentModel payment;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "appointment_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private AppointmentModel appointment;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "allocated_at", nullable = false)
+    private LocalDateTime allocatedAt = LocalDateTime.now();
+
+    public PaymentAllocationModel(PaymentModel payment, AppointmentModel appointment, BigDecimal amount) {
+        setPayment(payment);
+        setAppointment(appointment);
+        setAmount(amount);
+    }
+
+    public void setPayment(PaymentModel payment) {
+        if (payment == null) {
+            log.error("Tentativa de definir pagamento nulo na alocação");
+            throw new IllegalArgumentException("O pagamento é obrigatório");
+        }
+        this.payment = payment;
+    }
+
+    public void setAppointment(AppointmentModel appointment) {
+        if (appointment == null) {
+            log.error("Tentativa de definir agendamento nulo na alocação");
+            throw new IllegalArgumentException("O agendamento é obrigatório");
+        }
+        this.appointment = appointment;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            log.error("Tentativa de definir valor de alocação inválido: {}", amount);
+            throw new IllegalArgumentException("O valor alocado deve ser maior que zero");
+        }
+        this.amount = amount;
+        log.debug("Valor alocado definido: {}", amount);
+    }
+}
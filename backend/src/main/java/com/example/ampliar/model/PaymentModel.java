@@ -15,12 +15,13 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "payment")
+@Table(name = "payment", indexes = @Index(name = "idx_payment_payer_date", columnList = "payer_id, payment_date"))
 @Slf4j
 public class PaymentModel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, precision = 10, scale = 2)
@@ -29,6 +30,13 @@ public class PaymentModel {
     @Column(name = "payment_date", nullable = false)
     private LocalDate paymentDate;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "receipt_number", updatable = false)
+    private Long receiptNumber;
+
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "payer_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
@@ -61,6 +69,15 @@ public class PaymentModel {
         log.debug("Data do pagamento definida: {}", paymentDate);
     }
 
+    public void setReceiptNumber(Long receiptNumber) {
+        if (this.receiptNumber != null) {
+            log.error("Tentativa de alterar o número do recibo {} do pagamento ID: {}", this.receiptNumber, id);
+            throw new IllegalStateException("O número do recibo não pode ser alterado");
+        }
+        this.receiptNumber = receiptNumber;
+        log.debug("Número do recibo definido: {}", receiptNumber);
+    }
+
     public void setPayer(PayerModel payer) {
         if (payer == null) {
             log.error("Tentativa de definir pagador nulo");
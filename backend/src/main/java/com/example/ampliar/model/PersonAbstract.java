@@ -1,5 +1,7 @@
 package com.example.ampliar.model;
 
+import com.example.ampliar.validation.FieldFormats;
+
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -43,8 +45,8 @@ public abstract class PersonAbstract {
         if (cpf == null || cpf.trim().isEmpty()) {
             throw new IllegalArgumentException("O CPF é obrigatório");
         }
-        if (!cpf.matches("^\\d{11}$")) {
-            throw new IllegalArgumentException("O CPF deve conter exatamente 11 dígitos numéricos");
+        if (!FieldFormats.isCpf(cpf)) {
+            throw new IllegalArgumentException("O CPF deve conter 11 dígitos numéricos com dígitos verificadores válidos");
         }
         this.cpf = cpf.trim();
     }
@@ -53,7 +55,7 @@ public abstract class PersonAbstract {
         if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
             throw new IllegalArgumentException("O número de telefone é obrigatório");
         }
-        if (!phoneNumber.trim().matches("^\\d{10,11}$")) {
+        if (!FieldFormats.isPhoneNumber(phoneNumber.trim())) {
             throw new IllegalArgumentException("O número de telefone deve conter apenas 10 ou 11 dígitos, sem formatação.");
         }
         this.phoneNumber = phoneNumber.trim();
@@ -2,11 +2,18 @@ package com.example.ampliar.model;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
+
+import com.example.ampliar.validation.FieldFormats;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,10 +22,14 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Entity
 @Table(name = "psychologist")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "psychologist")
+// Psicólogos excluídos não aparecem em nenhuma consulta, busca por ID ou associação.
+@SQLRestriction("deleted_at IS NULL")
 public class PsychologistModel extends PersonAbstract {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "psychologist_seq")
+    @SequenceGenerator(name = "psychologist_seq", sequenceName = "psychologist_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 100)
@@ -47,7 +58,7 @@ public class PsychologistModel extends PersonAbstract {
         if (email == null || email.trim().isEmpty()) {
             throw new IllegalArgumentException("O e-mail é obrigatório");
         }
-        if (!email.matches("^[\\w.-]+@[\\w.-]+\\.[a-zA-Z]{2,}$")) {
+        if (!FieldFormats.isEmail(email)) {
             throw new IllegalArgumentException("O e-mail deve ser válido");
         }
         this.email = email.trim().toLowerCase();
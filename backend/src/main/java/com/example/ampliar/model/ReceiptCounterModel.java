@@ -0,0 +1,26 @@
+package com.example.ampliar.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contador de recibos por psicólogo. Cada linha é bloqueada apenas pela transação que emite
+ * um recibo daquele psicólogo, então psicólogos diferentes não disputam o mesmo lock.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "receipt_counter")
+public class ReceiptCounterModel {
+
+    @Id
+    @Column(name = "psychologist_id")
+    private Long psychologistId;
+
+    @Column(name = "last_number", nullable = false)
+    private long lastNumber;
+}
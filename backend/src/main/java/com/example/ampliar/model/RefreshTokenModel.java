@@ -0,0 +1,69 @@
+package com.example.ampliar.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Refresh token de uso único. Só o hash SHA-256 é armazenado; cada rotação revoga o token atual
+ * e emite outro na mesma sessão ({@code sessionId}).
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_session", columnList = "session_id"),
+        @Index(name = "idx_refresh_token_psychologist", columnList = "psychologist_id"),
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expires_at")
+})
+public class RefreshTokenModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_token_seq")
+    @SequenceGenerator(name = "refresh_token_seq", sequenceName = "refresh_token_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "session_id", nullable = false, length = 36)
+    private String sessionId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "psychologist_id", nullable = false)
+    private PsychologistModel psychologist;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+
+    public RefreshTokenModel(String tokenHash, String sessionId, PsychologistModel psychologist,
+                             Instant createdAt, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.sessionId = sessionId;
+        this.psychologist = psychologist;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
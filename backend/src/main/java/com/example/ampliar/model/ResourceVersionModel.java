@@ -0,0 +1,50 @@
+package com.example.ampliar.model;
+
+import com.example.ampliar.model.enums.VersionedResource;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Versões das listagens de um psicólogo. Só é lida; os incrementos são feitos pelo
+ * {@link com.example.ampliar.repository.ResourceVersionRepository#increment} em um único comando.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "resource_version")
+public class ResourceVersionModel {
+
+    @Id
+    @Column(name = "psychologist_id")
+    private Long psychologistId;
+
+    @Column(name = "patients", nullable = false)
+    private long patients;
+
+    @Column(name = "legal_guardians", nullable = false)
+    private long legalGuardians;
+
+    @Column(name = "payers", nullable = false)
+    private long payers;
+
+    @Column(name = "payments", nullable = false)
+    private long payments;
+
+    @Column(name = "appointments", nullable = false)
+    private long appointments;
+
+    public long versionOf(VersionedResource resource) {
+        return switch (resource) {
+            case PATIENTS -> patients;
+            case LEGAL_GUARDIANS -> legalGuardians;
+            case PAYERS -> payers;
+            case PAYMENTS -> payments;
+            case APPOINTMENTS -> appointments;
+        };
+    }
+}
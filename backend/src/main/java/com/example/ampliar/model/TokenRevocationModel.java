@@ -0,0 +1,42 @@
+package com.example.ampliar.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Revogação de tokens de acesso por sessão ou por psicólogo. Tokens emitidos antes de
+ * {@code revokedAt} deixam de valer; a linha pode ser removida após {@code expiresAt}, quando
+ * nenhum desses tokens ainda estaria dentro da validade. {@code revokedAt} é sempre um segundo
+ * inteiro, a precisão do "iat" do JWT.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "token_revocation", indexes = {
+        @Index(name = "idx_token_revocation_expires_at", columnList = "expires_at")
+})
+public class TokenRevocationModel {
+
+    @Id
+    @Column(name = "token_key", length = 64)
+    private String tokenKey;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public TokenRevocationModel(String tokenKey, Instant revokedAt, Instant expiresAt) {
+        this.tokenKey = tokenKey;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+}
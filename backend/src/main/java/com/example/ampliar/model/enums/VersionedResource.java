@@ -0,0 +1,34 @@
+package com.example.ampliar.model.enums;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Recursos com leitura condicional (ETag). Cada um declara de quais outros recursos a sua
+ * representação depende: uma escrita em {@link #PAYMENTS} muda o status de pagamento exibido
+ * em {@link #APPOINTMENTS}, por exemplo, então os dois precisam mudar de versão juntos.
+ */
+public enum VersionedResource {
+    PATIENTS,
+    LEGAL_GUARDIANS,
+    PAYERS,
+    PAYMENTS,
+    APPOINTMENTS;
+
+    /** O próprio recurso e os que exibem dados dele. */
+    public Set<VersionedResource> affectedByWrite() {
+        return switch (this) {
+            // Paciente: nomes nos agendamentos e vínculos listados no responsável.
+            case PATIENTS -> EnumSet.of(PATIENTS, LEGAL_GUARDIANS, APPOINTMENTS);
+            // Responsável: IDs dos responsáveis listados no paciente.
+            case LEGAL_GUARDIANS -> EnumSet.of(LEGAL_GUARDIANS, PATIENTS);
+            // Pagador: a exclusão é lógica (deleted_at), então pagamentos e alocações continuam; e
+            // pagamentos e agendamentos exibem só o ID do pagador, que não muda.
+            case PAYERS -> EnumSet.of(PAYERS);
+            // Pagamento: status e valor pago exibidos no agendamento.
+            case PAYMENTS -> EnumSet.of(PAYMENTS, APPOINTMENTS);
+            // Agendamento: total de consultas exibido no paciente.
+            case APPOINTMENTS -> EnumSet.of(APPOINTMENTS, PATIENTS);
+        };
+    }
+}
@@ -4,13 +4,22 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.ampliar.dto.appointment.AppointmentPatientRowDTO;
+import com.example.ampliar.dto.appointment.AppointmentRowDTO;
+import com.example.ampliar.dto.patient.PatientAppointmentCountDTO;
 import com.example.ampliar.model.AppointmentModel;
 import com.example.ampliar.model.PatientModel;
 import com.example.ampliar.model.enums.AppointmentStatus;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface AppointmentRepository extends JpaRepository<AppointmentModel, Long> {
 
@@ -28,8 +37,57 @@ public interface AppointmentRepository extends JpaRepository<AppointmentModel, L
 
     Integer countByPatientsContainsAndPsychologistId(PatientModel patient, Long psychologistId);
 
+    // Contagem da listagem de pacientes em uma única consulta, em vez de um COUNT por linha.
+    @Query("""
+            select new com.example.ampliar.dto.patient.PatientAppointmentCountDTO(p.id, count(a))
+            from AppointmentModel a join a.patients p
+            where p.id in :patientIds and a.psychologist.id = :psychologistId
+            group by p.id
+            """)
+    List<PatientAppointmentCountDTO> countByPatientIds(@Param("patientIds") List<Long> patientIds,
+                                                       @Param("psychologistId") Long psychologistId);
+
     List<AppointmentModel> findByPsychologistId(Long psychologistId);
     Optional<AppointmentModel> findByIdAndPsychologistId(Long id, Long psychologistId);
 
-    Optional<AppointmentModel> findByPayment_Id(Long paymentId);
+    // Pagamento e valor alocado vêm de subconsultas pelo índice de alocação por agendamento.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.appointment.AppointmentRowDTO(
+                a.id, a.appointmentDate, a.appointmentEndDate, a.status, a.appointmentType, a.notes, psy.id, psy.fullName,
+                (select min(al.payment.id) from PaymentAllocationModel al where al.appointment = a),
+                (select sum(al.amount) from PaymentAllocationModel al where al.appointment = a))
+            from AppointmentModel a
+            join a.psychologist psy
+            where psy.id = :psychologistId
+            order by a.appointmentDate, a.id
+            """)
+    List<AppointmentRowDTO> findRowsByPsychologistId(@Param("psychologistId") Long psychologistId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+            select new com.example.ampliar.dto.appointment.AppointmentRowDTO(
+                a.id, a.appointmentDate, a.appointmentEndDate, a.status, a.appointmentType, a.notes, psy.id, psy.fullName,
+                (select min(al.payment.id) from PaymentAllocationModel al where al.appointment = a),
+                (select sum(al.amount) from PaymentAllocationModel al where al.appointment = a))
+            from AppointmentModel a
+            join a.psychologist psy
+            where a.id = :id and psy.id = :psychologistId
+            """)
+    Optional<AppointmentRowDTO> findRowByIdAndPsychologistId(@Param("id") Long id, @Param("psychologistId") Long psychologistId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.appointment.AppointmentPatientRowDTO(a.id, p.id, p.fullName)
+            from AppointmentModel a join a.patients p
+            where a.id in :appointmentIds
+            order by a.id, p.id
+            """)
+    List<AppointmentPatientRowDTO> findPatientRows(@Param("appointmentIds") List<Long> appointmentIds);
 }
@@ -3,14 +3,53 @@ package com.example.ampliar.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.ampliar.dto.legalGuardian.GuardianPatientLinkDTO;
+import com.example.ampliar.dto.legalGuardian.LegalGuardianRowDTO;
 import com.example.ampliar.model.LegalGuardianModel;
-import com.example.ampliar.model.PsychologistModel;
+
+import jakarta.persistence.QueryHint;
 
 public interface LegalGuardianRepository extends JpaRepository<LegalGuardianModel, Long>{
 
-    List<LegalGuardianModel> findAllByPsychologistAndDeletedAtIsNull(PsychologistModel psychologist);
-    Optional<LegalGuardianModel> findByIdAndPsychologistAndDeletedAtIsNull(Long id, PsychologistModel psychologist);
-    List<LegalGuardianModel> findByIdInAndPsychologistAndDeletedAtIsNull(List<Long> ids, PsychologistModel psychologist);
+    // Responsáveis excluídos já ficam de fora pelo @SQLRestriction da entidade.
+    List<LegalGuardianModel> findAllByPsychologistId(Long psychologistId);
+    Optional<LegalGuardianModel> findByIdAndPsychologistId(Long id, Long psychologistId);
+    List<LegalGuardianModel> findByIdInAndPsychologistId(List<Long> ids, Long psychologistId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.legalGuardian.LegalGuardianRowDTO(g.id, g.fullName, g.cpf, g.phoneNumber)
+            from LegalGuardianModel g
+            where g.psychologist.id = :psychologistId
+            order by g.id
+            """)
+    List<LegalGuardianRowDTO> findRowsByPsychologistId(@Param("psychologistId") Long psychologistId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+            select new com.example.ampliar.dto.legalGuardian.LegalGuardianRowDTO(g.id, g.fullName, g.cpf, g.phoneNumber)
+            from LegalGuardianModel g
+            where g.id = :id and g.psychologist.id = :psychologistId
+            """)
+    Optional<LegalGuardianRowDTO> findRowByIdAndPsychologistId(@Param("id") Long id, @Param("psychologistId") Long psychologistId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.legalGuardian.GuardianPatientLinkDTO(g.id, p.id)
+            from LegalGuardianModel g join g.patients p
+            where g.id in :guardianIds
+            """)
+    List<GuardianPatientLinkDTO> findPatientLinks(@Param("guardianIds") List<Long> guardianIds);
 }
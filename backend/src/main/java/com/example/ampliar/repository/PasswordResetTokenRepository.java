@@ -4,12 +4,37 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.ampliar.model.PasswordResetTokenModel;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetTokenModel, Long> {
 
-    Optional<PasswordResetTokenModel> findByTokenAndUsedFalse(String token);
+    Optional<PasswordResetTokenModel> findByTokenHashAndUsedFalse(String tokenHash);
 
-    void deleteByExpiresAtBefore(LocalDateTime dateTime);
+    /**
+     * Consome o token se ele ainda não foi usado nem expirou; devolve quantas linhas mudaram. Uma
+     * redefinição concorrente espera o lock da linha e, depois do commit da primeira, não a
+     * encontra mais com {@code used = false}: só uma delas recebe 1.
+     */
+    @Modifying
+    @Query("""
+            update PasswordResetTokenModel t set t.used = true
+            where t.id = :id and t.used = false and t.expiresAt > :now
+            """)
+    int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /** Remove até {@code batchSize} tokens usados ou expirados; devolve quantos foram apagados. */
+    @Modifying
+    @Query(value = """
+            DELETE FROM password_reset_token
+            WHERE id IN (
+                SELECT id FROM password_reset_token
+                WHERE used = true OR expires_at < :now
+                LIMIT :batchSize
+            )
+            """, nativeQuery = true)
+    int deleteUsedOrExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
@@ -3,16 +3,59 @@ package com.example.ampliar.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.ampliar.dto.legalGuardian.GuardianPatientLinkDTO;
+import com.example.ampliar.dto.patient.PatientRowDTO;
 import com.example.ampliar.model.PatientModel;
-import com.example.ampliar.model.PsychologistModel;
+
+import jakarta.persistence.QueryHint;
 
 public interface PatientRepository extends JpaRepository<PatientModel, Long> {
 
-    List<PatientModel> findAllByPsychologistAndDeletedAtIsNull(PsychologistModel psychologist);
+    // Sem @SQLRestriction na entidade: pacientes excluídos continuam nos agendamentos já realizados,
+    // então as buscas de pacientes ativos filtram deleted_at aqui.
+    List<PatientModel> findAllByPsychologistIdAndDeletedAtIsNull(Long psychologistId);
+
+    Optional<PatientModel> findByIdAndPsychologistIdAndDeletedAtIsNull(Long id, Long psychologistId);
+
+    List<PatientModel> findByIdInAndPsychologistIdAndDeletedAtIsNull(List<Long> ids, Long psychologistId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.patient.PatientRowDTO(
+                p.id, p.fullName, p.phoneNumber, p.email, p.cpf, p.birthDate, p.address, p.notes, p.firstConsultationDate)
+            from PatientModel p
+            where p.psychologist.id = :psychologistId and p.deletedAt is null
+            order by p.id
+            """)
+    List<PatientRowDTO> findRowsByPsychologistId(@Param("psychologistId") Long psychologistId);
 
-    Optional<PatientModel> findByIdAndPsychologistAndDeletedAtIsNull(Long id, PsychologistModel psychologist);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+            select new com.example.ampliar.dto.patient.PatientRowDTO(
+                p.id, p.fullName, p.phoneNumber, p.email, p.cpf, p.birthDate, p.address, p.notes, p.firstConsultationDate)
+            from PatientModel p
+            where p.id = :id and p.psychologist.id = :psychologistId and p.deletedAt is null
+            """)
+    Optional<PatientRowDTO> findRowByIdAndPsychologistId(@Param("id") Long id, @Param("psychologistId") Long psychologistId);
 
-    List<PatientModel> findByIdInAndPsychologistAndDeletedAtIsNull(List<Long> ids, PsychologistModel psychologist);
+    // Lê só a tabela de junção: os responsáveis não são carregados.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.legalGuardian.GuardianPatientLinkDTO(g.id, p.id)
+            from PatientModel p join p.legalGuardians g
+            where p.id in :patientIds
+            """)
+    List<GuardianPatientLinkDTO> findGuardianLinks(@Param("patientIds") List<Long> patientIds);
 }
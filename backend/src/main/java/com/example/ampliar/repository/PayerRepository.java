@@ -3,14 +3,49 @@ package com.example.ampliar.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.ampliar.dto.payer.PayerDTO;
 import com.example.ampliar.model.PayerModel;
-import com.example.ampliar.model.PsychologistModel;
+
+import jakarta.persistence.QueryHint;
 
 public interface PayerRepository  extends JpaRepository<PayerModel, Long> {
 
-    List<PayerModel> findAllByPsychologistAndDeletedAtIsNull(PsychologistModel psychologist);
-    Optional<PayerModel> findByIdAndPsychologistAndDeletedAtIsNull(Long id, PsychologistModel psychologist);
-    Optional<PayerModel> findByIdAndDeletedAtIsNull(Long id);
+    // Sem @SQLRestriction na entidade: pagamentos de pagadores excluídos continuam em recibos,
+    // relatórios e exportações, então as buscas de pagadores ativos filtram deleted_at aqui.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<PayerModel> findAllByPsychologistIdAndDeletedAtIsNull(Long psychologistId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<PayerModel> findByIdAndPsychologistIdAndDeletedAtIsNull(Long id, Long psychologistId);
+
+    // Listagem e detalhe da API em DTO; o query cache guarda as colunas, como guardava os IDs.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.payer.PayerDTO(p.id, p.fullName, p.cpf, p.phoneNumber)
+            from PayerModel p
+            where p.psychologist.id = :psychologistId and p.deletedAt is null
+            order by p.id
+            """)
+    List<PayerDTO> findAllDTOByPsychologistId(@Param("psychologistId") Long psychologistId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.payer.PayerDTO(p.id, p.fullName, p.cpf, p.phoneNumber)
+            from PayerModel p
+            where p.id = :id and p.psychologist.id = :psychologistId and p.deletedAt is null
+            """)
+    Optional<PayerDTO> findDTOByIdAndPsychologistId(@Param("id") Long id, @Param("psychologistId") Long psychologistId);
 }
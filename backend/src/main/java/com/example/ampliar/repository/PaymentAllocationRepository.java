@@ -0,0 +1,98 @@
+package com.example.ampliar.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.example.ampliar.dto.allocation.PaymentAllocationDTO;
+import com.example.ampliar.model.PaymentAllocationModel;
+
+import jakarta.persistence.QueryHint;
+
+public interface PaymentAllocationRepository extends JpaRepository<PaymentAllocationModel, Long> {
+
+    List<PaymentAllocationModel> findByPaymentIdOrderByAllocatedAtAsc(Long paymentId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.allocation.PaymentAllocationDTO(a.id, a.payment.id, a.appointment.id, a.amount, a.allocatedAt)
+            from PaymentAllocationModel a
+            where a.payment.id = :paymentId
+            order by a.allocatedAt
+            """)
+    List<PaymentAllocationDTO> findDTOByPaymentId(@Param("paymentId") Long paymentId);
+
+    Optional<PaymentAllocationModel> findByPaymentIdAndAppointmentIdAndAppointmentPsychologistId(Long paymentId, Long appointmentId, Long psychologistId);
+
+    /** Alocações do pagamento; a tabela particionada payment não tem mais FK com ON DELETE CASCADE. */
+    @Modifying
+    @Query("delete from PaymentAllocationModel a where a.payment.id = :paymentId")
+    int deleteByPaymentId(@Param("paymentId") Long paymentId);
+
+    @Query("select coalesce(sum(a.amount), 0) from PaymentAllocationModel a where a.payment.id = :paymentId")
+    BigDecimal sumAmountByPaymentId(@Param("paymentId") Long paymentId);
+
+    @Query("""
+            select coalesce(sum(p.valor), 0)
+                 - coalesce((select sum(a.amount) from PaymentAllocationModel a where a.payment.payer.id = :payerId), 0)
+            from PaymentModel p
+            where p.payer.id = :payerId
+            """)
+    BigDecimal findUnallocatedCreditByPayerId(@Param("payerId") Long payerId);
+
+    /**
+     * Distribui o saldo restante do pagamento entre as sessões mais antigas ainda não quitadas
+     * do paciente, em um único INSERT ... SELECT. Cada sessão recebe no máximo o que falta para
+     * atingir {@code sessionPrice}; a soma acumulada (window function) corta a distribuição quando
+     * o saldo acaba. Retorna o número de alocações criadas ou complementadas.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            WITH credit AS (
+                SELECT p.id AS payment_id,
+                       p.valor - COALESCE((SELECT SUM(pa.amount) FROM payment_allocation pa WHERE pa.payment_id = p.id), 0) AS remaining
+                FROM payment p
+                WHERE p.id = :paymentId
+            ),
+            unpaid AS (
+                SELECT a.id AS appointment_id,
+                       a.appointment_date,
+                       :sessionPrice - COALESCE(SUM(pa.amount), 0) AS due
+                FROM appointment a
+                JOIN appointment_patients ap ON ap.appointment_id = a.id AND ap.patient_id = :patientId
+                LEFT JOIN payment_allocation pa ON pa.appointment_id = a.id
+                WHERE a.psychologist_id = :psychologistId
+                  AND a.status <> 'CANCELLED'
+                GROUP BY a.id, a.appointment_date
+                HAVING :sessionPrice - COALESCE(SUM(pa.amount), 0) > 0
+            ),
+            ranked AS (
+                SELECT u.appointment_id,
+                       u.due,
+                       SUM(u.due) OVER (ORDER BY u.appointment_date, u.appointment_id) - u.due AS preceding
+                FROM unpaid u
+            )
+            INSERT INTO payment_allocation (id, payment_id, appointment_id, amount, allocated_at)
+            SELECT nextval('payment_allocation_seq'), c.payment_id, r.appointment_id,
+                   LEAST(r.due, c.remaining - r.preceding), now()
+            FROM ranked r
+            CROSS JOIN credit c
+            WHERE c.remaining - r.preceding > 0
+            ON CONFLICT (payment_id, appointment_id)
+            DO UPDATE SET amount = payment_allocation.amount + EXCLUDED.amount
+            """, nativeQuery = true)
+    int allocateToOldestUnpaid(@Param("paymentId") Long paymentId,
+                               @Param("psychologistId") Long psychologistId,
+                               @Param("patientId") Long patientId,
+                               @Param("sessionPrice") BigDecimal sessionPrice);
+}
@@ -1,6 +1,114 @@
 package com.example.ampliar.repository;
 
+import com.example.ampliar.dto.finance.FinanceExportRowDTO;
+import com.example.ampliar.dto.payment.PaymentDTO;
+import com.example.ampliar.dto.receipt.ReceiptDataDTO;
+import com.example.ampliar.dto.report.IncomeReportRowDTO;
 import com.example.ampliar.model.PaymentModel;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface PaymentRepository  extends JpaRepository<PaymentModel, Long> {}
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PaymentRepository  extends JpaRepository<PaymentModel, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from PaymentModel p where p.id = :id and p.payer.psychologist.id = :psychologistId")
+    Optional<PaymentModel> findByIdAndPsychologistIdForUpdate(@Param("id") Long id, @Param("psychologistId") Long psychologistId);
+
+    @Query("select p from PaymentModel p where p.id = :id and p.payer.psychologist.id = :psychologistId")
+    Optional<PaymentModel> findByIdAndPsychologistId(@Param("id") Long id, @Param("psychologistId") Long psychologistId);
+
+    boolean existsByIdAndPayerPsychologistId(Long id, Long psychologistId);
+
+    // Leituras da API: o DTO sai direto das colunas, sem entidade gerenciada nem snapshot.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.payment.PaymentDTO(p.id, p.valor, p.paymentDate, p.payer.id)
+            from PaymentModel p
+            where p.payer.psychologist.id = :psychologistId
+            order by p.paymentDate, p.id
+            """)
+    List<PaymentDTO> findAllDTOByPsychologistId(@Param("psychologistId") Long psychologistId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+            select new com.example.ampliar.dto.payment.PaymentDTO(p.id, p.valor, p.paymentDate, p.payer.id)
+            from PaymentModel p
+            where p.id = :id and p.payer.psychologist.id = :psychologistId
+            """)
+    Optional<PaymentDTO> findDTOByIdAndPsychologistId(@Param("id") Long id, @Param("psychologistId") Long psychologistId);
+
+    @Query("""
+            select new com.example.ampliar.dto.receipt.ReceiptDataDTO(
+                p.id, p.version, p.receiptNumber, p.valor, p.paymentDate, payer.fullName, payer.cpf, psy.fullName, psy.cpf)
+            from PaymentModel p
+            join p.payer payer
+            join payer.psychologist psy
+            where p.id = :id and psy.id = :psychologistId
+            """)
+    Optional<ReceiptDataDTO> findReceiptData(@Param("id") Long id, @Param("psychologistId") Long psychologistId);
+
+    @Query("""
+            select new com.example.ampliar.dto.receipt.ReceiptDataDTO(
+                p.id, p.version, p.receiptNumber, p.valor, p.paymentDate, payer.fullName, payer.cpf, psy.fullName, psy.cpf)
+            from PaymentModel p
+            join p.payer payer
+            join payer.psychologist psy
+            where psy.id = :psychologistId and p.paymentDate between :start and :end
+            order by p.paymentDate, p.id
+            """)
+    List<ReceiptDataDTO> findReceiptDataByPeriod(@Param("psychologistId") Long psychologistId,
+                                                 @Param("start") LocalDate start,
+                                                 @Param("end") LocalDate end);
+
+    @Query("""
+            select new com.example.ampliar.dto.report.IncomeReportRowDTO(
+                year(p.paymentDate), month(p.paymentDate), payer.cpf, min(payer.fullName), sum(p.valor), count(p))
+            from PaymentModel p
+            join p.payer payer
+            where payer.psychologist.id = :psychologistId and p.paymentDate between :start and :end
+            group by year(p.paymentDate), month(p.paymentDate), payer.cpf
+            order by year(p.paymentDate), month(p.paymentDate), payer.cpf
+            """)
+    List<IncomeReportRowDTO> sumIncomeByPayerCpfAndMonth(@Param("psychologistId") Long psychologistId,
+                                                         @Param("start") LocalDate start,
+                                                         @Param("end") LocalDate end);
+
+    /**
+     * Cursor somente leitura para a exportação anual: deve ser consumido dentro de uma transação
+     * e fechado ao final. O fetch size faz o driver do PostgreSQL buscar as linhas em lotes em
+     * vez de carregar o resultado inteiro.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.finance.FinanceExportRowDTO(
+                p.id, p.receiptNumber, p.paymentDate, p.valor, payer.fullName, payer.cpf,
+                ap.id, ap.appointmentDate, ap.status, a.amount)
+            from PaymentModel p
+            join p.payer payer
+            left join PaymentAllocationModel a on a.payment = p
+            left join a.appointment ap
+            where payer.psychologist.id = :psychologistId and p.paymentDate between :start and :end
+            order by p.paymentDate, p.id, ap.appointmentDate
+            """)
+    Stream<FinanceExportRowDTO> streamFinanceExport(@Param("psychologistId") Long psychologistId,
+                                                    @Param("start") LocalDate start,
+                                                    @Param("end") LocalDate end);
+}
@@ -1,18 +1,59 @@
 package com.example.ampliar.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.ampliar.dto.psychologist.PsychologistDTO;
 import com.example.ampliar.model.PsychologistModel;
 
+import jakarta.persistence.QueryHint;
+
+// Psicólogos excluídos já ficam de fora pelo @SQLRestriction da entidade, inclusive em findById.
 public interface PsychologistRepository extends JpaRepository<PsychologistModel, Long> {
+
+    // Login e filtro JWT: o query cache guarda só o ID, a entidade vem da região "psychologist".
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<PsychologistModel> findByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<PsychologistModel> findByCpf(String cpf);
 
-    Optional<PsychologistModel> findByEmailAndDeletedAtIsNull(String email);
-    Optional<PsychologistModel> findByCpfAndDeletedAtIsNull(String cpf);
-    List<PsychologistModel> findAllByDeletedAtIsNull();
-    Optional<PsychologistModel> findByIdAndDeletedAtIsNull(Long id);
+    /**
+     * Exclusão lógica por UPDATE em massa, e não pela entidade: o cache de segundo nível não
+     * aplica o @SQLRestriction, e a atualização em massa invalida a região "psychologist" para
+     * que um findById posterior não devolva o psicólogo excluído a partir do cache.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PsychologistModel p set p.deletedAt = :deletedAt where p.id = :id")
+    int softDelete(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.psychologist.PsychologistDTO(p.id, p.fullName, p.cpf, p.phoneNumber, p.email)
+            from PsychologistModel p
+            order by p.id
+            """)
+    List<PsychologistDTO> findAllDTO();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.ampliar.dto.psychologist.PsychologistDTO(p.id, p.fullName, p.cpf, p.phoneNumber, p.email)
+            from PsychologistModel p
+            where p.id = :id
+            """)
+    Optional<PsychologistDTO> findDTOById(@Param("id") Long id);
 }
@@ -0,0 +1,24 @@
+package com.example.ampliar.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.ampliar.model.ReceiptCounterModel;
+
+public interface ReceiptCounterRepository extends JpaRepository<ReceiptCounterModel, Long> {
+
+    /**
+     * Incrementa (ou cria) o contador do psicólogo e devolve o novo número em um único comando.
+     * O lock de linha fica com a transação corrente até o commit; um rollback desfaz o incremento,
+     * o que garante numeração sem lacunas.
+     */
+    @Query(value = """
+            INSERT INTO receipt_counter (psychologist_id, last_number)
+            VALUES (:psychologistId, 1)
+            ON CONFLICT (psychologist_id)
+            DO UPDATE SET last_number = receipt_counter.last_number + 1
+            RETURNING last_number
+            """, nativeQuery = true)
+    long incrementAndGet(@Param("psychologistId") Long psychologistId);
+}
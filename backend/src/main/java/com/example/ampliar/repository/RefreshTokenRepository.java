@@ -0,0 +1,35 @@
+package com.example.ampliar.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.ampliar.model.RefreshTokenModel;
+
+import jakarta.persistence.LockModeType;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenModel, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from RefreshTokenModel t where t.tokenHash = :tokenHash")
+    Optional<RefreshTokenModel> findByTokenHashForUpdate(@Param("tokenHash") String tokenHash);
+
+    Optional<RefreshTokenModel> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("update RefreshTokenModel t set t.revokedAt = :now where t.sessionId = :sessionId and t.revokedAt is null")
+    int revokeBySessionId(@Param("sessionId") String sessionId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update RefreshTokenModel t set t.revokedAt = :now where t.psychologist.id = :psychologistId and t.revokedAt is null")
+    int revokeByPsychologistId(@Param("psychologistId") Long psychologistId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from RefreshTokenModel t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
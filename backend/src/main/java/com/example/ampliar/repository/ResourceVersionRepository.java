@@ -0,0 +1,35 @@
+package com.example.ampliar.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.ampliar.model.ResourceVersionModel;
+
+public interface ResourceVersionRepository extends JpaRepository<ResourceVersionModel, Long> {
+
+    /**
+     * Soma os incrementos (0 ou 1 por recurso) às versões do psicólogo, criando a linha na
+     * primeira escrita. O lock de linha fica com a transação corrente até o commit.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO resource_version (psychologist_id, patients, legal_guardians, payers, payments, appointments)
+            VALUES (:psychologistId, :patients, :legalGuardians, :payers, :payments, :appointments)
+            ON CONFLICT (psychologist_id) DO UPDATE SET
+                patients = resource_version.patients + EXCLUDED.patients,
+                legal_guardians = resource_version.legal_guardians + EXCLUDED.legal_guardians,
+                payers = resource_version.payers + EXCLUDED.payers,
+                payments = resource_version.payments + EXCLUDED.payments,
+                appointments = resource_version.appointments + EXCLUDED.appointments
+            """, nativeQuery = true)
+    int increment(
+            @Param("psychologistId") Long psychologistId,
+            @Param("patients") int patients,
+            @Param("legalGuardians") int legalGuardians,
+            @Param("payers") int payers,
+            @Param("payments") int payments,
+            @Param("appointments") int appointments
+    );
+}
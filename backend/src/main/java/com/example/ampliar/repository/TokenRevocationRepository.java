@@ -0,0 +1,20 @@
+package com.example.ampliar.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.ampliar.model.TokenRevocationModel;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocationModel, String> {
+
+    List<TokenRevocationModel> findByExpiresAtAfter(Instant now);
+
+    @Modifying
+    @Query("delete from TokenRevocationModel t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -2,12 +2,17 @@ package com.example.ampliar.repository;
 
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.example.ampliar.model.UserSettingsModel;
 
+import jakarta.persistence.QueryHint;
+
 public interface UserSettingsRepository extends JpaRepository<UserSettingsModel, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UserSettingsModel> findByPsychologistId(Long psychologistId);
 
 }
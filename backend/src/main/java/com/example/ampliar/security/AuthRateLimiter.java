@@ -0,0 +1,101 @@
+package com.example.ampliar.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.ampliar.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limite de tentativas de login e cadastro por e-mail e por IP, com token buckets em memória.
+ * A checagem acontece antes do BCrypt, então rajadas de credential stuffing são recusadas sem
+ * custo de CPU. Buckets ociosos expiram do cache; o limite é por instância.
+ *
+ * <p>O IP é o {@code getRemoteAddr()} da requisição. Atrás do proxy ele seria o do proxy, e todos
+ * os clientes dividiriam um bucket; com {@code server.forward-headers-strategy=native} o Tomcat
+ * o substitui pelo cliente do {@code X-Forwarded-For}, aceito só de proxies internos.
+ */
+@Component
+@Slf4j
+public class AuthRateLimiter {
+
+    private static final String RATE_LIMIT_MESSAGE = "Muitas tentativas. Tente novamente mais tarde";
+
+    private final Cache<String, TokenBucket> buckets;
+    private final int emailCapacity;
+    private final Duration emailRefillPeriod;
+    private final int ipCapacity;
+    private final Duration ipRefillPeriod;
+
+    public AuthRateLimiter(
+            @Value("${security.rate-limit.email.capacity:5}") int emailCapacity,
+            @Value("${security.rate-limit.email.refill-period:PT1M}") Duration emailRefillPeriod,
+            @Value("${security.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${security.rate-limit.ip.refill-period:PT1M}") Duration ipRefillPeriod,
+            @Value("${security.rate-limit.max-buckets:100000}") long maxBuckets
+    ) {
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPeriod = emailRefillPeriod;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPeriod = ipRefillPeriod;
+        Duration idle = emailRefillPeriod.compareTo(ipRefillPeriod) > 0 ? emailRefillPeriod : ipRefillPeriod;
+        // Um bucket ocioso por um período completo já estaria cheio: pode ser descartado.
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    public void checkLogin(String email, String clientIp) {
+        consume("ip:" + clientIp, ipCapacity, ipRefillPeriod);
+        if (email != null) {
+            consume("email:" + email.trim().toLowerCase(), emailCapacity, emailRefillPeriod);
+        }
+    }
+
+    public void checkRegistration(String clientIp) {
+        consume("ip:" + clientIp, ipCapacity, ipRefillPeriod);
+    }
+
+    private void consume(String key, int capacity, Duration refillPeriod) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, refillPeriod));
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos > 0) {
+            log.warn("Limite de tentativas excedido para {}", key);
+            throw new TooManyRequestsException(RATE_LIMIT_MESSAGE, Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /** Bucket com reposição contínua: {@code capacity} fichas a cada {@code refillPeriod}. */
+    static final class TokenBucket {
+
+        private final int capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.tokensPerNano = (double) capacity / refillPeriod.toNanos();
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        /** Consome uma ficha; devolve 0 em caso de sucesso ou quantos nanos faltam para a próxima. */
+        synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
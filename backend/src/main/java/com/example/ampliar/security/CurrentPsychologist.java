@@ -0,0 +1,42 @@
+package com.example.ampliar.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import com.example.ampliar.exception.UnauthenticatedException;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.repository.PsychologistRepository;
+
+/**
+ * Psicólogo autenticado na requisição corrente. O ID vem do principal montado pelo
+ * {@link JwtAuthFilter} a partir do token, e {@link #getReference()} devolve um proxy JPA
+ * que não dispara SELECT: serve para filtros e associações por {@code psychologist_id}.
+ */
+@Component
+@RequestScope
+public class CurrentPsychologist {
+
+    private final PsychologistRepository psychologistRepository;
+    private Long id;
+
+    public CurrentPsychologist(PsychologistRepository psychologistRepository) {
+        this.psychologistRepository = psychologistRepository;
+    }
+
+    public Long getId() {
+        if (id == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !(authentication.getPrincipal() instanceof PsychologistPrincipal principal)) {
+                throw new UnauthenticatedException("Autenticação necessária");
+            }
+            id = principal.getPsychologistId();
+        }
+        return id;
+    }
+
+    public PsychologistModel getReference() {
+        return psychologistRepository.getReferenceById(getId());
+    }
+}
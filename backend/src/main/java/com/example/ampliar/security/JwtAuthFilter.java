@@ -1,30 +1,42 @@
 package com.example.ampliar.security;
 
 import java.io.IOException;
+import java.util.List;
 
+import org.slf4j.MDC;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.ampliar.logging.RequestCorrelationFilter;
+
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Autentica a requisição apenas com o conteúdo do JWT: assinatura, expiração e a lista de
+ * revogação em memória. Não há consulta ao banco; contas excluídas e logouts são cobertos pela
+ * revogação e pelo tempo curto de vida do token de acesso.
+ */
 @Component
 @Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-    private final UserDetailsService userDetailsService;
+    private static final List<GrantedAuthority> AUTHORITIES = AuthorityUtils.createAuthorityList("ROLE_USER");
+
     private final JwtUtil jwtUtil;
+    private final TokenRevocationList tokenRevocationList;
 
-    public JwtAuthFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil) {
-        this.userDetailsService = userDetailsService;
+    public JwtAuthFilter(JwtUtil jwtUtil, TokenRevocationList tokenRevocationList) {
         this.jwtUtil = jwtUtil;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     @Override
@@ -53,23 +65,23 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         log.debug("Token JWT encontrado - Tamanho: {} caracteres", token.length());
 
         try {
-            String username = jwtUtil.extractEmail(token);
-            log.debug("Email extraído do token: {}", username);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                log.debug("Carregando UserDetails para: {}", username);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                if (jwtUtil.validateToken(token)) {
-                    var auth = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                    log.info("Usuário autenticado via JWT: {} - {} {}", username, method, path);
-                } else {
-                    log.warn("Token JWT inválido para: {} - {} {}", username, method, path);
-                }
-            } else if (username == null) {
-                log.warn("Não foi possível extrair email do token - {} {}", method, path);
+            Claims claims = jwtUtil.parseClaims(token);
+            String username = claims != null ? claims.getSubject() : null;
+            Long psychologistId = claims != null ? jwtUtil.extractPsychologistId(claims) : null;
+            String sessionId = claims != null ? jwtUtil.extractSessionId(claims) : null;
+
+            if (claims == null) {
+                log.warn("Token JWT inválido - {} {}", method, path);
+            } else if (username == null || psychologistId == null || sessionId == null || claims.getIssuedAt() == null) {
+                log.warn("Token JWT sem identificação de usuário ou sessão - {} {}", method, path);
+            } else if (tokenRevocationList.isRevoked(sessionId, psychologistId, claims.getIssuedAt().toInstant())) {
+                log.warn("Token JWT revogado: {} - {} {}", username, method, path);
+            } else if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                var principal = new PsychologistPrincipal(psychologistId, username, "", AUTHORITIES);
+                var auth = new UsernamePasswordAuthenticationToken(principal, null, AUTHORITIES);
+                SecurityContextHolder.getContext().setAuthentication(auth);
+                MDC.put(RequestCorrelationFilter.PSYCHOLOGIST_ID, psychologistId.toString());
+                log.debug("Usuário autenticado via JWT: {} - {} {}", username, method, path);
             } else {
                 log.debug("Usuário já autenticado no contexto: {} - {} {}", username, method, path);
             }
@@ -82,4 +94,4 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         chain.doFilter(request, response);
         log.debug("Filtro JWT concluído para: {} {}", method, path);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,8 @@
 package com.example.ampliar.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -13,21 +16,33 @@ import java.util.Date;
 @Slf4j
 public class JwtUtil {
 
+    public static final String PSYCHOLOGIST_ID_CLAIM = "pid";
+    public static final String SESSION_ID_CLAIM = "sid";
+
     private final SecretKey key;
     private final long expirationTime;
+    private final JwtParser parser;
 
     public JwtUtil(@Value("${jwt.secret:minhaChaveSecretaSuperSegura123!}") String secret,
-                   @Value("${jwt.expiration:86400000}") long expirationTime) {
+                   @Value("${jwt.expiration:900000}") long expirationTime) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationTime = expirationTime;
+        // O parser é imutável e thread-safe: construído uma vez e reutilizado em todas as requisições.
+        this.parser = Jwts.parser().verifyWith(key).build();
         log.info("JwtUtil configurado - Expiração: {}ms", expirationTime);
     }
 
-    public String generateToken(String username) {
+    /**
+     * Token de acesso de curta duração. A sessão ({@code sid}) liga o token ao refresh token que
+     * o originou, para que logout e revogações alcancem os tokens já emitidos.
+     */
+    public String generateToken(String username, Long psychologistId, String sessionId) {
         log.debug("Gerando token para: {}", username);
         try {
             String token = Jwts.builder()
                     .subject(username)
+                    .claim(PSYCHOLOGIST_ID_CLAIM, psychologistId)
+                    .claim(SESSION_ID_CLAIM, sessionId)
                     .issuedAt(new Date())
                     .expiration(new Date(System.currentTimeMillis() + expirationTime))
                     .signWith(key)
@@ -40,35 +55,42 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * Verifica assinatura e expiração uma única vez e devolve as claims, ou {@code null} se o
+     * token for inválido.
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Token inválido: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public Long extractPsychologistId(Claims claims) {
+        Number psychologistId = claims.get(PSYCHOLOGIST_ID_CLAIM, Number.class);
+        return psychologistId != null ? psychologistId.longValue() : null;
+    }
+
+    public String extractSessionId(Claims claims) {
+        return claims.get(SESSION_ID_CLAIM, String.class);
+    }
+
+    public long getExpirationTime() {
+        return expirationTime;
+    }
+
     public String extractEmail(String token) {
         log.debug("Extraindo email do token");
-        try {
-            String email = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-            log.debug("Email extraído do token: {}", email);
-            return email;
-        } catch (Exception e) {
-            log.error("Erro ao extrair email do token", e);
-            throw new RuntimeException("Token inválido", e);
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            throw new RuntimeException("Token inválido");
         }
+        return claims.getSubject();
     }
 
     public boolean validateToken(String token){
-        log.debug("Validando token");
-        try{
-            Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token);
-            log.debug("Token validado com sucesso");
-            return true;
-        } catch (Exception e){
-            log.warn("Token inválido: {}", e.getMessage());
-            return false;
-        }
+        return parseClaims(token) != null;
     }
-}
\ No newline at end of file
+}
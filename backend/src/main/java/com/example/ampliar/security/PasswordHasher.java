@@ -0,0 +1,83 @@
+package com.example.ampliar.security;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.example.ampliar.exception.TooManyRequestsException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executa o BCrypt no pool {@code passwordHashExecutor}. Se o pool estiver saturado, ou se a
+ * tarefa esperar mais que {@code security.password-hash.max-wait}, a requisição é recusada com
+ * 429 em vez de enfileirar trabalho de CPU sem limite.
+ *
+ * <p>O custo vem de {@code security.bcrypt.strength}, calibrado fora da aplicação com o
+ * PasswordHashBenchmark (módulo benchmarks) no hardware de produção; nada é medido na subida.
+ */
+@Component
+@Slf4j
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final TaskExecutor executor;
+    private final Duration maxWait;
+
+    public PasswordHasher(
+            PasswordEncoder passwordEncoder,
+            @Qualifier("passwordHashExecutor") TaskExecutor executor,
+            @Value("${security.password-hash.max-wait:PT5S}") Duration maxWait
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.maxWait = maxWait;
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T run(Supplier<T> task) {
+        // FutureTask (e não CompletableFuture): cancelada enquanto ainda está na fila, ela não
+        // executa quando chega a vez, então um timeout não deixa um hash órfão ocupando o pool.
+        FutureTask<T> future = new FutureTask<>(task::get);
+        try {
+            executor.execute(future);
+        } catch (TaskRejectedException e) {
+            log.warn("Pool de hashing de senhas saturado - requisição recusada");
+            throw new TooManyRequestsException("Servidor ocupado, tente novamente em instantes", maxWait);
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            log.warn("Hashing de senha aguardou mais de {}ms - requisição recusada", maxWait.toMillis());
+            throw new TooManyRequestsException("Servidor ocupado, tente novamente em instantes", maxWait);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Hashing de senha interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Erro ao processar senha", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ampliar.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import lombok.Getter;
+
+/**
+ * Usuário autenticado com o ID do psicólogo, para que os serviços consultem por
+ * {@code psychologist_id} sem buscar o psicólogo pelo e-mail.
+ */
+@Getter
+public class PsychologistPrincipal extends User {
+
+    private final Long psychologistId;
+
+    public PsychologistPrincipal(Long psychologistId, String username, String password,
+                                 Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.psychologistId = psychologistId;
+    }
+}
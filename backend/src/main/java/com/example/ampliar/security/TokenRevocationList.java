@@ -0,0 +1,134 @@
+package com.example.ampliar.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.ampliar.model.TokenRevocationModel;
+import com.example.ampliar.repository.TokenRevocationRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lista de revogação dos tokens de acesso mantida em memória, para que a validação do JWT não
+ * precise ir ao banco. As revogações são gravadas em {@code token_revocation}, aplicadas
+ * localmente após o commit e recarregadas periodicamente para refletir as de outras instâncias.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private static final String SESSION_PREFIX = "s:";
+    private static final String PSYCHOLOGIST_PREFIX = "p:";
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private record Entry(Instant revokedAt, Instant expiresAt) {
+    }
+
+    private record Snapshot(RevocationBloomFilter filter, Map<String, Entry> entries) {
+    }
+
+    private final TokenRevocationRepository repository;
+    private final Duration accessTokenTtl;
+    private volatile Snapshot snapshot = new Snapshot(new RevocationBloomFilter(MIN_CAPACITY, FALSE_POSITIVE_RATE),
+            new ConcurrentHashMap<>());
+
+    public TokenRevocationList(TokenRevocationRepository repository,
+                               @Value("${jwt.expiration:900000}") long accessTokenTtlMillis) {
+        this.repository = repository;
+        this.accessTokenTtl = Duration.ofMillis(accessTokenTtlMillis);
+    }
+
+    /** Um token está revogado se foi emitido antes do limite gravado na revogação da sessão ou do psicólogo. */
+    public boolean isRevoked(String sessionId, Long psychologistId, Instant issuedAt) {
+        Snapshot current = snapshot;
+        return isRevoked(current, SESSION_PREFIX + sessionId, issuedAt)
+                || isRevoked(current, PSYCHOLOGIST_PREFIX + psychologistId, issuedAt);
+    }
+
+    public void revokeSession(String sessionId) {
+        revoke(SESSION_PREFIX + sessionId);
+    }
+
+    public void revokePsychologist(Long psychologistId) {
+        revoke(PSYCHOLOGIST_PREFIX + psychologistId);
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.refresh-interval:PT30S}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        Instant now = Instant.now();
+        List<TokenRevocationModel> rows = repository.findByExpiresAtAfter(now);
+        synchronized (this) {
+            Map<String, Entry> entries = new ConcurrentHashMap<>(rows.size() * 2);
+            rows.forEach(row -> entries.put(row.getTokenKey(), new Entry(row.getRevokedAt(), row.getExpiresAt())));
+            // Revogações aplicadas localmente depois da leitura acima não podem se perder na troca.
+            snapshot.entries().forEach((key, entry) -> {
+                if (entry.expiresAt().isAfter(now)) {
+                    entries.merge(key, entry, (a, b) -> a.revokedAt().isAfter(b.revokedAt()) ? a : b);
+                }
+            });
+            RevocationBloomFilter filter = new RevocationBloomFilter(
+                    Math.max(MIN_CAPACITY, entries.size() * 2), FALSE_POSITIVE_RATE);
+            entries.keySet().forEach(filter::put);
+            snapshot = new Snapshot(filter, entries);
+        }
+        log.debug("Lista de revogação recarregada - {} entradas ativas", rows.size());
+    }
+
+    @Scheduled(cron = "${security.revocation.purge-cron:0 15 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = repository.deleteExpired(Instant.now());
+        if (removed > 0) {
+            log.info("Removidas {} revogações expiradas", removed);
+        }
+    }
+
+    private void revoke(String key) {
+        // O "iat" do JWT tem precisão de segundos: o limite é o segundo seguinte ao da revogação,
+        // e a comparação fica exata nessa precisão. Tokens emitidos no mesmo segundo da revogação,
+        // antes ou depois dela, caem juntos; nenhum emitido antes escapa.
+        Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        // Nenhum token emitido antes da revogação continua válido depois de um TTL de acesso.
+        Instant expiresAt = revokedAt.plus(accessTokenTtl);
+        repository.save(new TokenRevocationModel(key, revokedAt, expiresAt));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyLocally(key, new Entry(revokedAt, expiresAt));
+                }
+            });
+        } else {
+            applyLocally(key, new Entry(revokedAt, expiresAt));
+        }
+        log.info("Tokens de acesso revogados para {}", key);
+    }
+
+    private synchronized void applyLocally(String key, Entry entry) {
+        Snapshot current = snapshot;
+        current.entries().put(key, entry);
+        current.filter().put(key);
+    }
+
+    private static boolean isRevoked(Snapshot snapshot, String key, Instant issuedAt) {
+        if (!snapshot.filter().mightContain(key)) {
+            return false;
+        }
+        Entry entry = snapshot.entries().get(key);
+        return entry != null && issuedAt.truncatedTo(ChronoUnit.SECONDS).isBefore(entry.revokedAt());
+    }
+}
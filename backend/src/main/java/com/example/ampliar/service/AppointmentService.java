@@ -2,18 +2,25 @@ package com.example.ampliar.service;
 
 import com.example.ampliar.dto.appointment.AppointmentDTO;
 import com.example.ampliar.dto.appointment.AppointmentCreateDTO;
+import com.example.ampliar.dto.appointment.AppointmentRowDTO;
 import com.example.ampliar.dto.appointment.AppointmentUpdateDTO;
+import com.example.ampliar.exception.ConflictException;
+import com.example.ampliar.exception.ErrorCode;
+import com.example.ampliar.exception.ResourceNotFoundException;
 import com.example.ampliar.mapper.AppointmentDTOMapper;
+import com.example.ampliar.metrics.BusinessMetrics;
 import com.example.ampliar.model.AppointmentModel;
 import com.example.ampliar.model.PatientModel;
 import com.example.ampliar.model.PaymentModel;
 import com.example.ampliar.model.PsychologistModel;
 import com.example.ampliar.model.enums.AppointmentStatus;
+import com.example.ampliar.model.enums.VersionedResource;
 import com.example.ampliar.repository.AppointmentRepository;
 import com.example.ampliar.repository.PatientRepository;
 import com.example.ampliar.repository.PaymentRepository;
 import com.example.ampliar.repository.PsychologistRepository;
-import jakarta.persistence.EntityNotFoundException;
+import com.example.ampliar.security.CurrentPsychologist;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,7 +28,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -34,24 +40,28 @@ public class AppointmentService {
     private final PsychologistRepository psychologistRepository;
     private final PatientRepository patientRepository;
     private final PaymentRepository paymentRepository;
+    private final PaymentAllocationService paymentAllocationService;
     private final AppointmentDTOMapper mapper;
+    private final BusinessMetrics businessMetrics;
+    private final CurrentPsychologist currentPsychologist;
+    private final ResourceVersionService resourceVersionService;
 
     @Transactional
     public AppointmentDTO createAppointment(AppointmentCreateDTO dto) {
-        log.info("Criando agendamento para psicólogo ID: {}", dto.psychologistId());
+        Long psychologistId = currentPsychologist.getId();
+        log.info("Criando agendamento para psicólogo ID: {}", psychologistId);
+        Timer.Sample sample = businessMetrics.startTimer();
 
         try {
-            PsychologistModel psych = psychologistRepository.findById(dto.psychologistId())
-                    .orElseThrow(() -> {
-                        log.error("Psicólogo não encontrado ID: {}", dto.psychologistId());
-                        return new EntityNotFoundException("Psicólogo não encontrado");
-                    });
+            requireCurrentPsychologist(dto.psychologistId(), psychologistId);
+            PsychologistModel psych = psychologistRepository.findById(psychologistId)
+                    .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PSYCHOLOGIST_NOT_FOUND, "Psicólogo não encontrado"));
 
-            List<PatientModel> patients = patientRepository.findByIdInAndPsychologistAndDeletedAtIsNull(dto.patientIds(), psych);
+            List<PatientModel> patients = patientRepository.findByIdInAndPsychologistIdAndDeletedAtIsNull(dto.patientIds(), psych.getId());
             if (patients.size() != dto.patientIds().size()) {
-                log.error("Pacientes não encontrados ou excluídos. Esperados: {}, Encontrados: {}",
+                log.warn("Pacientes não encontrados ou excluídos. Esperados: {}, Encontrados: {}",
                          dto.patientIds().size(), patients.size());
-                throw new EntityNotFoundException("Há paciente(s) inexistente(s) ou excluído(s) no payload");
+                throw new ResourceNotFoundException(ErrorCode.PATIENT_NOT_FOUND, "Há paciente(s) inexistente(s) ou excluído(s) no payload");
             }
 
             validatePsychologistAvailability(dto.appointmentDate(), psych.getId(), null);
@@ -61,14 +71,8 @@ public class AppointmentService {
 
             PaymentModel payment = null;
             if (dto.paymentId() != null) {
-                if (appointmentRepository.findByPayment_Id(dto.paymentId()).isPresent()) {
-                    throw new IllegalStateException("Este pagamento já está vinculado a outro agendamento");
-                }
-                payment = paymentRepository.findById(dto.paymentId())
-                        .orElseThrow(() -> {
-                            log.error("Pagamento não encontrado ID: {}", dto.paymentId());
-                            return new EntityNotFoundException("Pagamento não encontrado");
-                        });
+                payment = paymentRepository.findByIdAndPsychologistIdForUpdate(dto.paymentId(), psych.getId())
+                        .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PAYMENT_NOT_FOUND, "Pagamento não encontrado"));
                 log.debug("Pagamento associado: {}", dto.paymentId());
             } else {
                 log.debug("Agendamento criado sem pagamento associado");
@@ -82,21 +86,19 @@ public class AppointmentService {
             model.setStatus(dto.status() != null ? dto.status() : AppointmentStatus.SCHEDULED);
             model.setPsychologist(psych);
             model.setPatients(patients);
-            model.setPayment(payment);
 
             model = appointmentRepository.save(model);
+            if (payment != null) {
+                paymentAllocationService.allocate(payment, model, dto.allocatedAmount());
+            }
+            resourceVersionService.markChanged(psych.getId(), VersionedResource.APPOINTMENTS);
             log.info("Agendamento criado com sucesso ID: {}", model.getId());
+            businessMetrics.recordAppointmentCreation(sample, BusinessMetrics.SUCCESS);
             return mapper.apply(model);
 
-        } catch (EntityNotFoundException e) {
-            log.error("Erro ao criar agendamento - recurso não encontrado: {}", e.getMessage());
-            throw e;
-        } catch (IllegalStateException e) {
-            log.warn("Conflito de agendamento: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            businessMetrics.recordAppointmentCreation(sample, BusinessMetrics.outcomeOf(e));
             throw e;
-        } catch (Exception e) {
-            log.error("Erro inesperado ao criar agendamento", e);
-            throw new RuntimeException("Erro interno do servidor", e);
         }
     }
 
@@ -104,140 +106,120 @@ public class AppointmentService {
     public AppointmentDTO updateAppointment(Long id, AppointmentUpdateDTO dto) {
         log.info("Atualizando agendamento ID: {}", id);
 
-        try {
-            AppointmentModel model = appointmentRepository.findById(id)
-                    .orElseThrow(() -> {
-                        log.error("Agendamento não encontrado ID: {}", id);
-                        return new EntityNotFoundException("Agendamento não encontrado");
-                    });
-
-            if (dto.appointmentDate() != null) {
-                validatePsychologistAvailability(dto.appointmentDate(), model.getPsychologist().getId(), model.getId());
-                for (PatientModel p : model.getPatients()) {
-                    validatePatientAvailability(dto.appointmentDate(), p.getId(), model.getId());
-                }
-                model.setAppointmentDate(dto.appointmentDate());
-                log.debug("Data do agendamento atualizada");
-            }
+        AppointmentModel model = appointmentRepository.findByIdAndPsychologistId(id, currentPsychologist.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.APPOINTMENT_NOT_FOUND, "Agendamento não encontrado"));
+        // O agendamento não muda de dono: pacientes e pagamentos são buscados no escopo do psicólogo atual.
+        requireCurrentPsychologist(dto.psychologistId(), model.getPsychologist().getId());
 
-            if (dto.appointmentEndDate() != null) {
-                model.setAppointmentEndDate(dto.appointmentEndDate());
-                log.debug("Término do agendamento atualizado");
+        if (dto.appointmentDate() != null) {
+            validatePsychologistAvailability(dto.appointmentDate(), model.getPsychologist().getId(), model.getId());
+            for (PatientModel p : model.getPatients()) {
+                validatePatientAvailability(dto.appointmentDate(), p.getId(), model.getId());
             }
+            model.setAppointmentDate(dto.appointmentDate());
+            log.debug("Data do agendamento atualizada");
+        }
 
-            if (dto.type() != null) {
-                model.setAppointmentType(dto.type().trim());
-                log.debug("Tipo do agendamento atualizado");
-            }
+        if (dto.appointmentEndDate() != null) {
+            model.setAppointmentEndDate(dto.appointmentEndDate());
+            log.debug("Término do agendamento atualizado");
+        }
 
-            if (dto.notes() != null) {
-                model.setNotes(normalizeNotes(dto.notes()));
-                log.debug("Observações do agendamento atualizadas");
-            }
+        if (dto.type() != null) {
+            model.setAppointmentType(dto.type().trim());
+            log.debug("Tipo do agendamento atualizado");
+        }
 
-            if (dto.status() != null) {
-                model.setStatus(dto.status());
-                log.debug("Status do agendamento atualizado");
-            }
+        if (dto.notes() != null) {
+            model.setNotes(normalizeNotes(dto.notes()));
+            log.debug("Observações do agendamento atualizadas");
+        }
 
-            if (dto.psychologistId() != null && !dto.psychologistId().equals(model.getPsychologist().getId())) {
-                PsychologistModel psych = psychologistRepository.findById(dto.psychologistId())
-                        .orElseThrow(() -> {
-                            log.error("Psicólogo não encontrado ID: {}", dto.psychologistId());
-                            return new EntityNotFoundException("Psicólogo não encontrado");
-                        });
-                validatePsychologistAvailability(model.getAppointmentDate(), psych.getId(), model.getId());
-                model.setPsychologist(psych);
-                log.debug("Psicólogo do agendamento atualizado");
-            }
+        if (dto.status() != null) {
+            model.setStatus(dto.status());
+            log.debug("Status do agendamento atualizado");
+        }
 
-            if (dto.patientIds() != null && !dto.patientIds().isEmpty()) {
-                List<PatientModel> patients = patientRepository.findByIdInAndPsychologistAndDeletedAtIsNull(dto.patientIds(), model.getPsychologist());
-                if (patients.size() != dto.patientIds().size()) {
-                    log.error("Pacientes não encontrados ou excluídos na atualização. Esperados: {}, Encontrados: {}",
-                             dto.patientIds().size(), patients.size());
-                    throw new EntityNotFoundException("Há paciente(s) inexistente(s) ou excluído(s) no payload");
-                }
-                for (PatientModel p : patients) {
-                    validatePatientAvailability(model.getAppointmentDate(), p.getId(), model.getId());
-                }
-                model.setPatients(patients);
-                log.debug("Pacientes do agendamento atualizados");
+        if (dto.patientIds() != null && !dto.patientIds().isEmpty()) {
+            List<PatientModel> patients = patientRepository.findByIdInAndPsychologistIdAndDeletedAtIsNull(dto.patientIds(), model.getPsychologist().getId());
+            if (patients.size() != dto.patientIds().size()) {
+                log.warn("Pacientes não encontrados ou excluídos na atualização. Esperados: {}, Encontrados: {}",
+                         dto.patientIds().size(), patients.size());
+                throw new ResourceNotFoundException(ErrorCode.PATIENT_NOT_FOUND, "Há paciente(s) inexistente(s) ou excluído(s) no payload");
             }
-
-            if (dto.paymentId() != null) {
-                var existingWithPayment = appointmentRepository.findByPayment_Id(dto.paymentId());
-                if (existingWithPayment.isPresent() && !existingWithPayment.get().getId().equals(id)) {
-                    throw new IllegalStateException("Este pagamento já está vinculado a outro agendamento");
-                }
-                PaymentModel payment = paymentRepository.findById(dto.paymentId())
-                        .orElseThrow(() -> {
-                            log.error("Pagamento não encontrado ID: {}", dto.paymentId());
-                            return new EntityNotFoundException("Pagamento não encontrado");
-                        });
-                model.setPayment(payment);
-                log.debug("Pagamento do agendamento atualizado");
-            } else if (dto.paymentId() == null && model.getPayment() != null) {
-                model.setPayment(null);
-                log.debug("Pagamento removido do agendamento");
+            for (PatientModel p : patients) {
+                validatePatientAvailability(model.getAppointmentDate(), p.getId(), model.getId());
             }
+            model.setPatients(patients);
+            log.debug("Pacientes do agendamento atualizados");
+        }
 
-            model = appointmentRepository.save(model);
-            log.info("Agendamento atualizado com sucesso ID: {}", id);
-            return mapper.apply(model);
+        // Atualização parcial: paymentId ausente não mexe nas alocações; removê-las é um pedido explícito.
+        if (Boolean.TRUE.equals(dto.clearAllocations()) && !model.getAllocations().isEmpty()) {
+            model.clearAllocations();
+            log.debug("Pagamentos removidos do agendamento");
+        }
 
-        } catch (Exception e) {
-            log.error("Erro ao atualizar agendamento ID: {}", id, e);
-            throw e;
+        if (dto.paymentId() != null) {
+            PaymentModel payment = paymentRepository.findByIdAndPsychologistIdForUpdate(dto.paymentId(), model.getPsychologist().getId())
+                    .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PAYMENT_NOT_FOUND, "Pagamento não encontrado"));
+            boolean alreadyAllocated = model.getAllocations().stream()
+                    .anyMatch(a -> a.getPayment().getId().equals(dto.paymentId()));
+            if (!alreadyAllocated || dto.allocatedAmount() != null) {
+                paymentAllocationService.allocate(payment, model, dto.allocatedAmount());
+            }
+            log.debug("Pagamento do agendamento atualizado");
         }
+
+        model = appointmentRepository.save(model);
+        resourceVersionService.markChanged(model.getPsychologist().getId(), VersionedResource.APPOINTMENTS);
+        log.info("Agendamento atualizado com sucesso ID: {}", id);
+        return mapper.apply(model);
     }
 
     @Transactional
     public void deleteAppointment(Long id) {
         log.info("Excluindo agendamento ID: {}", id);
-        try {
-            if (!appointmentRepository.existsById(id)) {
-                log.warn("Tentativa de excluir agendamento inexistente ID: {}", id);
-                throw new EntityNotFoundException("Agendamento não encontrado");
-            }
-            appointmentRepository.deleteById(id);
-            log.info("Agendamento excluído com sucesso ID: {}", id);
-        } catch (Exception e) {
-            log.error("Erro ao excluir agendamento ID: {}", id, e);
-            throw e;
-        }
+        AppointmentModel model = appointmentRepository.findByIdAndPsychologistId(id, currentPsychologist.getId())
+                .orElseThrow(() -> {
+                    log.warn("Tentativa de excluir agendamento inexistente ID: {}", id);
+                    return new ResourceNotFoundException(ErrorCode.APPOINTMENT_NOT_FOUND, "Agendamento não encontrado");
+                });
+        appointmentRepository.delete(model);
+        resourceVersionService.markChanged(model.getPsychologist().getId(), VersionedResource.APPOINTMENTS);
+        log.info("Agendamento excluído com sucesso ID: {}", id);
     }
 
     @Transactional(readOnly = true)
     public AppointmentDTO getAppointmentById(Long id) {
         log.debug("Buscando agendamento por ID: {}", id);
-        try {
-            AppointmentModel model = appointmentRepository.findById(id)
-                    .orElseThrow(() -> {
-                        log.warn("Agendamento não encontrado ID: {}", id);
-                        return new EntityNotFoundException("Agendamento não encontrado");
-                    });
-            log.debug("Agendamento encontrado ID: {}", id);
-            return mapper.apply(model);
-        } catch (Exception e) {
-            log.error("Erro ao buscar agendamento ID: {}", id, e);
-            throw e;
-        }
+        AppointmentRowDTO row = appointmentRepository.findRowByIdAndPsychologistId(id, currentPsychologist.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.APPOINTMENT_NOT_FOUND, "Agendamento não encontrado"));
+        log.debug("Agendamento encontrado ID: {}", id);
+        return mapper.fromRows(List.of(row), appointmentRepository.findPatientRows(List.of(id))).get(0);
     }
 
     @Transactional(readOnly = true)
     public List<AppointmentDTO> getAllAppointments() {
         log.debug("Buscando todos os agendamentos");
-        try {
-            var appointments = appointmentRepository.findAll()
-                    .stream()
-                    .map(mapper)
-                    .collect(Collectors.toList());
-            log.debug("Encontrados {} agendamentos", appointments.size());
-            return appointments;
-        } catch (Exception e) {
-            log.error("Erro ao buscar todos os agendamentos", e);
-            throw e;
+        List<AppointmentRowDTO> rows = appointmentRepository.findRowsByPsychologistId(currentPsychologist.getId());
+        List<AppointmentDTO> appointments = List.of();
+        if (!rows.isEmpty()) {
+            List<Long> appointmentIds = rows.stream().map(AppointmentRowDTO::id).toList();
+            appointments = mapper.fromRows(rows, appointmentRepository.findPatientRows(appointmentIds));
+        }
+        log.debug("Encontrados {} agendamentos", appointments.size());
+        return appointments;
+    }
+
+    /**
+     * O psicólogo do payload é opcional e só pode ser o autenticado. Outro ID responde 404, como
+     * qualquer recurso de outro psicólogo, para não revelar quais IDs existem.
+     */
+    private void requireCurrentPsychologist(Long requestedPsychologistId, Long psychologistId) {
+        if (requestedPsychologistId != null && !requestedPsychologistId.equals(psychologistId)) {
+            log.warn("Agendamento com psicólogo ID: {} recusado para o psicólogo ID: {}", requestedPsychologistId, psychologistId);
+            throw new ResourceNotFoundException(ErrorCode.PSYCHOLOGIST_NOT_FOUND, "Psicólogo não encontrado");
         }
     }
 
@@ -248,7 +230,8 @@ public class AppointmentService {
                 : appointmentRepository.existsByAppointmentDateAndPsychologistIdAndStatusInAndIdNot(date, psychologistId, CONFLICT_STATUSES, excludeAppointmentId);
         if (conflict) {
             log.warn("Conflito de horário para psicólogo ID: {} na data: {}", psychologistId, date);
-            throw new IllegalStateException("O psicólogo já tem um agendamento nesse horário");
+            businessMetrics.psychologistConflict();
+            throw new ConflictException(ErrorCode.PSYCHOLOGIST_SCHEDULE_CONFLICT, "O psicólogo já tem um agendamento nesse horário");
         }
     }
 
@@ -259,7 +242,8 @@ public class AppointmentService {
                 : appointmentRepository.existsByAppointmentDateAndPatients_IdAndStatusInAndIdNot(date, patientId, CONFLICT_STATUSES, excludeAppointmentId);
         if (conflict) {
             log.warn("Conflito de horário para paciente ID: {} na data: {}", patientId, date);
-            throw new IllegalStateException("O paciente já tem um agendamento nesse horário");
+            businessMetrics.patientConflict();
+            throw new ConflictException(ErrorCode.PATIENT_SCHEDULE_CONFLICT, "O paciente já tem um agendamento nesse horário");
         }
     }
 
@@ -0,0 +1,163 @@
+package com.example.ampliar.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.ampliar.dto.finance.FinanceExportRowDTO;
+import com.example.ampliar.repository.PaymentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class FinanceExportService {
+
+    public enum Format { CSV, XLSX }
+
+    private static final String[] HEADER = {
+            "Pagamento", "Recibo", "Data do pagamento", "Valor", "Pagador", "CPF do pagador",
+            "Agendamento", "Data do agendamento", "Status do agendamento", "Valor alocado"
+    };
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    /** Linhas mantidas em memória pelo SXSSF; as anteriores vão para um arquivo temporário. */
+    private static final int XLSX_ROW_WINDOW = 200;
+
+    private final PaymentRepository paymentRepository;
+
+    public FinanceExportService(PaymentRepository paymentRepository) {
+        this.paymentRepository = paymentRepository;
+    }
+
+    /**
+     * Escreve a exportação anual direto no stream da resposta. As linhas vêm de um cursor
+     * somente leitura e são gravadas uma a uma, então a memória não cresce com o volume.
+     */
+    @Transactional(readOnly = true)
+    public void exportYear(Long psychologistId, int year, Format format, OutputStream out) throws IOException {
+        log.info("Exportando financeiro de {} em {} para psicólogo ID: {}", year, format, psychologistId);
+
+        try (Stream<FinanceExportRowDTO> rows = paymentRepository.streamFinanceExport(
+                psychologistId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))) {
+            long count = format == Format.XLSX ? writeXlsx(rows, out) : writeCsv(rows, out);
+            log.info("Exportação financeira de {} concluída - {} linhas", year, count);
+        }
+    }
+
+    private long writeCsv(Stream<FinanceExportRowDTO> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(";", HEADER));
+        writer.write("\r\n");
+
+        long[] count = {0};
+        try {
+            rows.forEach(row -> {
+                try {
+                    writer.write(csvLine(row));
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return count[0];
+    }
+
+    private String csvLine(FinanceExportRowDTO row) {
+        return String.valueOf(row.paymentId()) + ';'
+                + nullToEmpty(row.receiptNumber()) + ';'
+                + row.paymentDate().format(DATE_FORMAT) + ';'
+                + decimal(row.valor()) + ';'
+                + sanitize(row.payerName()) + ';'
+                + row.payerCpf() + ';'
+                + nullToEmpty(row.appointmentId()) + ';'
+                + (row.appointmentDate() != null ? row.appointmentDate().format(DATE_TIME_FORMAT) : "") + ';'
+                + nullToEmpty(row.appointmentStatus()) + ';'
+                + (row.allocatedAmount() != null ? decimal(row.allocatedAmount()) : "")
+                + "\r\n";
+    }
+
+    private long writeXlsx(Stream<FinanceExportRowDTO> rows, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("Financeiro");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy"));
+            CellStyle dateTimeStyle = workbook.createCellStyle();
+            dateTimeStyle.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy hh:mm"));
+            CellStyle moneyStyle = workbook.createCellStyle();
+            moneyStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < HEADER.length; i++) {
+                header.createCell(i).setCellValue(HEADER[i]);
+            }
+
+            int[] rowIndex = {1};
+            rows.forEach(dto -> {
+                Row row = sheet.createRow(rowIndex[0]++);
+                row.createCell(0).setCellValue(dto.paymentId());
+                if (dto.receiptNumber() != null) {
+                    row.createCell(1).setCellValue(dto.receiptNumber());
+                }
+                var paymentDate = row.createCell(2);
+                paymentDate.setCellValue(dto.paymentDate());
+                paymentDate.setCellStyle(dateStyle);
+                var valor = row.createCell(3);
+                valor.setCellValue(dto.valor().doubleValue());
+                valor.setCellStyle(moneyStyle);
+                row.createCell(4).setCellValue(dto.payerName());
+                row.createCell(5).setCellValue(dto.payerCpf());
+                if (dto.appointmentId() != null) {
+                    row.createCell(6).setCellValue(dto.appointmentId());
+                    var appointmentDate = row.createCell(7);
+                    appointmentDate.setCellValue(dto.appointmentDate());
+                    appointmentDate.setCellStyle(dateTimeStyle);
+                    row.createCell(8).setCellValue(dto.appointmentStatus().name());
+                    var allocated = row.createCell(9);
+                    allocated.setCellValue(dto.allocatedAmount().doubleValue());
+                    allocated.setCellStyle(moneyStyle);
+                }
+            });
+
+            workbook.write(out);
+            out.flush();
+            return rowIndex[0] - 1L;
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private String decimal(BigDecimal value) {
+        return value.toPlainString().replace('.', ',');
+    }
+
+    private String nullToEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private String sanitize(String value) {
+        return value == null ? "" : value.replace(';', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
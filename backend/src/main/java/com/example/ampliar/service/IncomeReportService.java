@@ -0,0 +1,161 @@
+package com.example.ampliar.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.ampliar.config.CacheConfig;
+import com.example.ampliar.dto.report.IncomeReportDTO;
+import com.example.ampliar.dto.report.IncomeReportRowDTO;
+import com.example.ampliar.repository.PaymentRepository;
+import com.example.ampliar.security.CurrentPsychologist;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class IncomeReportService {
+
+    /** Código do Carnê-Leão para rendimento de trabalho não assalariado recebido de pessoa física. */
+    static final String CARNE_LEAO_ACCOUNT_CODE = "R01.001.001";
+    static final String CSV_HEADER = "Data;Codigo;Valor;Historico;CPF Titular;CPF Beneficiario";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final PaymentRepository paymentRepository;
+    private final CurrentPsychologist currentPsychologist;
+    private final Cache reportCache;
+
+    public IncomeReportService(
+            PaymentRepository paymentRepository,
+            CurrentPsychologist currentPsychologist,
+            CacheManager cacheManager
+    ) {
+        this.paymentRepository = paymentRepository;
+        this.currentPsychologist = currentPsychologist;
+        this.reportCache = cacheManager.getCache(CacheConfig.INCOME_REPORTS);
+    }
+
+    /**
+     * Rendimentos do mês agrupados por CPF do pagador. Meses já encerrados ficam em cache até a
+     * expiração ou a próxima alteração; o mês corrente é sempre recalculado. Sem {@code readOnly}
+     * a leitura vai ao primário: vinda de uma réplica atrasada logo após uma invalidação, ela
+     * recolocaria no cache os totais anteriores à alteração.
+     */
+    @Transactional
+    public IncomeReportDTO getMonthlyIncome(YearMonth month) {
+        Long psychologistId = currentPsychologist.getId();
+        boolean closed = month.isBefore(YearMonth.now());
+        String key = cacheKey(psychologistId, month);
+
+        if (closed) {
+            IncomeReportDTO cached = reportCache.get(key, IncomeReportDTO.class);
+            if (cached != null) {
+                log.debug("Relatório de rendimentos de {} servido do cache para psicólogo ID: {}", month, psychologistId);
+                return cached;
+            }
+        }
+
+        List<IncomeReportRowDTO> rows = paymentRepository.sumIncomeByPayerCpfAndMonth(
+                psychologistId, month.atDay(1), month.atEndOfMonth());
+        BigDecimal total = rows.stream()
+                .map(IncomeReportRowDTO::total)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        IncomeReportDTO report = new IncomeReportDTO(month, closed, total, rows);
+        log.info("Relatório de rendimentos de {} gerado para psicólogo ID: {} - {} pagadores",
+                month, psychologistId, rows.size());
+
+        if (closed) {
+            reportCache.put(key, report);
+        }
+        return report;
+    }
+
+    /**
+     * CSV no leiaute de importação de rendimentos do Carnê-Leão: uma linha por CPF pagador,
+     * datada no último dia do mês, com valor em formato brasileiro (vírgula decimal). O modelo
+     * não vincula pagador a paciente, então o beneficiário é informado como o próprio titular.
+     */
+    @Transactional
+    public String exportMonthlyIncomeCsv(YearMonth month) {
+        IncomeReportDTO report = getMonthlyIncome(month);
+        String date = month.atEndOfMonth().format(DATE_FORMAT);
+
+        StringBuilder csv = new StringBuilder(CSV_HEADER.length() + report.rows().size() * 96);
+        csv.append(CSV_HEADER).append("\r\n");
+        for (IncomeReportRowDTO row : report.rows()) {
+            csv.append(date).append(';')
+                    .append(CARNE_LEAO_ACCOUNT_CODE).append(';')
+                    .append(row.total().setScale(2).toPlainString().replace('.', ',')).append(';')
+                    .append("Atendimento psicologico - ").append(sanitize(row.payerName())).append(';')
+                    .append(row.payerCpf()).append(';')
+                    .append(row.payerCpf())
+                    .append("\r\n");
+        }
+        return csv.toString();
+    }
+
+    /** Remove do cache o mês afetado por uma alteração de pagamento retroativa. */
+    public void evictClosedMonth(Long psychologistId, LocalDate paymentDate) {
+        if (psychologistId == null || paymentDate == null) {
+            return;
+        }
+        YearMonth month = YearMonth.from(paymentDate);
+        if (!month.isBefore(YearMonth.now())) {
+            return;
+        }
+        String key = cacheKey(psychologistId, month);
+        afterCommit(() -> reportCache.evict(key));
+        log.info("Relatório de rendimentos de {} invalidado para psicólogo ID: {}", month, psychologistId);
+    }
+
+    /**
+     * Remove do cache todos os meses do psicólogo. Usado quando o nome ou o CPF de um pagador
+     * muda: os relatórios agrupam e exibem esses campos em qualquer mês em que ele pagou.
+     */
+    public void evictAllMonths(Long psychologistId) {
+        if (psychologistId == null) {
+            return;
+        }
+        String prefix = psychologistId + ":";
+        afterCommit(() -> {
+            if (reportCache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> cache) {
+                cache.asMap().keySet().removeIf(key -> key.toString().startsWith(prefix));
+            } else {
+                reportCache.clear();
+            }
+        });
+        log.info("Relatórios de rendimentos invalidados para psicólogo ID: {}", psychologistId);
+    }
+
+    /** A remoção só acontece após o commit para que uma leitura concorrente não recoloque dados antigos. */
+    private void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private String cacheKey(Long psychologistId, YearMonth month) {
+        return psychologistId + ":" + month;
+    }
+
+    private String sanitize(String value) {
+        return value == null ? "" : value.replace(';', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
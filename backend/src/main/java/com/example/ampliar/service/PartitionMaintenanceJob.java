@@ -0,0 +1,286 @@
+package com.example.ampliar.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.ampliar.model.enums.VersionedResource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Manutenção das partições anuais de {@code appointment} e {@code payment} (migration V4).
+ *
+ * <p>Cria com antecedência as partições dos próximos anos, para que nada caia na partição
+ * default, e arquiva os anos além da retenção: a partição é destacada, exportada em CSV gzip
+ * (junto com as linhas das tabelas de vínculo que apontam para ela) e só então removida. Remover
+ * um ano inteiro custa um DROP TABLE, sem DELETE em massa nem inchaço na tabela ativa.
+ */
+@Component
+@Slf4j
+public class PartitionMaintenanceJob {
+
+    private static final List<PartitionedTable> TABLES = List.of(
+            new PartitionedTable("appointment", "appointment_date", VersionedResource.APPOINTMENTS,
+                    "SELECT DISTINCT psychologist_id FROM %s",
+                    List.of(
+                            new LinkTable("appointment_patients", "appointment_id", null),
+                            new LinkTable("payment_allocation", "appointment_id",
+                                    new OtherSide("payment", "payment_date", "payment_id")))),
+            new PartitionedTable("payment", "payment_date", VersionedResource.PAYMENTS,
+                    "SELECT DISTINCT py.psychologist_id FROM %s p JOIN payer py ON py.id = p.payer_id",
+                    List.of(
+                            new LinkTable("payment_allocation", "payment_id",
+                                    new OtherSide("appointment", "appointment_date", "appointment_id"))))
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ResourceVersionService resourceVersionService;
+    private final int yearsAhead;
+    private final int retentionYears;
+    private final Path archiveDirectory;
+    private final Duration lockTimeout;
+
+    public PartitionMaintenanceJob(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ResourceVersionService resourceVersionService,
+            @Value("${partition.maintenance.years-ahead:1}") int yearsAhead,
+            @Value("${partition.archive.retention-years:5}") int retentionYears,
+            @Value("${partition.archive.directory:archive}") Path archiveDirectory,
+            @Value("${partition.archive.lock-timeout:PT5S}") Duration lockTimeout
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.resourceVersionService = resourceVersionService;
+        this.yearsAhead = yearsAhead;
+        this.retentionYears = retentionYears;
+        this.archiveDirectory = archiveDirectory;
+        this.lockTimeout = lockTimeout;
+    }
+
+    /**
+     * Garante as partições do ano corrente aos próximos {@code years-ahead} anos e as dos anos
+     * ainda retidos que tenham linhas na partição default (datas lançadas longe no futuro ou
+     * no passado). Roda na subida e a cada intervalo; a função no banco é idempotente.
+     */
+    @Scheduled(fixedDelayString = "${partition.maintenance.interval:PT6H}")
+    public void ensurePartitions() {
+        int currentYear = Year.now().getValue();
+        int oldestKeptYear = currentYear - retentionYears;
+
+        for (PartitionedTable table : TABLES) {
+            Set<Integer> years = new TreeSet<>();
+            for (int year = currentYear; year <= currentYear + yearsAhead; year++) {
+                years.add(year);
+            }
+            years.addAll(jdbcTemplate.queryForList(
+                    "SELECT DISTINCT extract(YEAR FROM " + table.keyColumn() + ")::INT FROM " + table.name() + "_default",
+                    Integer.class));
+            years.removeIf(year -> year < oldestKeptYear);
+
+            for (Integer year : years) {
+                Boolean created = jdbcTemplate.queryForObject(
+                        "SELECT ensure_yearly_partition(?, ?, ?)", Boolean.class, table.name(), table.keyColumn(), year);
+                if (Boolean.TRUE.equals(created)) {
+                    log.info("Partição {}_y{} criada", table.name(), year);
+                }
+            }
+        }
+    }
+
+    /**
+     * Arquiva as partições de anos anteriores à retenção. A conexão do job segura um advisory
+     * lock de sessão, para que só uma instância arquive por vez; a remoção dos vínculos, o DROP
+     * e o incremento das versões rodam juntos em uma transação. Uma execução interrompida é
+     * retomada na próxima: partições já destacadas continuam sendo encontradas e o arquivo é
+     * regravado antes do DROP. Linhas antigas que ficaram na partição default (o
+     * {@link #ensurePartitions()} ignora anos além da retenção) ganham antes a partição do seu
+     * ano e saem com ela.
+     */
+    @Scheduled(cron = "${partition.archive.cron:0 30 3 1 * *}")
+    public void archiveOldPartitions() {
+        int oldestKeptYear = Year.now().getValue() - retentionYears;
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+                log.debug("Arquivamento de partições já em execução em outra instância");
+                return null;
+            }
+            try {
+                for (PartitionedTable table : TABLES) {
+                    partitionOldDefaultRows(table, oldestKeptYear);
+                    for (OldPartition partition : partitionsBefore(connection, table, oldestKeptYear)) {
+                        archive(connection, table, partition, oldestKeptYear);
+                    }
+                }
+            } finally {
+                advisoryLock(connection, "pg_advisory_unlock");
+            }
+            return null;
+        });
+    }
+
+    /** Move para a partição do seu ano as linhas da default anteriores à retenção. */
+    private void partitionOldDefaultRows(PartitionedTable table, int oldestKeptYear) {
+        List<Integer> years = jdbcTemplate.queryForList(
+                "SELECT DISTINCT extract(YEAR FROM " + table.keyColumn() + ")::INT FROM " + table.name() + "_default"
+                        + " WHERE " + table.keyColumn() + " < ?",
+                Integer.class, LocalDate.of(oldestKeptYear, 1, 1));
+        for (Integer year : years) {
+            jdbcTemplate.queryForObject(
+                    "SELECT ensure_yearly_partition(?, ?, ?)", Boolean.class, table.name(), table.keyColumn(), year);
+            log.info("Linhas de {} em {}_default movidas para {}_y{} para arquivamento",
+                    year, table.name(), table.name(), year);
+        }
+    }
+
+    private void archive(Connection connection, PartitionedTable table, OldPartition partition, int oldestKeptYear)
+            throws SQLException {
+        log.info("Arquivando partição {} (anexada: {})", partition.name(), partition.attached());
+        LocalDate cutoff = LocalDate.of(oldestKeptYear, 1, 1);
+
+        if (partition.attached()) {
+            // DETACH precisa de lock exclusivo na tabela pai; sem o timeout, uma transação longa
+            // enfileiraria todas as leituras atrás dele.
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET lock_timeout = " + lockTimeout.toMillis());
+                statement.execute("ALTER TABLE " + table.name() + " DETACH PARTITION " + partition.name());
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("RESET lock_timeout");
+                }
+            }
+        }
+
+        // Detached, a partição não é mais visível pela tabela pai: nada novo passa a apontar para ela.
+        long rows = export(connection, "COPY " + partition.name() + " TO STDOUT WITH (FORMAT csv, HEADER)",
+                partition.name());
+        for (LinkTable link : table.links()) {
+            export(connection, "COPY (SELECT l.* " + archivedLinks(link, partition, cutoff)
+                            + ") TO STDOUT WITH (FORMAT csv, HEADER)",
+                    partition.name() + "." + link.name());
+        }
+
+        // As linhas somem das listagens: os ETags dos psicólogos afetados mudam no mesmo commit do DROP.
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> psychologists = jdbcTemplate.queryForList(
+                    table.psychologistsSql().formatted(partition.name()), Long.class);
+            psychologists.forEach(id -> resourceVersionService.markChanged(id, table.resource()));
+            for (LinkTable link : table.links()) {
+                jdbcTemplate.update("DELETE " + archivedLinks(link, partition, cutoff));
+            }
+            jdbcTemplate.execute("DROP TABLE " + partition.name());
+        });
+        log.info("Partição {} arquivada em {} ({} linhas)", partition.name(), archiveDirectory, rows);
+    }
+
+    /**
+     * Linhas de vínculo da partição que saem junto com ela: todas, ou, quando o vínculo aponta
+     * também para outra tabela particionada, só as cujo outro lado já está além da retenção.
+     */
+    private String archivedLinks(LinkTable link, OldPartition partition, LocalDate cutoff) {
+        String sql = "FROM " + link.name() + " l WHERE l." + link.foreignKey()
+                + " IN (SELECT id FROM " + partition.name() + ")";
+        OtherSide other = link.otherSide();
+        if (other != null) {
+            sql += " AND NOT EXISTS (SELECT 1 FROM " + other.table() + " o WHERE o.id = l." + other.foreignKey()
+                    + " AND o." + other.keyColumn() + " >= DATE '" + cutoff + "')";
+        }
+        return sql;
+    }
+
+    /**
+     * Grava o resultado do COPY em {@code <arquivo>.csv.gz}. O arquivo é escrito ao lado e
+     * movido no fim, para que um arquivo pela metade nunca fique com o nome final.
+     */
+    private long export(Connection connection, String copySql, String fileName) throws SQLException {
+        Path target = archiveDirectory.resolve(fileName + ".csv.gz");
+        Path partial = archiveDirectory.resolve(fileName + ".csv.gz.tmp");
+        try {
+            Files.createDirectories(archiveDirectory);
+            long rows;
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial))) {
+                rows = connection.unwrap(PGConnection.class).getCopyAPI().copyOut(copySql, out);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao exportar " + fileName + " para " + archiveDirectory, e);
+        }
+    }
+
+    private List<OldPartition> partitionsBefore(Connection connection, PartitionedTable table, int oldestKeptYear)
+            throws SQLException {
+        String sql = """
+                SELECT c.relname, EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid) AS attached
+                FROM pg_class c
+                WHERE c.relkind = 'r'
+                  AND c.relnamespace = current_schema()::regnamespace
+                  AND c.relname ~ ('^' || ? || '_y[0-9]{4}$')
+                  AND substring(c.relname FROM '[0-9]{4}$')::INT < ?
+                ORDER BY c.relname
+                """;
+        List<OldPartition> partitions = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, table.name());
+            statement.setInt(2, oldestKeptYear);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    partitions.add(new OldPartition(rs.getString(1), rs.getBoolean(2)));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT " + function + "(hashtext('partition-archive'))")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    /**
+     * Tabela particionada por ano, o recurso versionado das suas linhas, a consulta dos psicólogos
+     * donos das linhas de uma partição e as tabelas de vínculo que guardam o ID das suas linhas.
+     */
+    private record PartitionedTable(String name, String keyColumn, VersionedResource resource,
+                                    String psychologistsSql, List<LinkTable> links) {
+    }
+
+    /** Tabela de vínculo; {@code otherSide} é a outra tabela particionada a que ela aponta, se houver. */
+    private record LinkTable(String name, String foreignKey, OtherSide otherSide) {
+    }
+
+    private record OtherSide(String table, String keyColumn, String foreignKey) {
+    }
+
+    private record OldPartition(String name, boolean attached) {
+    }
+}
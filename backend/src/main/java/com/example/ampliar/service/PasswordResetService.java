@@ -1,18 +1,20 @@
 package com.example.ampliar.service;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.ampliar.exception.BusinessRuleException;
+import com.example.ampliar.exception.ErrorCode;
+import com.example.ampliar.exception.ResourceNotFoundException;
 import com.example.ampliar.model.PasswordResetTokenModel;
 import com.example.ampliar.model.PsychologistModel;
 import com.example.ampliar.repository.PasswordResetTokenRepository;
 import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.security.PasswordHasher;
+import com.example.ampliar.security.TokenHashing;
 
-import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -21,30 +23,31 @@ public class PasswordResetService {
 
     private final PsychologistRepository psychologistRepository;
     private final PasswordResetTokenRepository tokenRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final RefreshTokenService refreshTokenService;
 
     public PasswordResetService(
             PsychologistRepository psychologistRepository,
             PasswordResetTokenRepository tokenRepository,
-            PasswordEncoder passwordEncoder
+            PasswordHasher passwordHasher,
+            RefreshTokenService refreshTokenService
     ) {
         this.psychologistRepository = psychologistRepository;
         this.tokenRepository = tokenRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Transactional
     public String createPasswordResetToken(String email) {
         log.info("Gerando token de redefinição de senha para: {}", email);
-        PsychologistModel psychologist = psychologistRepository.findByEmailAndDeletedAtIsNull(email)
-                .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
+        PsychologistModel psychologist = psychologistRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PSYCHOLOGIST_NOT_FOUND, "Usuário não encontrado"));
 
-        tokenRepository.deleteByExpiresAtBefore(LocalDateTime.now());
-
-        String token = UUID.randomUUID().toString();
+        String token = TokenHashing.newToken();
         LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
 
-        PasswordResetTokenModel resetToken = new PasswordResetTokenModel(token, psychologist, expiresAt);
+        PasswordResetTokenModel resetToken = new PasswordResetTokenModel(TokenHashing.sha256Hex(token), psychologist, expiresAt);
         tokenRepository.save(resetToken);
 
         log.info("Token de redefinição gerado para usuário {} expira em {}", psychologist.getEmail(), expiresAt);
@@ -54,20 +57,27 @@ public class PasswordResetService {
     @Transactional
     public void resetPassword(String token, String newPassword) {
         log.info("Processando redefinição de senha por token");
-        PasswordResetTokenModel tokenModel = tokenRepository.findByTokenAndUsedFalse(token)
-                .orElseThrow(() -> new EntityNotFoundException("Token inválido"));
+        PasswordResetTokenModel tokenModel = tokenRepository.findByTokenHashAndUsedFalse(TokenHashing.sha256Hex(token))
+                .orElseThrow(() -> new BusinessRuleException(ErrorCode.INVALID_RESET_TOKEN, "Token inválido"));
 
-        if (tokenModel.getExpiresAt().isBefore(LocalDateTime.now())) {
-            log.warn("Token expirado para usuário {}", tokenModel.getPsychologist().getEmail());
-            throw new IllegalStateException("Token expirado");
+        LocalDateTime now = LocalDateTime.now();
+        if (tokenModel.getExpiresAt().isBefore(now)) {
+            log.warn("Token expirado para psicólogo ID: {}", tokenModel.getPsychologist().getId());
+            throw new BusinessRuleException(ErrorCode.INVALID_RESET_TOKEN, "Token expirado");
+        }
+        // A leitura acima não trava a linha: o token é consumido por um UPDATE condicional antes
+        // de a senha mudar, para que duas requisições simultâneas não usem o mesmo token.
+        if (tokenRepository.markUsed(tokenModel.getId(), now) == 0) {
+            log.warn("Token já consumido para psicólogo ID: {}", tokenModel.getPsychologist().getId());
+            throw new BusinessRuleException(ErrorCode.INVALID_RESET_TOKEN, "Token inválido");
         }
 
-        PsychologistModel psychologist = tokenModel.getPsychologist();
-        psychologist.setPassword(passwordEncoder.encode(newPassword));
+        // Conta excluída depois da emissão do token: o psicólogo não é mais encontrado (@SQLRestriction).
+        PsychologistModel psychologist = psychologistRepository.findById(tokenModel.getPsychologist().getId())
+                .orElseThrow(() -> new BusinessRuleException(ErrorCode.INVALID_RESET_TOKEN, "Token inválido"));
+        psychologist.setPassword(passwordHasher.encode(newPassword));
         psychologistRepository.save(psychologist);
+        refreshTokenService.revokeAllSessions(psychologist.getId());
         log.info("Senha redefinida para usuário {}", psychologist.getEmail());
-
-        tokenModel.setUsed(true);
-        tokenRepository.save(tokenModel);
     }
 }
@@ -0,0 +1,52 @@
+package com.example.ampliar.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.ampliar.repository.PasswordResetTokenRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limpeza periódica dos tokens de redefinição de senha usados ou expirados, fora do caminho
+ * do "esqueci minha senha". Cada lote roda na sua própria transação para não segurar locks
+ * nem gerar um DELETE gigante quando a tabela acumula.
+ */
+@Component
+@Slf4j
+public class PasswordResetTokenSweeper {
+
+    private final PasswordResetTokenRepository tokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public PasswordResetTokenSweeper(
+            PasswordResetTokenRepository tokenRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${password-reset.sweeper.batch-size:500}") int batchSize
+    ) {
+        this.tokenRepository = tokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${password-reset.sweeper.interval:PT15M}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        int removed;
+        do {
+            Integer batch = transactionTemplate.execute(status -> tokenRepository.deleteUsedOrExpiredBatch(now, batchSize));
+            removed = batch != null ? batch : 0;
+            total += removed;
+        } while (removed == batchSize);
+
+        if (total > 0) {
+            log.info("Removidos {} tokens de redefinição de senha usados ou expirados", total);
+        }
+    }
+}
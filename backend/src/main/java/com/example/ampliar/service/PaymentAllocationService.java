@@ -0,0 +1,162 @@
+package com.example.ampliar.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.ampliar.dto.allocation.AutoAllocationRequestDTO;
+import com.example.ampliar.dto.allocation.PayerCreditDTO;
+import com.example.ampliar.dto.allocation.PaymentAllocationCreateDTO;
+import com.example.ampliar.dto.allocation.PaymentAllocationDTO;
+import com.example.ampliar.exception.BusinessRuleException;
+import com.example.ampliar.exception.ErrorCode;
+import com.example.ampliar.exception.ResourceNotFoundException;
+import com.example.ampliar.mapper.PaymentAllocationDTOMapper;
+import com.example.ampliar.model.AppointmentModel;
+import com.example.ampliar.model.PaymentAllocationModel;
+import com.example.ampliar.model.PaymentModel;
+import com.example.ampliar.model.enums.AppointmentStatus;
+import com.example.ampliar.model.enums.VersionedResource;
+import com.example.ampliar.repository.AppointmentRepository;
+import com.example.ampliar.repository.PayerRepository;
+import com.example.ampliar.repository.PaymentAllocationRepository;
+import com.example.ampliar.repository.PaymentRepository;
+import com.example.ampliar.security.CurrentPsychologist;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class PaymentAllocationService {
+
+    private final PaymentAllocationRepository allocationRepository;
+    private final PaymentRepository paymentRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PayerRepository payerRepository;
+    private final CurrentPsychologist currentPsychologist;
+    private final PaymentAllocationDTOMapper allocationDTOMapper;
+    private final ResourceVersionService resourceVersionService;
+
+    public PaymentAllocationService(
+            PaymentAllocationRepository allocationRepository,
+            PaymentRepository paymentRepository,
+            AppointmentRepository appointmentRepository,
+            PayerRepository payerRepository,
+            CurrentPsychologist currentPsychologist,
+            PaymentAllocationDTOMapper allocationDTOMapper,
+            ResourceVersionService resourceVersionService
+    ) {
+        this.allocationRepository = allocationRepository;
+        this.paymentRepository = paymentRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.payerRepository = payerRepository;
+        this.currentPsychologist = currentPsychologist;
+        this.allocationDTOMapper = allocationDTOMapper;
+        this.resourceVersionService = resourceVersionService;
+    }
+
+    /**
+     * Aloca parte (ou todo o saldo restante) de um pagamento a um agendamento. O pagamento é
+     * bloqueado durante a operação para que alocações concorrentes não ultrapassem o valor pago.
+     */
+    @Transactional
+    public PaymentAllocationModel allocate(PaymentModel lockedPayment, AppointmentModel appointment, BigDecimal requestedAmount) {
+        if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
+            throw new BusinessRuleException(ErrorCode.ALLOCATION_NOT_ALLOWED, "Não é possível alocar pagamento a um agendamento cancelado");
+        }
+        if (!lockedPayment.getPayer().getPsychologist().getId().equals(appointment.getPsychologist().getId())) {
+            throw new BusinessRuleException(ErrorCode.ALLOCATION_NOT_ALLOWED, "O pagamento pertence a outro psicólogo");
+        }
+
+        BigDecimal remaining = lockedPayment.getValor().subtract(allocationRepository.sumAmountByPaymentId(lockedPayment.getId()));
+        BigDecimal amount = requestedAmount != null ? requestedAmount : remaining;
+        if (amount.compareTo(BigDecimal.ZERO) <= 0 || amount.compareTo(remaining) > 0) {
+            log.warn("Saldo insuficiente no pagamento ID: {} - solicitado: {}, disponível: {}",
+                    lockedPayment.getId(), amount, remaining);
+            throw new BusinessRuleException(ErrorCode.INSUFFICIENT_PAYMENT_BALANCE, "Saldo insuficiente no pagamento");
+        }
+
+        PaymentAllocationModel allocation = appointment.getAllocations().stream()
+                .filter(a -> a.getPayment().getId().equals(lockedPayment.getId()))
+                .findFirst()
+                .orElse(null);
+        if (allocation != null) {
+            allocation.setAmount(allocation.getAmount().add(amount));
+        } else {
+            allocation = appointment.allocate(lockedPayment, amount);
+        }
+        // O status de pagamento é exibido na listagem de agendamentos.
+        resourceVersionService.markChanged(appointment.getPsychologist().getId(), VersionedResource.APPOINTMENTS);
+        log.info("Pagamento ID: {} alocado ao agendamento ID: {} - valor: {}",
+                lockedPayment.getId(), appointment.getId(), amount);
+        return allocationRepository.save(allocation);
+    }
+
+    @Transactional
+    public PaymentAllocationDTO createAllocation(Long paymentId, PaymentAllocationCreateDTO dto) {
+        log.info("Alocando pagamento ID: {} ao agendamento ID: {}", paymentId, dto.appointmentId());
+
+        PaymentModel payment = getPaymentForUpdateOrThrow(paymentId);
+        AppointmentModel appointment = appointmentRepository.findByIdAndPsychologistId(dto.appointmentId(), currentPsychologist.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.APPOINTMENT_NOT_FOUND, "Agendamento não encontrado"));
+
+        return allocationDTOMapper.apply(allocate(payment, appointment, dto.amount()));
+    }
+
+    @Transactional
+    public List<PaymentAllocationDTO> autoAllocate(Long paymentId, AutoAllocationRequestDTO dto) {
+        log.info("Alocação automática do pagamento ID: {} para paciente ID: {}", paymentId, dto.patientId());
+
+        PaymentModel payment = getPaymentForUpdateOrThrow(paymentId);
+        int affected = allocationRepository.allocateToOldestUnpaid(
+                payment.getId(),
+                payment.getPayer().getPsychologist().getId(),
+                dto.patientId(),
+                dto.sessionPrice()
+        );
+        resourceVersionService.markChanged(payment.getPayer().getPsychologist().getId(), VersionedResource.APPOINTMENTS);
+        log.info("Alocação automática concluída para pagamento ID: {} - {} sessões", paymentId, affected);
+
+        return allocationRepository.findByPaymentIdOrderByAllocatedAtAsc(paymentId)
+                .stream()
+                .map(allocationDTOMapper)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<PaymentAllocationDTO> getAllocations(Long paymentId) {
+        log.debug("Buscando alocações do pagamento ID: {}", paymentId);
+        if (!paymentRepository.existsByIdAndPayerPsychologistId(paymentId, currentPsychologist.getId())) {
+            throw new ResourceNotFoundException(ErrorCode.PAYMENT_NOT_FOUND, "Pagamento não encontrado");
+        }
+        return allocationRepository.findDTOByPaymentId(paymentId);
+    }
+
+    @Transactional
+    public void deleteAllocation(Long paymentId, Long appointmentId) {
+        log.info("Removendo alocação do pagamento ID: {} no agendamento ID: {}", paymentId, appointmentId);
+        PaymentAllocationModel allocation = allocationRepository
+                .findByPaymentIdAndAppointmentIdAndAppointmentPsychologistId(paymentId, appointmentId, currentPsychologist.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.ALLOCATION_NOT_FOUND, "Alocação não encontrada"));
+        allocation.getAppointment().getAllocations().remove(allocation);
+        resourceVersionService.markChanged(allocation.getAppointment().getPsychologist().getId(), VersionedResource.APPOINTMENTS);
+    }
+
+    @Transactional(readOnly = true)
+    public PayerCreditDTO getPayerCredit(Long payerId) {
+        log.debug("Consultando crédito não alocado do pagador ID: {}", payerId);
+
+        Long psychologistId = currentPsychologist.getId();
+        payerRepository.findByIdAndPsychologistIdAndDeletedAtIsNull(payerId, psychologistId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PAYER_NOT_FOUND, "Pagador não encontrado"));
+
+        return new PayerCreditDTO(payerId, allocationRepository.findUnallocatedCreditByPayerId(payerId));
+    }
+
+    private PaymentModel getPaymentForUpdateOrThrow(Long paymentId) {
+        return paymentRepository.findByIdAndPsychologistIdForUpdate(paymentId, currentPsychologist.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PAYMENT_NOT_FOUND, "Pagamento não encontrado"));
+    }
+}
@@ -3,13 +3,19 @@ package com.example.ampliar.service;
 import com.example.ampliar.dto.payment.PaymentCreateDTO;
 import com.example.ampliar.dto.payment.PaymentDTO;
 import com.example.ampliar.dto.payment.PaymentUpdateDTO;
+import com.example.ampliar.exception.ConflictException;
+import com.example.ampliar.exception.ErrorCode;
+import com.example.ampliar.exception.ResourceNotFoundException;
 import com.example.ampliar.mapper.PaymentDTOMapper;
+import com.example.ampliar.metrics.BusinessMetrics;
 import com.example.ampliar.model.PayerModel;
 import com.example.ampliar.model.PaymentModel;
-import com.example.ampliar.repository.AppointmentRepository;
+import com.example.ampliar.model.enums.VersionedResource;
 import com.example.ampliar.repository.PayerRepository;
+import com.example.ampliar.repository.PaymentAllocationRepository;
 import com.example.ampliar.repository.PaymentRepository;
-import jakarta.persistence.EntityNotFoundException;
+import com.example.ampliar.security.CurrentPsychologist;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,25 +28,41 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final PayerRepository payerRepository;
+    private final PaymentAllocationRepository paymentAllocationRepository;
     private final PaymentDTOMapper paymentDTOMapper;
-    private final AppointmentRepository appointmentRepository;
+    private final IncomeReportService incomeReportService;
+    private final ReceiptNumberService receiptNumberService;
+    private final BusinessMetrics businessMetrics;
+    private final CurrentPsychologist currentPsychologist;
+    private final ResourceVersionService resourceVersionService;
 
     public PaymentService(
             PaymentRepository paymentRepository,
             PayerRepository payerRepository,
+            PaymentAllocationRepository paymentAllocationRepository,
             PaymentDTOMapper paymentDTOMapper,
-            AppointmentRepository appointmentRepository
+            IncomeReportService incomeReportService,
+            ReceiptNumberService receiptNumberService,
+            BusinessMetrics businessMetrics,
+            CurrentPsychologist currentPsychologist,
+            ResourceVersionService resourceVersionService
     ) {
         this.paymentRepository = paymentRepository;
         this.payerRepository = payerRepository;
+        this.paymentAllocationRepository = paymentAllocationRepository;
         this.paymentDTOMapper = paymentDTOMapper;
-        this.appointmentRepository = appointmentRepository;
+        this.incomeReportService = incomeReportService;
+        this.receiptNumberService = receiptNumberService;
+        this.businessMetrics = businessMetrics;
+        this.currentPsychologist = currentPsychologist;
+        this.resourceVersionService = resourceVersionService;
     }
 
     @Transactional
     public PaymentDTO createPayment(PaymentCreateDTO dto) {
         log.info("Criando pagamento no valor de {} para pagador ID: {}", dto.valor(), dto.payerId());
-        
+        Timer.Sample sample = businessMetrics.startTimer();
+
         try {
             PayerModel payer = getPayerOrThrow(dto.payerId());
 
@@ -48,17 +70,19 @@ public class PaymentService {
             payment.setValor(dto.valor());
             payment.setPaymentDate(dto.paymentDate());
             payment.setPayer(payer);
+            payment.setReceiptNumber(receiptNumberService.nextReceiptNumber(payer.getPsychologist().getId()));
 
             PaymentDTO result = paymentDTOMapper.apply(paymentRepository.save(payment));
+            incomeReportService.evictClosedMonth(payer.getPsychologist().getId(), payment.getPaymentDate());
+            resourceVersionService.markChanged(payer.getPsychologist().getId(), VersionedResource.PAYMENTS);
             log.info("Pagamento criado com sucesso ID: {}", result.id());
+            businessMetrics.recordPaymentCreation(sample, BusinessMetrics.SUCCESS);
+            businessMetrics.paymentAmount(payment.getValor());
             return result;
             
-        } catch (EntityNotFoundException e) {
-            log.error("Pagador não encontrado para criar pagamento ID: {}", dto.payerId());
+        } catch (RuntimeException e) {
+            businessMetrics.recordPaymentCreation(sample, BusinessMetrics.outcomeOf(e));
             throw e;
-        } catch (Exception e) {
-            log.error("Erro inesperado ao criar pagamento", e);
-            throw new RuntimeException("Erro interno ao criar pagamento", e);
         }
     }
 
@@ -66,113 +90,80 @@ public class PaymentService {
     public PaymentDTO updatePayment(Long id, PaymentUpdateDTO dto) {
         log.info("Atualizando pagamento ID: {}", id);
         
-        try {
-            PaymentModel existing = paymentRepository.findById(id)
-                    .orElseThrow(() -> {
-                        log.error("Pagamento não encontrado para atualização ID: {}", id);
-                        return new EntityNotFoundException("Pagamento não encontrado");
-                    });
-
-            if (dto.valor() != null) {
-                existing.setValor(dto.valor());
-                log.debug("Valor do pagamento atualizado para: {}", dto.valor());
-            }
-            if (dto.paymentDate() != null) {
-                existing.setPaymentDate(dto.paymentDate());
-                log.debug("Data do pagamento atualizada para: {}", dto.paymentDate());
-            }
-            if (dto.payerId() != null) {
-                existing.setPayer(getPayerOrThrow(dto.payerId()));
-                log.debug("Pagador do pagamento atualizado para ID: {}", dto.payerId());
-            }
-
-            PaymentDTO result = paymentDTOMapper.apply(paymentRepository.save(existing));
-            log.info("Pagamento atualizado com sucesso ID: {}", id);
-            return result;
-            
-        } catch (EntityNotFoundException e) {
-            log.error("Pagamento não encontrado para atualização ID: {}", id);
-            throw e;
-        } catch (Exception e) {
-            log.error("Erro ao atualizar pagamento ID: {}", id, e);
-            throw new RuntimeException("Erro interno ao atualizar pagamento", e);
+        PaymentModel existing = getPaymentOrThrow(id);
+        resourceVersionService.markChanged(existing.getPayer().getPsychologist().getId(), VersionedResource.PAYMENTS);
+        incomeReportService.evictClosedMonth(existing.getPayer().getPsychologist().getId(), existing.getPaymentDate());
+
+        if (dto.valor() != null) {
+            existing.setValor(dto.valor());
+            log.debug("Valor do pagamento atualizado para: {}", dto.valor());
+        }
+        if (dto.paymentDate() != null) {
+            existing.setPaymentDate(dto.paymentDate());
+            log.debug("Data do pagamento atualizada para: {}", dto.paymentDate());
+        }
+        if (dto.payerId() != null) {
+            existing.setPayer(getPayerOrThrow(dto.payerId()));
+            log.debug("Pagador do pagamento atualizado para ID: {}", dto.payerId());
         }
+
+        PaymentDTO result = paymentDTOMapper.apply(paymentRepository.save(existing));
+        incomeReportService.evictClosedMonth(existing.getPayer().getPsychologist().getId(), existing.getPaymentDate());
+        resourceVersionService.markChanged(existing.getPayer().getPsychologist().getId(), VersionedResource.PAYMENTS);
+        log.info("Pagamento atualizado com sucesso ID: {}", id);
+        return result;
     }
 
+    /**
+     * Só pagamentos sem recibo podem ser excluídos: a numeração dos recibos não tem lacunas, e um
+     * recibo emitido é corrigido editando o pagamento, que mantém o número.
+     */
     @Transactional
     public void deletePayment(Long id) {
         log.info("Excluindo pagamento ID: {}", id);
         
-        try {
-            if (!paymentRepository.existsById(id)) {
-                log.warn("Tentativa de excluir pagamento inexistente ID: {}", id);
-                throw new EntityNotFoundException("Pagamento não encontrado");
-            }
-
-            appointmentRepository.findByPayment_Id(id).ifPresent(appointment -> {
-                appointment.setPayment(null);
-                appointmentRepository.save(appointment);
-                log.debug("Referência ao pagamento removida do agendamento ID: {}", appointment.getId());
-            });
-
-            paymentRepository.deleteById(id);
-            log.info("Pagamento excluído com sucesso ID: {}", id);
-            
-        } catch (EntityNotFoundException e) {
-            log.warn("Pagamento não encontrado para exclusão ID: {}", id);
-            throw e;
-        } catch (Exception e) {
-            log.error("Erro ao excluir pagamento ID: {}", id, e);
-            throw new RuntimeException("Erro interno ao excluir pagamento", e);
+        PaymentModel existing = getPaymentOrThrow(id);
+        if (existing.getReceiptNumber() != null) {
+            log.warn("Tentativa de excluir o pagamento ID: {} com o recibo nº {}", id, existing.getReceiptNumber());
+            throw new ConflictException(ErrorCode.RECEIPT_ALREADY_ISSUED, "O pagamento já tem recibo emitido e não pode ser excluído");
         }
+        incomeReportService.evictClosedMonth(existing.getPayer().getPsychologist().getId(), existing.getPaymentDate());
+
+        // As alocações só são removidas depois que o pagamento foi encontrado no escopo do psicólogo.
+        paymentAllocationRepository.deleteByPaymentId(existing.getId());
+        paymentRepository.delete(existing);
+        resourceVersionService.markChanged(existing.getPayer().getPsychologist().getId(), VersionedResource.PAYMENTS);
+        log.info("Pagamento excluído com sucesso ID: {}", id);
     }
 
     @Transactional(readOnly = true)
     public PaymentDTO getPaymentById(Long id) {
         log.debug("Buscando pagamento por ID: {}", id);
         
-        try {
-            PaymentDTO result = paymentRepository.findById(id)
-                    .map(paymentDTOMapper)
-                    .orElseThrow(() -> {
-                        log.warn("Pagamento não encontrado ID: {}", id);
-                        return new EntityNotFoundException("Pagamento não encontrado");
-                    });
-            log.debug("Pagamento encontrado ID: {}", id);
-            return result;
-            
-        } catch (EntityNotFoundException e) {
-            log.warn("Pagamento não encontrado na consulta ID: {}", id);
-            throw e;
-        } catch (Exception e) {
-            log.error("Erro ao buscar pagamento ID: {}", id, e);
-            throw new RuntimeException("Erro interno ao buscar pagamento", e);
-        }
+        PaymentDTO result = paymentRepository.findDTOByIdAndPsychologistId(id, currentPsychologist.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PAYMENT_NOT_FOUND, "Pagamento não encontrado"));
+        log.debug("Pagamento encontrado ID: {}", id);
+        return result;
     }
 
     @Transactional(readOnly = true)
     public List<PaymentDTO> getAllPayments() {
         log.debug("Buscando todos os pagamentos");
         
-        try {
-            List<PaymentDTO> result = paymentRepository.findAll()
-                    .stream()
-                    .map(paymentDTOMapper)
-                    .toList();
-            log.debug("Encontrados {} pagamentos", result.size());
-            return result;
-        } catch (Exception e) {
-            log.error("Erro ao buscar todos os pagamentos", e);
-            throw new RuntimeException("Erro interno ao buscar pagamentos", e);
-        }
+        List<PaymentDTO> result = paymentRepository.findAllDTOByPsychologistId(currentPsychologist.getId());
+        log.debug("Encontrados {} pagamentos", result.size());
+        return result;
+    }
+
+    /** Pagamento de outro psicólogo responde 404, como um ID inexistente. */
+    private PaymentModel getPaymentOrThrow(Long id) {
+        return paymentRepository.findByIdAndPsychologistId(id, currentPsychologist.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PAYMENT_NOT_FOUND, "Pagamento não encontrado"));
     }
 
     private PayerModel getPayerOrThrow(Long id) {
         log.debug("Validando existência do pagador ID: {}", id);
-        return payerRepository.findByIdAndDeletedAtIsNull(id)
-                .orElseThrow(() -> {
-                    log.error("Pagador não encontrado ID: {}", id);
-                    return new EntityNotFoundException("Pagador não encontrado");
-                });
+        return payerRepository.findByIdAndPsychologistIdAndDeletedAtIsNull(id, currentPsychologist.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PAYER_NOT_FOUND, "Pagador não encontrado"));
     }
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package com.example.ampliar.service;
 
-import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 
 import com.example.ampliar.model.PsychologistModel;
 import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.security.PsychologistPrincipal;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -33,27 +34,19 @@ public class PsychologistDetailsService implements UserDetailsService {
         String normalizedEmail = email.trim().toLowerCase();
         log.debug("Email normalizado para busca: {}", normalizedEmail);
 
-        try {
-            PsychologistModel psychologist = psychologistRepository.findByEmailAndDeletedAtIsNull(normalizedEmail)
-                    .orElseThrow(() -> {
-                        log.warn("Psicólogo não encontrado com o email: {}", normalizedEmail);
-                        return new UsernameNotFoundException("Psicólogo não encontrado com o email: " + normalizedEmail);
-                    });
-
-            log.info("Usuário autenticado com sucesso: {}", normalizedEmail);
-
-            return User.builder()
-                    .username(psychologist.getEmail())
-                    .password(psychologist.getPassword())
-                    .roles("USER")
-                    .build();
-
-        } catch (UsernameNotFoundException e) {
-            log.error("Falha na autenticação - usuário não encontrado: {}", normalizedEmail);
-            throw e;
-        } catch (Exception e) {
-            log.error("Erro inesperado durante a autenticação para: {}", normalizedEmail, e);
-            throw new UsernameNotFoundException("Erro interno durante a autenticação", e);
-        }
+        PsychologistModel psychologist = psychologistRepository.findByEmail(normalizedEmail)
+                .orElseThrow(() -> {
+                    log.warn("Psicólogo não encontrado com o email: {}", normalizedEmail);
+                    return new UsernameNotFoundException("Psicólogo não encontrado com o email: " + normalizedEmail);
+                });
+
+        log.info("Usuário autenticado com sucesso: {}", normalizedEmail);
+
+        return new PsychologistPrincipal(
+                psychologist.getId(),
+                psychologist.getEmail(),
+                psychologist.getPassword(),
+                AuthorityUtils.createAuthorityList("ROLE_USER")
+        );
     }
 }
@@ -4,18 +4,21 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.ampliar.dto.psychologist.PsychologistCreateDTO;
 import com.example.ampliar.dto.psychologist.PsychologistDTO;
 import com.example.ampliar.dto.psychologist.PsychologistUpdateDTO;
+import com.example.ampliar.exception.ConflictException;
+import com.example.ampliar.exception.ErrorCode;
+import com.example.ampliar.exception.ResourceNotFoundException;
 import com.example.ampliar.mapper.PsychologistDTOMapper;
 import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.model.enums.VersionedResource;
 import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.security.PasswordHasher;
 
-import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -23,180 +26,131 @@ import lombok.extern.slf4j.Slf4j;
 public class PsychologistService {
 
     private final PsychologistRepository psychologistRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final PsychologistDTOMapper psychologistDTOMapper;
+    private final RefreshTokenService refreshTokenService;
+    private final ResourceVersionService resourceVersionService;
 
     public PsychologistService(
             PsychologistRepository psychologistRepository,
-            PasswordEncoder passwordEncoder,
-            PsychologistDTOMapper psychologistDTOMapper
+            PasswordHasher passwordHasher,
+            PsychologistDTOMapper psychologistDTOMapper,
+            RefreshTokenService refreshTokenService,
+            ResourceVersionService resourceVersionService
     ) {
         this.psychologistRepository = psychologistRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.psychologistDTOMapper = psychologistDTOMapper;
+        this.refreshTokenService = refreshTokenService;
+        this.resourceVersionService = resourceVersionService;
     }
 
     @Transactional
     public PsychologistDTO createPsychologist(PsychologistCreateDTO dto) {
         log.info("Iniciando criação de psicólogo: {}", dto.email());
 
-        try {
-            if (psychologistRepository.findByEmailAndDeletedAtIsNull(dto.email()).isPresent()) {
-                log.warn("Tentativa de criar psicólogo com email duplicado: {}", dto.email());
-                throw new IllegalArgumentException("Já existe um psicólogo com esse e-mail.");
-            }
-
-            if (psychologistRepository.findByCpfAndDeletedAtIsNull(dto.cpf()).isPresent()) {
-                log.warn("Tentativa de criar psicólogo com CPF duplicado: {}", dto.cpf());
-                throw new IllegalArgumentException("Já existe um psicólogo com esse CPF.");
-            }
-
-            PsychologistModel model = new PsychologistModel(
-                    dto.fullName(),
-                    dto.cpf(),
-                    dto.phoneNumber(),
-                    dto.email(),
-                    passwordEncoder.encode(dto.password())
-            );
-
-            PsychologistDTO result = psychologistDTOMapper.apply(psychologistRepository.save(model));
-            log.info("Psicólogo criado com sucesso ID: {}", result.id());
-            return result;
-
-        } catch (IllegalArgumentException e) {
-            log.error("Erro de validação ao criar psicólogo: {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            log.error("Erro inesperado ao criar psicólogo", e);
-            throw new RuntimeException("Erro interno ao criar psicólogo", e);
+        if (psychologistRepository.findByEmail(dto.email()).isPresent()) {
+            log.warn("Tentativa de criar psicólogo com email duplicado: {}", dto.email());
+            throw new ConflictException(ErrorCode.EMAIL_ALREADY_REGISTERED, "Já existe um psicólogo com esse e-mail.");
         }
+
+        if (psychologistRepository.findByCpf(dto.cpf()).isPresent()) {
+            log.warn("Tentativa de criar psicólogo com CPF duplicado: {}", dto.cpf());
+            throw new ConflictException(ErrorCode.CPF_ALREADY_REGISTERED, "Já existe um psicólogo com esse CPF.");
+        }
+
+        PsychologistModel model = new PsychologistModel(
+                dto.fullName(),
+                dto.cpf(),
+                dto.phoneNumber(),
+                dto.email(),
+                passwordHasher.encode(dto.password())
+        );
+
+        PsychologistDTO result = psychologistDTOMapper.apply(psychologistRepository.save(model));
+        log.info("Psicólogo criado com sucesso ID: {}", result.id());
+        return result;
     }
 
     @Transactional
     public PsychologistDTO updatePsychologist(Long id, PsychologistUpdateDTO dto) {
         log.info("Iniciando atualização do psicólogo ID: {}", id);
 
-        try {
-            PsychologistModel existing = psychologistRepository.findByIdAndDeletedAtIsNull(id)
-                    .orElseThrow(() -> {
-                        log.error("Psicólogo não encontrado para atualização ID: {}", id);
-                        return new EntityNotFoundException("Psicólogo não encontrado");
-                    });
-
-            if (dto.fullName() != null) {
-                existing.setFullName(dto.fullName());
-                log.debug("Nome atualizado para: {}", dto.fullName());
-            }
-            if (dto.cpf() != null) {
-                existing.setCpf(dto.cpf());
-                log.debug("CPF atualizado");
-            }
-            if (dto.phoneNumber() != null) {
-                existing.setPhoneNumber(dto.phoneNumber());
-                log.debug("Telefone atualizado");
-            }
-            if (dto.email() != null) {
-                existing.setEmail(dto.email());
-                log.debug("Email atualizado para: {}", dto.email());
-            }
-
-            if (dto.password() != null && !dto.password().isBlank()) {
-                existing.setPassword(passwordEncoder.encode(dto.password()));
-                log.debug("Senha atualizada");
-            }
-
-            PsychologistDTO result = psychologistDTOMapper.apply(psychologistRepository.save(existing));
-            log.info("Psicólogo atualizado com sucesso ID: {}", id);
-            return result;
-
-        } catch (EntityNotFoundException e) {
-            log.error("Psicólogo não encontrado para atualização ID: {}", id);
-            throw e;
-        } catch (Exception e) {
-            log.error("Erro ao atualizar psicólogo ID: {}", id, e);
-            throw new RuntimeException("Erro interno ao atualizar psicólogo", e);
+        PsychologistModel existing = psychologistRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PSYCHOLOGIST_NOT_FOUND, "Psicólogo não encontrado"));
+
+        if (dto.fullName() != null) {
+            existing.setFullName(dto.fullName());
+            // O nome do psicólogo aparece em cada agendamento listado.
+            resourceVersionService.markChanged(id, VersionedResource.APPOINTMENTS);
+            log.debug("Nome atualizado para: {}", dto.fullName());
+        }
+        if (dto.cpf() != null) {
+            existing.setCpf(dto.cpf());
+            log.debug("CPF atualizado");
+        }
+        if (dto.phoneNumber() != null) {
+            existing.setPhoneNumber(dto.phoneNumber());
+            log.debug("Telefone atualizado");
+        }
+        if (dto.email() != null) {
+            existing.setEmail(dto.email());
+            log.debug("Email atualizado para: {}", dto.email());
+        }
+
+        if (dto.password() != null && !dto.password().isBlank()) {
+            existing.setPassword(passwordHasher.encode(dto.password()));
+            // Como na redefinição de senha: sessões abertas com a senha antiga não continuam válidas.
+            refreshTokenService.revokeAllSessions(id);
+            log.debug("Senha atualizada");
         }
+
+        PsychologistDTO result = psychologistDTOMapper.apply(psychologistRepository.save(existing));
+        log.info("Psicólogo atualizado com sucesso ID: {}", id);
+        return result;
     }
 
     @Transactional
     public void deletePsychologist(Long id) {
         log.info("Iniciando exclusão do psicólogo ID: {}", id);
 
-        try {
-            PsychologistModel psychologist = psychologistRepository.findByIdAndDeletedAtIsNull(id)
-                    .orElseThrow(() -> {
-                        log.warn("Tentativa de excluir psicólogo inexistente ID: {}", id);
-                        return new EntityNotFoundException("Psicólogo não encontrado");
-                    });
-
-            psychologist.setDeletedAt(LocalDateTime.now());
-            psychologistRepository.save(psychologist);
-            log.info("Psicólogo excluído com sucesso ID: {}", id);
-
-        } catch (EntityNotFoundException e) {
-            log.warn("Psicólogo não encontrado para exclusão ID: {}", id);
-            throw e;
-        } catch (Exception e) {
-            log.error("Erro ao excluir psicólogo ID: {}", id, e);
-            throw new RuntimeException("Erro interno ao excluir psicólogo", e);
-        }
+        PsychologistModel psychologist = psychologistRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PSYCHOLOGIST_NOT_FOUND, "Psicólogo não encontrado"));
+
+        psychologistRepository.softDelete(psychologist.getId(), LocalDateTime.now());
+        refreshTokenService.revokeAllSessions(psychologist.getId());
+        log.info("Psicólogo excluído com sucesso ID: {}", id);
     }
 
     @Transactional(readOnly = true)
     public PsychologistDTO getPsychologistById(Long id) {
         log.debug("Buscando psicólogo por ID: {}", id);
 
-        try {
-            PsychologistDTO result = psychologistRepository.findByIdAndDeletedAtIsNull(id)
-                    .map(psychologistDTOMapper)
-                    .orElseThrow(() -> {
-                        log.warn("Psicólogo não encontrado ID: {}", id);
-                        return new EntityNotFoundException("Psicólogo não encontrado");
-                    });
-            log.debug("Psicólogo encontrado ID: {}", id);
-            return result;
-
-        } catch (EntityNotFoundException e) {
-            log.warn("Psicólogo não encontrado na consulta ID: {}", id);
-            throw e;
-        } catch (Exception e) {
-            log.error("Erro ao buscar psicólogo ID: {}", id, e);
-            throw new RuntimeException("Erro interno ao buscar psicólogo", e);
-        }
+        PsychologistDTO result = psychologistRepository.findDTOById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PSYCHOLOGIST_NOT_FOUND, "Psicólogo não encontrado"));
+        log.debug("Psicólogo encontrado ID: {}", id);
+        return result;
     }
 
     @Transactional(readOnly = true)
     public Optional<PsychologistModel> findByEmail(String email) {
         log.debug("Buscando psicólogo por email: {}", email);
 
-        try {
-            Optional<PsychologistModel> result = psychologistRepository.findByEmailAndDeletedAtIsNull(email);
-            if (result.isPresent()) {
-                log.debug("Psicólogo encontrado por email: {}", email);
-            } else {
-                log.debug("Psicólogo não encontrado por email: {}", email);
-            }
-            return result;
-        } catch (Exception e) {
-            log.error("Erro ao buscar psicólogo por email: {}", email, e);
-            throw new RuntimeException("Erro interno ao buscar psicólogo por email", e);
+        Optional<PsychologistModel> result = psychologistRepository.findByEmail(email);
+        if (result.isPresent()) {
+            log.debug("Psicólogo encontrado por email: {}", email);
+        } else {
+            log.debug("Psicólogo não encontrado por email: {}", email);
         }
+        return result;
     }
 
     @Transactional(readOnly = true)
     public List<PsychologistDTO> getAllPsychologists() {
         log.debug("Buscando todos os psicólogos");
 
-        try {
-            List<PsychologistDTO> result = psychologistRepository.findAllByDeletedAtIsNull()
-                    .stream()
-                    .map(psychologistDTOMapper)
-                    .toList();
-            log.debug("Encontrados {} psicólogos", result.size());
-            return result;
-        } catch (Exception e) {
-            log.error("Erro ao buscar todos os psicólogos", e);
-            throw new RuntimeException("Erro interno ao buscar psicólogos", e);
-        }
+        List<PsychologistDTO> result = psychologistRepository.findAllDTO();
+        log.debug("Encontrados {} psicólogos", result.size());
+        return result;
     }
 }
@@ -0,0 +1,31 @@
+package com.example.ampliar.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.ampliar.repository.ReceiptCounterRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class ReceiptNumberService {
+
+    private final ReceiptCounterRepository receiptCounterRepository;
+
+    public ReceiptNumberService(ReceiptCounterRepository receiptCounterRepository) {
+        this.receiptCounterRepository = receiptCounterRepository;
+    }
+
+    /**
+     * Reserva o próximo número de recibo do psicólogo. Precisa rodar dentro da transação que
+     * grava o pagamento: assim o número só é consumido se o pagamento for efetivado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long nextReceiptNumber(Long psychologistId) {
+        long number = receiptCounterRepository.incrementAndGet(psychologistId);
+        log.debug("Número de recibo {} reservado para psicólogo ID: {}", number, psychologistId);
+        return number;
+    }
+}
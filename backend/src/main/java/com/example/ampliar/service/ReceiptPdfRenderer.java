@@ -0,0 +1,98 @@
+package com.example.ampliar.service;
+
+import java.io.ByteArrayOutputStream;
+import java.text.NumberFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import com.example.ampliar.config.CacheConfig;
+import com.example.ampliar.dto.receipt.ReceiptDataDTO;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class ReceiptPdfRenderer {
+
+    private static final Locale PT_BR = Locale.forLanguageTag("pt-BR");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /**
+     * Renderiza o recibo em PDF. A chave do cache é o próprio {@link ReceiptDataDTO}: além da
+     * versão do pagamento, entram o nome e o CPF do pagador e do psicólogo, que mudam sem tocar
+     * no pagamento. Qualquer campo impresso diferente gera um PDF novo.
+     */
+    @Cacheable(cacheNames = CacheConfig.RECEIPTS, key = "#data")
+    public byte[] render(ReceiptDataDTO data) {
+        log.debug("Renderizando recibo do pagamento ID: {} versão: {}", data.paymentId(), data.version());
+
+        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+        Font bodyFont = FontFactory.getFont(FontFactory.HELVETICA, 11);
+        Font amountFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 13);
+        String amount = NumberFormat.getCurrencyInstance(PT_BR).format(data.valor());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        Document document = new Document(PageSize.A5.rotate(), 36, 36, 36, 36);
+        try {
+            PdfWriter.getInstance(document, out);
+            document.open();
+
+            String titleText = data.receiptNumber() != null
+                    ? "RECIBO Nº " + String.format("%06d", data.receiptNumber())
+                    : "RECIBO";
+            Paragraph title = new Paragraph(titleText, titleFont);
+            title.setAlignment(Element.ALIGN_CENTER);
+            document.add(title);
+
+            Paragraph value = new Paragraph("Valor: " + amount, amountFont);
+            value.setAlignment(Element.ALIGN_RIGHT);
+            value.setSpacingAfter(18);
+            document.add(value);
+
+            Paragraph body = new Paragraph(
+                    "Recebi de " + data.payerName() + ", CPF " + formatCpf(data.payerCpf())
+                            + ", a importância de " + amount
+                            + " referente a atendimento psicológico, pago em "
+                            + data.paymentDate().format(DATE_FORMAT) + ".",
+                    bodyFont
+            );
+            body.setAlignment(Element.ALIGN_JUSTIFIED);
+            body.setSpacingAfter(36);
+            document.add(body);
+
+            Paragraph signature = new Paragraph(
+                    "______________________________________\n"
+                            + data.psychologistName() + "\nCPF " + formatCpf(data.psychologistCpf()),
+                    bodyFont
+            );
+            signature.setAlignment(Element.ALIGN_CENTER);
+            document.add(signature);
+        } catch (DocumentException e) {
+            log.error("Erro ao gerar recibo do pagamento ID: {}", data.paymentId(), e);
+            throw new RuntimeException("Erro ao gerar recibo", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private String formatCpf(String cpf) {
+        if (cpf == null || cpf.length() != 11) {
+            return cpf;
+        }
+        return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9);
+    }
+}
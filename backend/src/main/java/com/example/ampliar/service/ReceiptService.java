@@ -0,0 +1,102 @@
+package com.example.ampliar.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.ampliar.dto.receipt.ReceiptDataDTO;
+import com.example.ampliar.exception.ErrorCode;
+import com.example.ampliar.exception.ResourceNotFoundException;
+import com.example.ampliar.repository.PaymentRepository;
+import com.example.ampliar.security.CurrentPsychologist;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class ReceiptService {
+
+    private final PaymentRepository paymentRepository;
+    private final CurrentPsychologist currentPsychologist;
+    private final ReceiptPdfRenderer renderer;
+    private final TaskExecutor receiptExecutor;
+    private final int renderWindow;
+
+    public ReceiptService(
+            PaymentRepository paymentRepository,
+            CurrentPsychologist currentPsychologist,
+            ReceiptPdfRenderer renderer,
+            @Qualifier("receiptExecutor") TaskExecutor receiptExecutor,
+            @Value("${receipt.executor.render-window:16}") int renderWindow
+    ) {
+        this.paymentRepository = paymentRepository;
+        this.currentPsychologist = currentPsychologist;
+        this.renderer = renderer;
+        this.receiptExecutor = receiptExecutor;
+        this.renderWindow = Math.max(1, renderWindow);
+    }
+
+    @Transactional(readOnly = true)
+    public byte[] getReceipt(Long paymentId) {
+        log.debug("Gerando recibo do pagamento ID: {}", paymentId);
+
+        Long psychologistId = currentPsychologist.getId();
+        ReceiptDataDTO data = paymentRepository.findReceiptData(paymentId, psychologistId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PAYMENT_NOT_FOUND, "Pagamento não encontrado"));
+        return renderer.render(data);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReceiptDataDTO> findMonthlyReceipts(YearMonth month) {
+        Long psychologistId = currentPsychologist.getId();
+        List<ReceiptDataDTO> receipts = paymentRepository.findReceiptDataByPeriod(
+                psychologistId, month.atDay(1), month.atEndOfMonth());
+        log.info("Encontrados {} pagamentos para recibos de {} do psicólogo ID: {}",
+                receipts.size(), month, psychologistId);
+        return receipts;
+    }
+
+    /**
+     * Escreve os recibos em um ZIP à medida que ficam prontos. A renderização roda no pool
+     * {@code receiptExecutor}; no máximo {@code renderWindow} PDFs ficam em memória ao mesmo
+     * tempo, e a ordem das entradas segue a ordem dos pagamentos.
+     */
+    public void writeReceiptsZip(List<ReceiptDataDTO> receipts, OutputStream out) throws IOException {
+        Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>(renderWindow);
+        Deque<ReceiptDataDTO> pendingData = new ArrayDeque<>(renderWindow);
+
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (ReceiptDataDTO data : receipts) {
+                if (pending.size() == renderWindow) {
+                    writeEntry(zip, pendingData.poll(), pending.poll().join());
+                }
+                pendingData.add(data);
+                pending.add(CompletableFuture.supplyAsync(() -> renderer.render(data), receiptExecutor));
+            }
+            while (!pending.isEmpty()) {
+                writeEntry(zip, pendingData.poll(), pending.poll().join());
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+        log.info("ZIP de recibos gerado com {} arquivos", receipts.size());
+    }
+
+    private void writeEntry(ZipOutputStream zip, ReceiptDataDTO data, byte[] pdf) throws IOException {
+        zip.putNextEntry(new ZipEntry("recibo-" + data.paymentDate() + "-" + data.paymentId() + ".pdf"));
+        zip.write(pdf);
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.ampliar.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.model.RefreshTokenModel;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.repository.RefreshTokenRepository;
+import com.example.ampliar.security.TokenHashing;
+import com.example.ampliar.security.TokenRevocationList;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    /** Sessão emitida no login ou na rotação: o refresh token em claro só existe aqui. */
+    public record Session(String refreshToken, String sessionId, Long psychologistId, String email, String fullName) {
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final PsychologistRepository psychologistRepository;
+    private final TokenRevocationList tokenRevocationList;
+    private final Duration refreshTokenTtl;
+    private final Duration reuseGracePeriod;
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            PsychologistRepository psychologistRepository,
+            TokenRevocationList tokenRevocationList,
+            @Value("${security.refresh-token.ttl:P14D}") Duration refreshTokenTtl,
+            @Value("${security.refresh-token.reuse-grace-period:PT10S}") Duration reuseGracePeriod
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.psychologistRepository = psychologistRepository;
+        this.tokenRevocationList = tokenRevocationList;
+        this.refreshTokenTtl = refreshTokenTtl;
+        this.reuseGracePeriod = reuseGracePeriod;
+    }
+
+    @Transactional
+    public Session startSession(PsychologistModel psychologist) {
+        Session session = issue(psychologist, UUID.randomUUID().toString());
+        log.info("Sessão iniciada para psicólogo ID: {}", psychologist.getId());
+        return session;
+    }
+
+    /**
+     * Troca um refresh token válido por um novo da mesma sessão. Um token já trocado que volte a
+     * ser apresentado indica vazamento: a sessão inteira é revogada. Reapresentações dentro do
+     * período de tolerância (abas concorrentes) apenas falham, sem derrubar a sessão.
+     */
+    @Transactional
+    public Optional<Session> rotate(String refreshToken) {
+        Instant now = Instant.now();
+        Optional<RefreshTokenModel> found = refreshTokenRepository.findByTokenHashForUpdate(TokenHashing.sha256Hex(refreshToken));
+        if (found.isEmpty()) {
+            log.warn("Refresh token desconhecido");
+            return Optional.empty();
+        }
+
+        RefreshTokenModel current = found.get();
+        if (current.getRevokedAt() != null) {
+            if (current.getRevokedAt().plus(reuseGracePeriod).isBefore(now)) {
+                log.warn("Reuso de refresh token detectado - revogando sessão do psicólogo ID: {}",
+                        current.getPsychologist().getId());
+                revokeSession(current.getSessionId(), now);
+            }
+            return Optional.empty();
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            log.debug("Refresh token expirado para psicólogo ID: {}", current.getPsychologist().getId());
+            return Optional.empty();
+        }
+        // Psicólogo excluído não é encontrado (@SQLRestriction); o proxy do token não seria inicializável.
+        Optional<PsychologistModel> psychologist = psychologistRepository.findById(current.getPsychologist().getId());
+        if (psychologist.isEmpty()) {
+            log.warn("Refresh token de psicólogo excluído ID: {}", current.getPsychologist().getId());
+            revokeSession(current.getSessionId(), now);
+            return Optional.empty();
+        }
+
+        current.setRevokedAt(now);
+        Session session = issue(psychologist.get(), current.getSessionId());
+        log.debug("Refresh token rotacionado para psicólogo ID: {}", session.psychologistId());
+        return Optional.of(session);
+    }
+
+    /** Logout: revoga os refresh tokens e os tokens de acesso já emitidos da sessão. */
+    @Transactional
+    public void endSession(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(TokenHashing.sha256Hex(refreshToken))
+                .ifPresent(token -> {
+                    revokeSession(token.getSessionId(), Instant.now());
+                    log.info("Sessão encerrada para psicólogo ID: {}", token.getPsychologist().getId());
+                });
+    }
+
+    /** Exclusão de conta ou troca de senha: encerra todas as sessões do psicólogo. */
+    @Transactional
+    public void revokeAllSessions(Long psychologistId) {
+        int revoked = refreshTokenRepository.revokeByPsychologistId(psychologistId, Instant.now());
+        tokenRevocationList.revokePsychologist(psychologistId);
+        log.info("Revogadas todas as sessões do psicólogo ID: {} ({} refresh tokens)", psychologistId, revoked);
+    }
+
+    @Scheduled(cron = "${security.refresh-token.purge-cron:0 30 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = refreshTokenRepository.deleteExpired(Instant.now());
+        if (removed > 0) {
+            log.info("Removidos {} refresh tokens expirados", removed);
+        }
+    }
+
+    private Session issue(PsychologistModel psychologist, String sessionId) {
+        String refreshToken = TokenHashing.newToken();
+        Instant now = Instant.now();
+        refreshTokenRepository.save(new RefreshTokenModel(
+                TokenHashing.sha256Hex(refreshToken), sessionId, psychologist, now, now.plus(refreshTokenTtl)));
+        return new Session(refreshToken, sessionId, psychologist.getId(), psychologist.getEmail(), psychologist.getFullName());
+    }
+
+    private void revokeSession(String sessionId, Instant now) {
+        refreshTokenRepository.revokeBySessionId(sessionId, now);
+        tokenRevocationList.revokeSession(sessionId);
+    }
+}
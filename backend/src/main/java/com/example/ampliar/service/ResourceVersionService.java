@@ -0,0 +1,92 @@
+package com.example.ampliar.service;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.ampliar.model.ResourceVersionModel;
+import com.example.ampliar.model.enums.VersionedResource;
+import com.example.ampliar.repository.ResourceVersionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Versão de cada listagem por psicólogo, base dos ETags das leituras condicionais. Os contadores
+ * ficam no banco, e não em memória, para que todas as instâncias vejam a mesma versão: um ETag
+ * antigo aceito por uma instância que não viu a escrita devolveria dados desatualizados.
+ */
+@Service
+@Slf4j
+public class ResourceVersionService {
+
+    private final ResourceVersionRepository resourceVersionRepository;
+
+    public ResourceVersionService(ResourceVersionRepository resourceVersionRepository) {
+        this.resourceVersionRepository = resourceVersionRepository;
+    }
+
+    /**
+     * Marca o recurso (e os que dependem dele) como alterado. O incremento é acumulado e gravado
+     * uma única vez, logo antes do commit: o lock da linha dura só o commit e um rollback não
+     * muda a versão.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markChanged(Long psychologistId, VersionedResource resource) {
+        PendingIncrements pending = (PendingIncrements) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingIncrements();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(psychologistId, resource.affectedByWrite());
+    }
+
+    /** Versão atual; 0 enquanto o psicólogo não tiver nenhuma escrita registrada. */
+    @Transactional(readOnly = true)
+    public long currentVersion(Long psychologistId, VersionedResource resource) {
+        return resourceVersionRepository.findById(psychologistId)
+                .map(versions -> versions.versionOf(resource))
+                .orElse(0L);
+    }
+
+    private final class PendingIncrements implements TransactionSynchronization {
+
+        private final Map<Long, Set<VersionedResource>> byPsychologist = new HashMap<>();
+
+        void add(Long psychologistId, Set<VersionedResource> resources) {
+            byPsychologist.computeIfAbsent(psychologistId, id -> EnumSet.noneOf(VersionedResource.class))
+                    .addAll(resources);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            byPsychologist.forEach((psychologistId, resources) -> {
+                resourceVersionRepository.increment(
+                        psychologistId,
+                        flag(resources, VersionedResource.PATIENTS),
+                        flag(resources, VersionedResource.LEGAL_GUARDIANS),
+                        flag(resources, VersionedResource.PAYERS),
+                        flag(resources, VersionedResource.PAYMENTS),
+                        flag(resources, VersionedResource.APPOINTMENTS)
+                );
+                log.debug("Versões incrementadas para psicólogo ID: {} - {}", psychologistId, resources);
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ResourceVersionService.this);
+        }
+
+        private int flag(Set<VersionedResource> resources, VersionedResource resource) {
+            return resources.contains(resource) ? 1 : 0;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.ampliar.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder; // Importe
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,10 +9,9 @@ import com.example.ampliar.dto.settings.UserSettingsUpdateDTO;
 import com.example.ampliar.mapper.UserSettingsMapper;
 import com.example.ampliar.model.PsychologistModel;
 import com.example.ampliar.model.UserSettingsModel;
-import com.example.ampliar.repository.PsychologistRepository;
 import com.example.ampliar.repository.UserSettingsRepository;
+import com.example.ampliar.security.CurrentPsychologist;
 
-import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -21,32 +19,24 @@ import lombok.extern.slf4j.Slf4j;
 public class UserSettingsService {
 
     private final UserSettingsRepository userSettingsRepository;
-    private final PsychologistRepository psychologistRepository;
+    private final CurrentPsychologist currentPsychologist;
     private final UserSettingsMapper mapper;
 
     @Autowired
     public UserSettingsService(
             UserSettingsRepository userSettingsRepository,
-            PsychologistRepository psychologistRepository,
+            CurrentPsychologist currentPsychologist,
             UserSettingsMapper mapper
     ) {
         this.userSettingsRepository = userSettingsRepository;
-        this.psychologistRepository = psychologistRepository;
+        this.currentPsychologist = currentPsychologist;
         this.mapper = mapper;
     }
 
-    // Helper para buscar o usuário logado
-    private PsychologistModel getAuthenticatedPsychologist() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        // Use findByEmail, que é o método que acabamos de adicionar
-        return psychologistRepository.findByEmail(username)
-                .orElseThrow(() -> new EntityNotFoundException("Psicólogo não encontrado com email: " + username));
-    }
-
     @Transactional // Removido (readOnly = true)
     public UserSettingsDTO getSettings() {
-        // Busca o psicólogo pelo token de segurança
-        PsychologistModel psychologist = getAuthenticatedPsychologist();
+        // ID vem do token; o proxy só é usado se for preciso criar as configurações padrão
+        PsychologistModel psychologist = currentPsychologist.getReference();
 
         log.debug("Buscando configurações para psicólogo ID: {}", psychologist.getId());
 
@@ -57,8 +47,8 @@ public class UserSettingsService {
 
     @Transactional
     public UserSettingsDTO updateSettings(UserSettingsUpdateDTO dto) {
-        // Busca o psicólogo pelo token de segurança
-        PsychologistModel psychologist = getAuthenticatedPsychologist();
+        // ID vem do token; o proxy só é usado se for preciso criar as configurações padrão
+        PsychologistModel psychologist = currentPsychologist.getReference();
 
         log.info("Atualizando configurações para psicólogo ID: {}", psychologist.getId());
 
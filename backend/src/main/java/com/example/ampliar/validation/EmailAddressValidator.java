@@ -0,0 +1,14 @@
+package com.example.ampliar.validation;
+
+import com.example.ampliar.validation.constraints.EmailAddress;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class EmailAddressValidator implements ConstraintValidator<EmailAddress, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        // Campo ausente é responsabilidade de @NotBlank/@NotNull (DTOs de atualização são parciais)
+        return value == null || FieldFormats.isEmail(value);
+    }
+}
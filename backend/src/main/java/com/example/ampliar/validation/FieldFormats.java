@@ -0,0 +1,105 @@
+package com.example.ampliar.validation;
+
+import java.util.regex.Pattern;
+
+/**
+ * Verificações de formato usadas pelas constraints de Bean Validation e pelos setters das
+ * entidades. CPF, CNPJ e telefone são verificados caractere a caractere, sem expressão regular e
+ * sem alocar; o e-mail usa um padrão compilado uma única vez.
+ */
+public final class FieldFormats {
+
+    private static final Pattern EMAIL = Pattern.compile("^[\\w.-]+@[\\w.-]+\\.[a-zA-Z]{2,}$");
+
+    private static final int[] CNPJ_WEIGHTS = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+
+    private FieldFormats() {
+    }
+
+    /** CPF sem formatação: 11 dígitos, não todos iguais, com os dois dígitos verificadores corretos. */
+    public static boolean isCpf(CharSequence value) {
+        if (value == null || value.length() != 11) {
+            return false;
+        }
+        boolean allEqual = true;
+        int first = 0;
+        int second = 0;
+        for (int i = 0; i < 9; i++) {
+            int digit = digit(value.charAt(i));
+            if (digit < 0) {
+                return false;
+            }
+            allEqual &= value.charAt(i) == value.charAt(0);
+            first += digit * (10 - i);
+            second += digit * (11 - i);
+        }
+        if (allEqual && value.charAt(9) == value.charAt(0) && value.charAt(10) == value.charAt(0)) {
+            return false;
+        }
+        int firstCheck = mod11CheckDigit(first);
+        if (digit(value.charAt(9)) != firstCheck) {
+            return false;
+        }
+        second += firstCheck * 2;
+        return digit(value.charAt(10)) == mod11CheckDigit(second);
+    }
+
+    /**
+     * CNPJ sem formatação: 14 caracteres com os dois dígitos verificadores corretos. Aceita o
+     * formato alfanumérico (letras maiúsculas nas 12 primeiras posições, valor {@code c - '0'}),
+     * em que os verificadores continuam numéricos.
+     */
+    public static boolean isCnpj(CharSequence value) {
+        if (value == null || value.length() != 14) {
+            return false;
+        }
+        boolean allEqual = true;
+        int first = 0;
+        int second = 0;
+        for (int i = 0; i < 12; i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+            int v = c - '0';
+            allEqual &= c == value.charAt(0);
+            first += v * CNPJ_WEIGHTS[i + 1];
+            second += v * CNPJ_WEIGHTS[i];
+        }
+        if (allEqual && value.charAt(12) == value.charAt(0) && value.charAt(13) == value.charAt(0)) {
+            return false;
+        }
+        int firstCheck = mod11CheckDigit(first);
+        if (digit(value.charAt(12)) != firstCheck) {
+            return false;
+        }
+        second += firstCheck * CNPJ_WEIGHTS[12];
+        return digit(value.charAt(13)) == mod11CheckDigit(second);
+    }
+
+    /** Telefone sem formatação: DDD + número, 10 ou 11 dígitos. */
+    public static boolean isPhoneNumber(CharSequence value) {
+        if (value == null || value.length() < 10 || value.length() > 11) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (digit(value.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isEmail(CharSequence value) {
+        return value != null && EMAIL.matcher(value).matches();
+    }
+
+    private static int digit(char c) {
+        return c >= '0' && c <= '9' ? c - '0' : -1;
+    }
+
+    private static int mod11CheckDigit(int sum) {
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.ampliar.validation;
+
+import com.example.ampliar.validation.constraints.PhoneNumber;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class PhoneNumberValidator implements ConstraintValidator<PhoneNumber, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        // Campo ausente é responsabilidade de @NotBlank/@NotNull (DTOs de atualização são parciais)
+        return value == null || FieldFormats.isPhoneNumber(value);
+    }
+}
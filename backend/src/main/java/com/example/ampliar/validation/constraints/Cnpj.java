@@ -0,0 +1,17 @@
+package com.example.ampliar.validation.constraints;
+
+import com.example.ampliar.validation.CnpjValidator;
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+@Documented
+@Constraint(validatedBy = CnpjValidator.class)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cnpj {
+    String message() default "O CNPJ deve conter 14 caracteres com dígitos verificadores válidos";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,17 @@
+package com.example.ampliar.validation.constraints;
+
+import com.example.ampliar.validation.CpfValidator;
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+@Documented
+@Constraint(validatedBy = CpfValidator.class)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cpf {
+    String message() default "O CPF deve conter 11 dígitos numéricos com dígitos verificadores válidos";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,17 @@
+package com.example.ampliar.validation.constraints;
+
+import com.example.ampliar.validation.EmailAddressValidator;
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+@Documented
+@Constraint(validatedBy = EmailAddressValidator.class)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EmailAddress {
+    String message() default "O e-mail deve ser válido";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
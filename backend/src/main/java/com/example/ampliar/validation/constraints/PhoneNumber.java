@@ -0,0 +1,17 @@
+package com.example.ampliar.validation.constraints;
+
+import com.example.ampliar.validation.PhoneNumberValidator;
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+@Documented
+@Constraint(validatedBy = PhoneNumberValidator.class)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PhoneNumber {
+    String message() default "O número de telefone deve conter 10 ou 11 dígitos";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
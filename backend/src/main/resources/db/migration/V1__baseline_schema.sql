@@ -0,0 +1,152 @@
+-- Esquema base equivalente ao mapeamento JPA (antes gerado por ddl-auto=create).
+-- Sequences com INCREMENT BY 50 casam com allocationSize = 50 das entidades (otimizador pooled).
+
+CREATE SEQUENCE psychologist_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE user_settings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE patient_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE legal_guardian_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE payer_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE payment_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE appointment_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE payment_allocation_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE password_reset_token_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE refresh_token_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE psychologist (
+    id           BIGINT       NOT NULL PRIMARY KEY,
+    full_name    VARCHAR(100) NOT NULL,
+    cpf          VARCHAR(11)  NOT NULL CONSTRAINT uk_psychologist_cpf UNIQUE,
+    phone_number VARCHAR(11)  NOT NULL,
+    email        VARCHAR(100) NOT NULL CONSTRAINT uk_psychologist_email UNIQUE,
+    password     VARCHAR(100) NOT NULL,
+    deleted_at   TIMESTAMP(6)
+);
+
+CREATE TABLE user_settings (
+    id                           BIGINT      NOT NULL PRIMARY KEY,
+    psychologist_id              BIGINT      NOT NULL CONSTRAINT uk_user_settings_psychologist UNIQUE
+        CONSTRAINT fk_user_settings_psychologist REFERENCES psychologist (id),
+    email_reminders              BOOLEAN     NOT NULL,
+    sms_reminders                BOOLEAN     NOT NULL,
+    appointment_confirmations    BOOLEAN     NOT NULL,
+    payment_reminders            BOOLEAN     NOT NULL,
+    preferred_theme              VARCHAR(20) NOT NULL,
+    language                     VARCHAR(10) NOT NULL,
+    auto_backup                  BOOLEAN     NOT NULL,
+    session_timeout_minutes      INTEGER     NOT NULL,
+    default_appointment_duration INTEGER     NOT NULL,
+    two_factor_auth              BOOLEAN     NOT NULL,
+    password_expiry_days         INTEGER     NOT NULL
+);
+
+CREATE TABLE patient (
+    id                     BIGINT       NOT NULL PRIMARY KEY,
+    full_name              VARCHAR(100) NOT NULL,
+    cpf                    VARCHAR(11)  NOT NULL CONSTRAINT uk_patient_cpf UNIQUE,
+    phone_number           VARCHAR(11)  NOT NULL,
+    birth_date             DATE         NOT NULL,
+    email                  VARCHAR(255) CONSTRAINT uk_patient_email UNIQUE,
+    address                VARCHAR(255),
+    notes                  TEXT,
+    dta_primeira_consulta  DATE,
+    deleted_at             TIMESTAMP(6),
+    psychologist_id        BIGINT       NOT NULL CONSTRAINT fk_patient_psychologist REFERENCES psychologist (id)
+);
+
+CREATE TABLE legal_guardian (
+    id              BIGINT       NOT NULL PRIMARY KEY,
+    full_name       VARCHAR(100) NOT NULL,
+    cpf             VARCHAR(11)  NOT NULL CONSTRAINT uk_legal_guardian_cpf UNIQUE,
+    phone_number    VARCHAR(11)  NOT NULL,
+    psychologist_id BIGINT       NOT NULL CONSTRAINT fk_legal_guardian_psychologist REFERENCES psychologist (id),
+    deleted_at      TIMESTAMP(6)
+);
+
+CREATE TABLE patient_guardians (
+    patient_id  BIGINT NOT NULL CONSTRAINT fk_patient_guardians_patient REFERENCES patient (id),
+    guardian_id BIGINT NOT NULL CONSTRAINT fk_patient_guardians_guardian REFERENCES legal_guardian (id)
+);
+
+CREATE TABLE payer (
+    id              BIGINT       NOT NULL PRIMARY KEY,
+    full_name       VARCHAR(100) NOT NULL,
+    cpf             VARCHAR(11)  NOT NULL CONSTRAINT uk_payer_cpf UNIQUE,
+    phone_number    VARCHAR(11)  NOT NULL,
+    psychologist_id BIGINT       NOT NULL CONSTRAINT fk_payer_psychologist REFERENCES psychologist (id),
+    deleted_at      TIMESTAMP(6)
+);
+
+CREATE TABLE payment (
+    id             BIGINT         NOT NULL PRIMARY KEY,
+    valor          NUMERIC(10, 2) NOT NULL,
+    payment_date   DATE           NOT NULL,
+    version        BIGINT         NOT NULL,
+    receipt_number BIGINT,
+    payer_id       BIGINT         NOT NULL CONSTRAINT fk_payment_payer REFERENCES payer (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_payment_payer ON payment (payer_id);
+
+CREATE TABLE appointment (
+    id                   BIGINT        NOT NULL PRIMARY KEY,
+    appointment_date     TIMESTAMP(6)  NOT NULL,
+    psychologist_id      BIGINT        NOT NULL CONSTRAINT fk_appointment_psychologist REFERENCES psychologist (id),
+    appointment_end_date TIMESTAMP(6),
+    appointment_type     VARCHAR(100),
+    notes                VARCHAR(1000),
+    status               VARCHAR(20)   NOT NULL
+        CONSTRAINT ck_appointment_status CHECK (status IN ('SCHEDULED', 'COMPLETED', 'CANCELLED', 'NO_SHOW'))
+);
+
+CREATE TABLE appointment_patients (
+    appointment_id BIGINT NOT NULL CONSTRAINT fk_appointment_patients_appointment REFERENCES appointment (id),
+    patient_id     BIGINT NOT NULL CONSTRAINT fk_appointment_patients_patient REFERENCES patient (id)
+);
+
+CREATE TABLE payment_allocation (
+    id             BIGINT         NOT NULL PRIMARY KEY,
+    payment_id     BIGINT         NOT NULL CONSTRAINT fk_payment_allocation_payment REFERENCES payment (id) ON DELETE CASCADE,
+    appointment_id BIGINT         NOT NULL CONSTRAINT fk_payment_allocation_appointment REFERENCES appointment (id) ON DELETE CASCADE,
+    amount         NUMERIC(10, 2) NOT NULL,
+    allocated_at   TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT uk_payment_allocation_payment_appointment UNIQUE (payment_id, appointment_id)
+);
+
+CREATE INDEX idx_payment_allocation_appointment ON payment_allocation (appointment_id);
+
+CREATE TABLE receipt_counter (
+    psychologist_id BIGINT NOT NULL PRIMARY KEY,
+    last_number     BIGINT NOT NULL
+);
+
+CREATE TABLE password_reset_token (
+    id              BIGINT       NOT NULL PRIMARY KEY,
+    token_hash      VARCHAR(64)  NOT NULL CONSTRAINT uk_password_reset_token_hash UNIQUE,
+    psychologist_id BIGINT       NOT NULL CONSTRAINT fk_password_reset_token_psychologist REFERENCES psychologist (id),
+    expires_at      TIMESTAMP(6) NOT NULL,
+    used            BOOLEAN      NOT NULL
+);
+
+CREATE INDEX idx_password_reset_token_expires_at ON password_reset_token (expires_at);
+
+CREATE TABLE refresh_token (
+    id              BIGINT                   NOT NULL PRIMARY KEY,
+    token_hash      VARCHAR(64)              NOT NULL CONSTRAINT uk_refresh_token_hash UNIQUE,
+    session_id      VARCHAR(36)              NOT NULL,
+    psychologist_id BIGINT                   NOT NULL CONSTRAINT fk_refresh_token_psychologist REFERENCES psychologist (id),
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked_at      TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX idx_refresh_token_session ON refresh_token (session_id);
+CREATE INDEX idx_refresh_token_psychologist ON refresh_token (psychologist_id);
+CREATE INDEX idx_refresh_token_expires_at ON refresh_token (expires_at);
+
+CREATE TABLE token_revocation (
+    token_key  VARCHAR(64)                 NOT NULL PRIMARY KEY,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_token_revocation_expires_at ON token_revocation (expires_at);
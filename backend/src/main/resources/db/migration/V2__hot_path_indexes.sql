@@ -0,0 +1,23 @@
+-- Índices para os filtros usados pelos repositórios em todas as telas.
+
+-- Listagens e buscas por ID sempre filtram pelo psicólogo logado e por deleted_at IS NULL.
+CREATE INDEX idx_patient_psychologist_deleted ON patient (psychologist_id, deleted_at);
+CREATE INDEX idx_payer_psychologist_deleted ON payer (psychologist_id, deleted_at);
+CREATE INDEX idx_legal_guardian_psychologist_deleted ON legal_guardian (psychologist_id, deleted_at);
+
+-- Agenda do psicólogo e checagem de conflito de horário (data + status).
+CREATE INDEX idx_appointment_psychologist_date_status ON appointment (psychologist_id, appointment_date, status);
+
+-- Tabelas de junção: a PK cobre o lado esquerdo, o índice extra cobre a busca inversa.
+ALTER TABLE appointment_patients ADD CONSTRAINT pk_appointment_patients PRIMARY KEY (appointment_id, patient_id);
+CREATE INDEX idx_appointment_patients_patient ON appointment_patients (patient_id, appointment_id);
+
+ALTER TABLE patient_guardians ADD CONSTRAINT pk_patient_guardians PRIMARY KEY (patient_id, guardian_id);
+CREATE INDEX idx_patient_guardians_guardian ON patient_guardians (guardian_id, patient_id);
+
+-- appointment(payment_id) não existe mais: o vínculo é payment_allocation, já coberto por
+-- uk_payment_allocation_payment_appointment (payment_id, ...) e idx_payment_allocation_appointment.
+
+-- Pagamentos por pagador e período (recibos, relatórios, exportação); substitui o índice só por payer_id.
+CREATE INDEX idx_payment_payer_date ON payment (payer_id, payment_date);
+DROP INDEX idx_payment_payer;
@@ -0,0 +1,10 @@
+-- Versão das listagens de cada psicólogo, usada nos ETags das leituras condicionais.
+-- Uma linha por psicólogo: cada escrita incrementa, no commit, as colunas dos recursos afetados.
+CREATE TABLE resource_version (
+    psychologist_id BIGINT NOT NULL PRIMARY KEY,
+    patients        BIGINT NOT NULL DEFAULT 0,
+    legal_guardians BIGINT NOT NULL DEFAULT 0,
+    payers          BIGINT NOT NULL DEFAULT 0,
+    payments        BIGINT NOT NULL DEFAULT 0,
+    appointments    BIGINT NOT NULL DEFAULT 0
+);
@@ -0,0 +1,111 @@
+-- appointment e payment passam a ser particionadas por ano (RANGE em appointment_date e
+-- payment_date). Consultas por período (relatórios, recibos, exportação, conflito de horário)
+-- leem só as partições do intervalo, e anos antigos são destacados e arquivados pelo
+-- PartitionMaintenanceJob sem DELETE em massa.
+
+-- Cria a partição do ano, se ainda não existir. Linhas do ano que tenham caído na partição
+-- default (datas fora das partições existentes) são movidas para a nova partição.
+CREATE FUNCTION ensure_yearly_partition(parent TEXT, key_column TEXT, partition_year INT) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    partition_name TEXT := format('%s_y%s', parent, partition_year);
+    default_name   TEXT := parent || '_default';
+    lower_bound    DATE := make_date(partition_year, 1, 1);
+    upper_bound    DATE := make_date(partition_year + 1, 1, 1);
+    misplaced      BOOLEAN;
+BEGIN
+    -- Várias instâncias rodam a manutenção; só uma cria a partição.
+    PERFORM pg_advisory_xact_lock(hashtext('ensure_yearly_partition:' || parent));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= %L AND %I < %L)',
+                   default_name, key_column, lower_bound, key_column, upper_bound) INTO misplaced;
+    IF misplaced THEN
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, default_name);
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, parent, lower_bound, upper_bound);
+
+    IF misplaced THEN
+        EXECUTE format('INSERT INTO %I SELECT * FROM %I WHERE %I >= %L AND %I < %L',
+                       partition_name, default_name, key_column, lower_bound, key_column, upper_bound);
+        EXECUTE format('DELETE FROM %I WHERE %I >= %L AND %I < %L',
+                       default_name, key_column, lower_bound, key_column, upper_bound);
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I DEFAULT', parent, default_name);
+    END IF;
+    RETURN TRUE;
+END;
+$$;
+
+-- Chaves estrangeiras não podem apontar para uma tabela particionada só pelo id (a PK precisa
+-- conter a chave de partição), e partições arquivadas deixariam referências penduradas. A
+-- integridade das tabelas de vínculo fica com a aplicação: as alocações e os pacientes do
+-- agendamento são removidos pelo Hibernate, e as alocações do pagamento pelo PaymentService.
+ALTER TABLE appointment_patients DROP CONSTRAINT fk_appointment_patients_appointment;
+ALTER TABLE payment_allocation DROP CONSTRAINT fk_payment_allocation_appointment;
+ALTER TABLE payment_allocation DROP CONSTRAINT fk_payment_allocation_payment;
+
+ALTER TABLE appointment RENAME TO appointment_unpartitioned;
+ALTER TABLE payment RENAME TO payment_unpartitioned;
+
+CREATE TABLE appointment (
+    id                   BIGINT        NOT NULL,
+    appointment_date     TIMESTAMP(6)  NOT NULL,
+    psychologist_id      BIGINT        NOT NULL CONSTRAINT fk_appointment_psychologist REFERENCES psychologist (id),
+    appointment_end_date TIMESTAMP(6),
+    appointment_type     VARCHAR(100),
+    notes                VARCHAR(1000),
+    status               VARCHAR(20)   NOT NULL
+        CONSTRAINT ck_appointment_status CHECK (status IN ('SCHEDULED', 'COMPLETED', 'CANCELLED', 'NO_SHOW'))
+) PARTITION BY RANGE (appointment_date);
+
+CREATE TABLE payment (
+    id             BIGINT         NOT NULL,
+    valor          NUMERIC(10, 2) NOT NULL,
+    payment_date   DATE           NOT NULL,
+    version        BIGINT         NOT NULL,
+    receipt_number BIGINT,
+    payer_id       BIGINT         NOT NULL CONSTRAINT fk_payment_payer REFERENCES payer (id) ON DELETE CASCADE
+) PARTITION BY RANGE (payment_date);
+
+CREATE TABLE appointment_default PARTITION OF appointment DEFAULT;
+CREATE TABLE payment_default PARTITION OF payment DEFAULT;
+
+-- Um ano por partição, do dado mais antigo (limitado a 10 anos; o resto fica na default) até o
+-- ano que vem. As seguintes são criadas pelo PartitionMaintenanceJob.
+DO $$
+DECLARE
+    last_year  INT := extract(YEAR FROM current_date)::INT + 1;
+    first_year INT;
+BEGIN
+    SELECT greatest(coalesce(min(extract(YEAR FROM appointment_date))::INT, last_year - 1), last_year - 11)
+    INTO first_year FROM appointment_unpartitioned;
+    FOR y IN first_year..last_year LOOP
+        PERFORM ensure_yearly_partition('appointment', 'appointment_date', y);
+    END LOOP;
+
+    SELECT greatest(coalesce(min(extract(YEAR FROM payment_date))::INT, last_year - 1), last_year - 11)
+    INTO first_year FROM payment_unpartitioned;
+    FOR y IN first_year..last_year LOOP
+        PERFORM ensure_yearly_partition('payment', 'payment_date', y);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO appointment SELECT id, appointment_date, psychologist_id, appointment_end_date, appointment_type, notes, status
+FROM appointment_unpartitioned;
+INSERT INTO payment SELECT id, valor, payment_date, version, receipt_number, payer_id
+FROM payment_unpartitioned;
+
+DROP TABLE appointment_unpartitioned;
+DROP TABLE payment_unpartitioned;
+
+-- Índices criados depois da carga; cada partição recebe o seu. A PK inclui a chave de partição;
+-- o id continua único pela sequence e é a primeira coluna, então buscas por id usam o índice.
+ALTER TABLE appointment ADD PRIMARY KEY (id, appointment_date);
+ALTER TABLE payment ADD PRIMARY KEY (id, payment_date);
+CREATE INDEX idx_appointment_psychologist_date_status ON appointment (psychologist_id, appointment_date, status);
+CREATE INDEX idx_payment_payer_date ON payment (payer_id, payment_date);
@@ -0,0 +1,16 @@
+-- Índices parciais para as buscas de linhas ativas (deleted_at IS NULL) por psicólogo: só as
+-- linhas ativas entram no índice, que fica menor e não cresce com as exclusões.
+
+-- patient e legal_guardian só são lidos por psicólogo filtrando os ativos (legal_guardian pelo
+-- @SQLRestriction da entidade).
+CREATE INDEX idx_patient_psychologist_active ON patient (psychologist_id) WHERE deleted_at IS NULL;
+DROP INDEX idx_patient_psychologist_deleted;
+
+CREATE INDEX idx_legal_guardian_psychologist_active ON legal_guardian (psychologist_id) WHERE deleted_at IS NULL;
+DROP INDEX idx_legal_guardian_psychologist_deleted;
+
+-- payer mantém idx_payer_psychologist_deleted completo: pagamentos, recibos e relatórios leem
+-- os pagadores do psicólogo incluindo os excluídos, e um índice parcial não serviria a eles.
+
+-- As chaves naturais (cpf, email) já têm índice único sobre todas as linhas, usado também nas
+-- buscas de ativos; um índice parcial a mais só custaria escrita.
@@ -0,0 +1,105 @@
+package com.example.ampliar.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Duas instâncias Postgres independentes fazem o papel de primário e réplica; o nome do banco
+ * identifica para onde cada transação foi roteada.
+ */
+@Testcontainers
+class ReadWriteRoutingDataSourceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("ampliar_primary");
+
+    @Container
+    static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("ampliar_replica");
+
+    private HikariDataSource primaryPool;
+    private HikariDataSource replicaPool;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        primaryPool = pool(PRIMARY);
+        replicaPool = pool(REPLICA);
+        monitor = new ReplicaLagMonitor(replicaPool, Duration.ofSeconds(5));
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryPool, replicaPool, monitor));
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryPool.close();
+        replicaPool.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        monitor.checkReplicaLag();
+
+        assertThat(currentDatabase(true)).isEqualTo("ampliar_replica");
+    }
+
+    @Test
+    void readWriteTransactionsAndNonTransactionalCallsGoToPrimary() {
+        monitor.checkReplicaLag();
+
+        assertThat(currentDatabase(false)).isEqualTo("ampliar_primary");
+        assertThat(jdbcTemplate.queryForObject("SELECT current_database()", String.class))
+                .isEqualTo("ampliar_primary");
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhileReplicaIsNotHealthy() {
+        // Antes da primeira medição a réplica não é considerada utilizável.
+        assertThat(currentDatabase(true)).isEqualTo("ampliar_primary");
+
+        monitor.checkReplicaLag();
+        assertThat(currentDatabase(true)).isEqualTo("ampliar_replica");
+
+        replicaPool.close();
+        monitor.checkReplicaLag();
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(currentDatabase(true)).isEqualTo("ampliar_primary");
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+
+    private static HikariDataSource pool(PostgreSQLContainer<?> container) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(container.getJdbcUrl());
+        dataSource.setUsername(container.getUsername());
+        dataSource.setPassword(container.getPassword());
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setConnectionTimeout(2000);
+        return dataSource;
+    }
+}
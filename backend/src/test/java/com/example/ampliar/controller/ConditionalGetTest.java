@@ -0,0 +1,265 @@
+package com.example.ampliar.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.ampliar.model.AppointmentModel;
+import com.example.ampliar.model.PatientModel;
+import com.example.ampliar.model.PayerModel;
+import com.example.ampliar.model.PaymentModel;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.model.enums.AppointmentStatus;
+import com.example.ampliar.repository.AppointmentRepository;
+import com.example.ampliar.repository.PatientRepository;
+import com.example.ampliar.repository.PayerRepository;
+import com.example.ampliar.repository.PaymentRepository;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.security.JwtUtil;
+import com.example.ampliar.support.PostgresTestContainerConfig;
+import com.example.ampliar.support.StatementCounter;
+import com.example.ampliar.support.TestData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * GET condicional: com o ETag da versão atual a resposta é 304 e só a versão é consultada;
+ * escritas mudam o ETag do próprio recurso e dos que exibem dados dele.
+ */
+@SpringBootTest(properties = {
+        // Mesmas propriedades do EndpointStatementBudgetTest: o contexto (e o contêiner) é reaproveitado.
+        "security.revocation.refresh-interval=PT1H",
+        "security.revocation.purge-cron=-",
+        "security.refresh-token.purge-cron=-",
+        "password-reset.sweeper.interval=PT1H"
+})
+@AutoConfigureMockMvc
+@Import(PostgresTestContainerConfig.class)
+class ConditionalGetTest {
+
+    private static final AtomicLong SEEDS = new AtomicLong(700_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PsychologistRepository psychologistRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PayerRepository payerRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new StatementCounter(entityManagerFactory);
+    }
+
+    @Test
+    void unchangedResourceAnswersNotModifiedWithOnlyTheVersionLookup() throws Exception {
+        String token = newPsychologistToken();
+        MvcResult first = mockMvc.perform(get("/patients").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+        assertThat(first.getResponse().getHeader(HttpHeaders.CACHE_CONTROL)).contains("no-cache").doesNotContain("no-store");
+
+        statementCounter.reset();
+        mockMvc.perform(get("/patients")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertThat(statementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    void writeChangesTheEtagOfTheResourceAndOfItsDependents() throws Exception {
+        PsychologistModel psychologist = newPsychologist();
+        String token = token(psychologist);
+        String payers = etag("/payers", token);
+        String payments = etag("/payments", token);
+        String appointments = etag("/appointments", token);
+        String patients = etag("/patients", token);
+
+        long seed = SEEDS.incrementAndGet();
+        mockMvc.perform(post("/payers")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "fullName", "Pagador Novo",
+                                "cpf", TestData.cpf(seed),
+                                "phoneNumber", TestData.phone(seed)))))
+                .andExpect(status().isOk());
+
+        assertThat(etag("/payers", token)).isNotEqualTo(payers);
+        assertThat(etag("/payments", token)).isEqualTo(payments);
+        assertThat(etag("/appointments", token)).isEqualTo(appointments);
+        assertThat(etag("/patients", token)).isEqualTo(patients);
+
+        mockMvc.perform(delete("/appointments/{id}", createAppointment(psychologist))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+        // O agendamento muda o total de consultas exibido no paciente.
+        assertThat(etag("/appointments", token)).isNotEqualTo(appointments);
+        assertThat(etag("/patients", token)).isNotEqualTo(patients);
+
+        mockMvc.perform(get("/payers")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, payers))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void etagOfAnotherPsychologistIsNotAccepted() throws Exception {
+        String first = newPsychologistToken();
+        String second = newPsychologistToken();
+
+        mockMvc.perform(get("/payers")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + second)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag("/payers", first)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deletingAnAppointmentIsScopedToItsPsychologistAndChangesItsEtag() throws Exception {
+        PsychologistModel owner = newPsychologist();
+        String ownerToken = token(owner);
+        String otherToken = newPsychologistToken();
+        Long appointment = createAppointment(owner);
+        String appointments = etag("/appointments", ownerToken);
+        String otherAppointments = etag("/appointments", otherToken);
+
+        mockMvc.perform(delete("/appointments/{id}", appointment).header(HttpHeaders.AUTHORIZATION, "Bearer " + otherToken))
+                .andExpect(status().isNotFound());
+        assertThat(appointmentRepository.findById(appointment)).isPresent();
+        assertThat(etag("/appointments", ownerToken)).isEqualTo(appointments);
+
+        mockMvc.perform(delete("/appointments/{id}", appointment).header(HttpHeaders.AUTHORIZATION, "Bearer " + ownerToken))
+                .andExpect(status().is2xxSuccessful());
+        assertThat(appointmentRepository.findById(appointment)).isEmpty();
+        // A versão que muda é a do dono do agendamento, não a de quem tentou excluí-lo antes.
+        assertThat(etag("/appointments", ownerToken)).isNotEqualTo(appointments);
+        assertThat(etag("/appointments", otherToken)).isEqualTo(otherAppointments);
+    }
+
+    @Test
+    void paymentOfAnotherPsychologistCannotBeUpdatedOrDeleted() throws Exception {
+        PsychologistModel owner = newPsychologist();
+        String ownerToken = token(owner);
+        String otherToken = newPsychologistToken();
+        Long payment = createPayment(owner);
+        String payments = etag("/payments", ownerToken);
+
+        mockMvc.perform(put("/payments/{id}", payment)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + otherToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("valor", new BigDecimal("1.00")))))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/payments/{id}", payment).header(HttpHeaders.AUTHORIZATION, "Bearer " + otherToken))
+                .andExpect(status().isNotFound());
+
+        assertThat(paymentRepository.findById(payment))
+                .hasValueSatisfying(p -> assertThat(p.getValor()).isEqualByComparingTo("150.00"));
+        assertThat(etag("/payments", ownerToken)).isEqualTo(payments);
+    }
+
+    private String etag(String path, String token) throws Exception {
+        return mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+
+    private String newPsychologistToken() {
+        return token(newPsychologist());
+    }
+
+    private String token(PsychologistModel psychologist) {
+        return jwtUtil.generateToken(psychologist.getEmail(), psychologist.getId(), UUID.randomUUID().toString());
+    }
+
+    private PsychologistModel newPsychologist() {
+        long seed = SEEDS.incrementAndGet();
+        return psychologistRepository.save(new PsychologistModel(
+                "Psicóloga " + seed,
+                TestData.cpf(seed),
+                TestData.phone(seed),
+                "etag" + seed + "@ampliar.test",
+                passwordEncoder.encode("senha123")
+        ));
+    }
+
+    private Long createPayment(PsychologistModel psychologist) {
+        long seed = SEEDS.incrementAndGet();
+        PayerModel payer = payerRepository.save(new PayerModel(
+                "Pagador " + seed, TestData.cpf(seed), TestData.phone(seed), psychologist));
+        PaymentModel payment = new PaymentModel();
+        payment.setValor(new BigDecimal("150.00"));
+        payment.setPaymentDate(LocalDate.now());
+        payment.setPayer(payer);
+        return paymentRepository.save(payment).getId();
+    }
+
+    private Long createAppointment(PsychologistModel psychologist) {
+        long seed = SEEDS.incrementAndGet();
+        PatientModel patient = patientRepository.save(new PatientModel(
+                LocalDate.of(1990, 1, 1), new ArrayList<>(), "Paciente " + seed, TestData.cpf(seed),
+                TestData.phone(seed), "paciente" + seed + "@ampliar.test", null, null, psychologist, null));
+        AppointmentModel appointment = new AppointmentModel();
+        appointment.setAppointmentDate(LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS));
+        appointment.setAppointmentType("Sessão");
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setPsychologist(psychologist);
+        appointment.setPatients(new ArrayList<>(List.of(patient)));
+        return appointmentRepository.save(appointment).getId();
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.ampliar.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.ampliar.model.AppointmentModel;
+import com.example.ampliar.model.LegalGuardianModel;
+import com.example.ampliar.model.PatientModel;
+import com.example.ampliar.model.PayerModel;
+import com.example.ampliar.model.PaymentModel;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.model.UserSettingsModel;
+import com.example.ampliar.model.enums.AppointmentStatus;
+import com.example.ampliar.repository.AppointmentRepository;
+import com.example.ampliar.repository.LegalGuardianRepository;
+import com.example.ampliar.repository.PatientRepository;
+import com.example.ampliar.repository.PayerRepository;
+import com.example.ampliar.repository.PaymentRepository;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.repository.UserSettingsRepository;
+import com.example.ampliar.security.JwtUtil;
+import com.example.ampliar.service.PasswordResetService;
+import com.example.ampliar.support.PostgresTestContainerConfig;
+import com.example.ampliar.support.StatementCounter;
+import com.example.ampliar.support.TestData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Orçamento de statements SQL por endpoint. Dois psicólogos são semeados, um com {@value #SMALL}
+ * e outro com {@value #LARGE} linhas de cada recurso; cada endpoint é chamado para os dois e a
+ * contagem do maior não pode passar da do menor (N+1) nem do limite declarado no caso.
+ *
+ * <p>{@value #LARGE} fica abaixo de {@code hibernate.default_batch_fetch_size}: acima dele o
+ * carregamento em lote passa a usar mais de um SELECT, o que é esperado e não é regressão.
+ * Os limites têm folga para o {@code nextval} das sequences pooled, que só aparece quando o bloco
+ * de IDs em memória se esgota. Leituras com ETag contam a consulta da versão do recurso, e as
+ * escritas, o incremento dessa versão no commit.
+ */
+@SpringBootTest(properties = {
+        // Nada agendado pode rodar durante uma medição: as estatísticas do Hibernate são globais.
+        "security.revocation.refresh-interval=PT1H",
+        "security.revocation.purge-cron=-",
+        "security.refresh-token.purge-cron=-",
+        "password-reset.sweeper.interval=PT1H"
+})
+@AutoConfigureMockMvc
+@Import(PostgresTestContainerConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointStatementBudgetTest {
+
+    private static final int SMALL = 3;
+    private static final int LARGE = 30;
+    private static final String PASSWORD = "senha123";
+
+    private record Tenant(
+            Long psychologistId,
+            String email,
+            String token,
+            YearMonth month,
+            List<Long> patients,
+            List<Long> guardians,
+            List<Long> payers,
+            List<Long> payments,
+            List<Long> appointments
+    ) {
+        Long last(List<Long> ids) {
+            return ids.get(ids.size() - 1);
+        }
+    }
+
+    private record Endpoint(String name, int maxStatements, Function<Tenant, MockHttpServletRequestBuilder> request) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private final AtomicLong seeds = new AtomicLong(900_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private PsychologistRepository psychologistRepository;
+
+    @Autowired
+    private UserSettingsRepository userSettingsRepository;
+
+    @Autowired
+    private LegalGuardianRepository legalGuardianRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PayerRepository payerRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private StatementCounter statementCounter;
+    private Tenant small;
+    private Tenant large;
+
+    @BeforeAll
+    void seed() {
+        statementCounter = new StatementCounter(entityManagerFactory);
+        small = seedTenant(SMALL, 100_000);
+        large = seedTenant(LARGE, 200_000);
+    }
+
+    /** Leituras primeiro; depois escritas, na ordem em que os IDs de cada psicólogo são consumidos. */
+    Stream<Endpoint> endpoints() {
+        return Stream.of(
+                new Endpoint("GET /patients", 5, t -> authorized(get("/patients"), t)),
+                new Endpoint("GET /patients/{id}", 5, t -> authorized(get("/patients/{id}", t.patients().get(0)), t)),
+                new Endpoint("GET /guardians", 4, t -> authorized(get("/guardians"), t)),
+                new Endpoint("GET /guardians/{id}", 4, t -> authorized(get("/guardians/{id}", t.guardians().get(0)), t)),
+                new Endpoint("GET /payers", 3, t -> authorized(get("/payers"), t)),
+                new Endpoint("GET /payers/{id}", 3, t -> authorized(get("/payers/{id}", t.payers().get(0)), t)),
+                new Endpoint("GET /payers/{id}/credit", 3, t -> authorized(get("/payers/{id}/credit", t.payers().get(0)), t)),
+                new Endpoint("GET /payments", 3, t -> authorized(get("/payments"), t)),
+                new Endpoint("GET /payments/{id}", 3, t -> authorized(get("/payments/{id}", t.payments().get(0)), t)),
+                new Endpoint("GET /payments/{id}/allocations", 3,
+                        t -> authorized(get("/payments/{id}/allocations", t.payments().get(0)), t)),
+                new Endpoint("GET /appointments", 6, t -> authorized(get("/appointments"), t)),
+                new Endpoint("GET /appointments/{id}", 6, t -> authorized(get("/appointments/{id}", t.appointments().get(0)), t)),
+                new Endpoint("GET /settings", 2, t -> authorized(get("/settings"), t)),
+                new Endpoint("GET /psychologists", 2, t -> authorized(get("/psychologists"), t)),
+                new Endpoint("GET /psychologists/{id}", 2, t -> authorized(get("/psychologists/{id}", t.psychologistId()), t)),
+                new Endpoint("GET /reports/income", 2,
+                        t -> authorized(get("/reports/income").param("month", t.month().toString()), t)),
+                new Endpoint("GET /reports/income/csv", 2,
+                        t -> authorized(get("/reports/income/csv").param("month", t.month().toString()), t)),
+                new Endpoint("GET /receipts/{paymentId}", 2, t -> authorized(get("/receipts/{id}", t.payments().get(0)), t)),
+                new Endpoint("GET /receipts?month", 2,
+                        t -> authorized(get("/receipts").param("month", t.month().toString()), t)),
+                new Endpoint("GET /finance/export (CSV)", 2,
+                        t -> authorized(get("/finance/export").param("year", String.valueOf(t.month().getYear())), t)),
+                new Endpoint("GET /finance/export (XLSX)", 2,
+                        t -> authorized(get("/finance/export").param("year", String.valueOf(t.month().getYear()))
+                                .param("format", "XLSX"), t)),
+
+                new Endpoint("POST /patients", 8, t -> authorized(post("/patients"), t, Map.of(
+                        "fullName", "Paciente Novo",
+                        "cpf", TestData.cpf(seeds.incrementAndGet()),
+                        "phoneNumber", TestData.phone(seeds.get()),
+                        "birthDate", LocalDate.of(2012, 5, 10),
+                        "email", "novo" + seeds.get() + "@ampliar.test",
+                        "legalGuardianIds", List.of(t.guardians().get(0))))),
+                new Endpoint("PUT /patients/{id}", 7, t -> authorized(put("/patients/{id}", t.patients().get(0)), t,
+                        Map.of("fullName", "Paciente Atualizado"))),
+                new Endpoint("DELETE /patients/{id}", 7, t -> authorized(delete("/patients/{id}", t.last(t.patients())), t)),
+
+                new Endpoint("POST /guardians", 8, t -> authorized(post("/guardians"), t, Map.of(
+                        "fullName", "Responsável Novo",
+                        "cpf", TestData.cpf(seeds.incrementAndGet()),
+                        "phoneNumber", TestData.phone(seeds.get()),
+                        "patientIds", List.of(t.patients().get(0))))),
+                new Endpoint("PUT /guardians/{id}", 6, t -> authorized(put("/guardians/{id}", t.guardians().get(0)), t,
+                        Map.of("fullName", "Responsável Atualizado"))),
+                new Endpoint("DELETE /guardians/{id}", 6, t -> authorized(delete("/guardians/{id}", t.last(t.guardians())), t)),
+
+                new Endpoint("POST /payers", 5, t -> authorized(post("/payers"), t, Map.of(
+                        "fullName", "Pagador Novo",
+                        "cpf", TestData.cpf(seeds.incrementAndGet()),
+                        "phoneNumber", TestData.phone(seeds.get())))),
+                new Endpoint("PUT /payers/{id}", 5, t -> authorized(put("/payers/{id}", t.payers().get(0)), t,
+                        Map.of("fullName", "Pagador Atualizado"))),
+                new Endpoint("DELETE /payers/{id}", 5, t -> authorized(delete("/payers/{id}", t.last(t.payers())), t)),
+
+                new Endpoint("POST /payments", 7, t -> authorized(post("/payments"), t, Map.of(
+                        "valor", new BigDecimal("150.00"),
+                        "paymentDate", t.month().atDay(1),
+                        "payerId", t.payers().get(0)))),
+                new Endpoint("PUT /payments/{id}", 6, t -> authorized(put("/payments/{id}", t.payments().get(0)), t,
+                        Map.of("valor", new BigDecimal("250.00")))),
+                new Endpoint("DELETE /payments/{id}", 7, t -> authorized(delete("/payments/{id}", t.last(t.payments())), t)),
+                new Endpoint("POST /payments/{id}/allocations", 9,
+                        t -> authorized(post("/payments/{id}/allocations", t.payments().get(1)), t, Map.of(
+                                "appointmentId", t.appointments().get(2),
+                                "amount", new BigDecimal("50.00")))),
+                new Endpoint("DELETE /payments/{id}/allocations/{appointmentId}", 5,
+                        t -> authorized(delete("/payments/{id}/allocations/{appointmentId}",
+                                t.payments().get(1), t.appointments().get(2)), t)),
+                new Endpoint("POST /payments/{id}/allocations/auto", 7,
+                        t -> authorized(post("/payments/{id}/allocations/auto", t.payments().get(0)), t, Map.of(
+                                "patientId", t.patients().get(0),
+                                "sessionPrice", new BigDecimal("100.00")))),
+
+                new Endpoint("POST /appointments", 11, t -> authorized(post("/appointments"), t, Map.of(
+                        "appointmentDate", LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.HOURS),
+                        "type", "Sessão",
+                        "psychologistId", t.psychologistId(),
+                        "patientIds", List.of(t.patients().get(0))))),
+                new Endpoint("PUT /appointments/{id}", 9, t -> authorized(put("/appointments/{id}", t.appointments().get(0)), t,
+                        Map.of("notes", "Observação atualizada"))),
+                new Endpoint("DELETE /appointments/{id}", 9, t -> authorized(delete("/appointments/{id}", t.appointments().get(1)), t)),
+
+                new Endpoint("PUT /settings", 3, t -> authorized(put("/settings"), t, Map.of("preferredTheme", "dark"))),
+
+                new Endpoint("POST /psychologists", 6, t -> authorized(post("/psychologists"), t, newPsychologistBody())),
+                new Endpoint("PUT /psychologists/{id}", 5, t -> authorized(put("/psychologists/{id}", t.psychologistId()), t,
+                        Map.of("fullName", "Psicóloga Atualizada"))),
+                new Endpoint("DELETE /psychologists/{id}", 7,
+                        t -> authorized(delete("/psychologists/{id}", createPsychologist(seeds.incrementAndGet()).getId()), t)),
+
+                new Endpoint("POST /auth/register", 6, t -> json(post("/auth/register"), newPsychologistBody())),
+                new Endpoint("POST /auth/login", 5, t -> json(post("/auth/login"), credentials(t))),
+                new Endpoint("POST /auth/refresh", 6, t -> json(post("/auth/refresh"), Map.of("refreshToken", login(t)))),
+                new Endpoint("POST /auth/logout", 6, t -> json(post("/auth/logout"), Map.of("refreshToken", login(t)))),
+                new Endpoint("POST /auth/forgot-password", 5, t -> json(post("/auth/forgot-password"), Map.of("email", t.email()))),
+                // Revoga todas as sessões do psicólogo: precisa ser o último caso.
+                new Endpoint("POST /auth/reset-password", 9, t -> json(post("/auth/reset-password"), Map.of(
+                        "token", passwordResetService.createPasswordResetToken(t.email()),
+                        "newPassword", "novaSenha123")))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void statementCountDoesNotGrowWithRows(Endpoint endpoint) throws Exception {
+        long smallCount = measure(endpoint, small);
+        long largeCount = measure(endpoint, large);
+
+        assertThat(largeCount)
+                .as("%s: %d statements com %d linhas, %d com %d linhas", endpoint.name(), smallCount, SMALL, largeCount, LARGE)
+                .isLessThanOrEqualTo(smallCount)
+                .isLessThanOrEqualTo(endpoint.maxStatements());
+        assertThat(smallCount)
+                .as("%s com %d linhas", endpoint.name(), SMALL)
+                .isLessThanOrEqualTo(endpoint.maxStatements());
+    }
+
+    private long measure(Endpoint endpoint, Tenant tenant) throws Exception {
+        MockHttpServletRequestBuilder request = endpoint.request().apply(tenant);
+
+        statementCounter.reset();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        long count = statementCounter.count();
+
+        assertThat(result.getResponse().getStatus())
+                .as("%s: %s", endpoint.name(), result.getResponse().getContentAsString())
+                .isBetween(200, 299);
+        return count;
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request, Tenant tenant) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + tenant.token());
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request, Tenant tenant, Object body) {
+        return json(authorized(request, tenant), body);
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) {
+        try {
+            return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, Object> credentials(Tenant tenant) {
+        return Map.of("email", tenant.email(), "password", PASSWORD);
+    }
+
+    private String login(Tenant tenant) {
+        try {
+            MvcResult result = mockMvc.perform(json(post("/auth/login"), credentials(tenant))).andReturn();
+            return objectMapper.readTree(result.getResponse().getContentAsString()).get("refreshToken").asText();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, Object> newPsychologistBody() {
+        long seed = seeds.incrementAndGet();
+        return Map.of(
+                "fullName", "Psicóloga " + seed,
+                "cpf", TestData.cpf(seed),
+                "phoneNumber", TestData.phone(seed),
+                "email", "psi" + seed + "@ampliar.test",
+                "password", PASSWORD
+        );
+    }
+
+    private PsychologistModel createPsychologist(long seed) {
+        return psychologistRepository.save(new PsychologistModel(
+                "Psicóloga " + seed,
+                TestData.cpf(seed),
+                TestData.phone(seed),
+                "psi" + seed + "@ampliar.test",
+                passwordEncoder.encode(PASSWORD)
+        ));
+    }
+
+    private Tenant seedTenant(int rows, long seed) {
+        YearMonth month = YearMonth.now();
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            PsychologistModel psychologist = createPsychologist(seed);
+            userSettingsRepository.save(new UserSettingsModel(psychologist));
+
+            List<Long> guardians = new ArrayList<>();
+            List<Long> patients = new ArrayList<>();
+            List<Long> payers = new ArrayList<>();
+            List<Long> payments = new ArrayList<>();
+            List<Long> appointments = new ArrayList<>();
+
+            for (int i = 0; i < rows; i++) {
+                LegalGuardianModel guardian = legalGuardianRepository.save(new LegalGuardianModel(
+                        new ArrayList<>(), "Responsável " + i, TestData.cpf(seed + 1_000 + i),
+                        TestData.phone(seed + i), psychologist));
+                PatientModel patient = patientRepository.save(new PatientModel(
+                        LocalDate.of(2012, 1, 1), new ArrayList<>(List.of(guardian)), "Paciente " + i,
+                        TestData.cpf(seed + 2_000 + i), TestData.phone(seed + i),
+                        "paciente" + seed + "-" + i + "@ampliar.test", null, null, psychologist, null));
+                PayerModel payer = payerRepository.save(new PayerModel(
+                        "Pagador " + i, TestData.cpf(seed + 3_000 + i), TestData.phone(seed + i), psychologist));
+
+                PaymentModel payment = new PaymentModel();
+                payment.setValor(new BigDecimal("200.00"));
+                payment.setPaymentDate(month.atDay(1));
+                payment.setPayer(payer);
+                // O último pagamento é anterior à numeração de recibos: é o que DELETE /payments/{id} exclui.
+                if (i < rows - 1) {
+                    payment.setReceiptNumber((long) i + 1);
+                }
+                payment = paymentRepository.save(payment);
+
+                AppointmentModel appointment = new AppointmentModel();
+                appointment.setAppointmentDate(LocalDateTime.now().minusDays(i + 1L).truncatedTo(ChronoUnit.HOURS));
+                appointment.setAppointmentType("Sessão");
+                appointment.setStatus(AppointmentStatus.COMPLETED);
+                appointment.setPsychologist(psychologist);
+                appointment.setPatients(new ArrayList<>(List.of(patient)));
+                appointment.allocate(payment, new BigDecimal("100.00"));
+                appointment = appointmentRepository.save(appointment);
+
+                guardians.add(guardian.getId());
+                patients.add(patient.getId());
+                payers.add(payer.getId());
+                payments.add(payment.getId());
+                appointments.add(appointment.getId());
+            }
+
+            String token = jwtUtil.generateToken(psychologist.getEmail(), psychologist.getId(), UUID.randomUUID().toString());
+            return new Tenant(psychologist.getId(), psychologist.getEmail(), token, month,
+                    patients, guardians, payers, payments, appointments);
+        });
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.ampliar.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.ampliar.model.AppointmentModel;
+import com.example.ampliar.model.PatientModel;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.model.enums.AppointmentStatus;
+import com.example.ampliar.repository.AppointmentRepository;
+import com.example.ampliar.repository.PatientRepository;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.security.JwtUtil;
+import com.example.ampliar.support.PostgresTestContainerConfig;
+import com.example.ampliar.support.TestData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Desfechos de negócio pelos endpoints reais: o status vem do {@code ErrorCode} da exceção e o
+ * código vai no campo {@code code} do corpo.
+ */
+@SpringBootTest(properties = {
+        // Mesmas propriedades do EndpointStatementBudgetTest: o contexto (e o contêiner) é reaproveitado.
+        "security.revocation.refresh-interval=PT1H",
+        "security.revocation.purge-cron=-",
+        "security.refresh-token.purge-cron=-",
+        "password-reset.sweeper.interval=PT1H"
+})
+@AutoConfigureMockMvc
+@Import(PostgresTestContainerConfig.class)
+class ErrorResponseEndpointsTest {
+
+    private static final AtomicLong SEEDS = new AtomicLong(560_000);
+
+    private record Tenant(String token, PsychologistModel psychologist, PatientModel patient) {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PsychologistRepository psychologistRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Test
+    void scheduleConflictIsAnswered409() throws Exception {
+        Tenant tenant = seedTenant();
+        LocalDateTime slot = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.HOURS);
+        scheduleAt(tenant, slot);
+
+        mockMvc.perform(authorized(post("/appointments"), tenant.token(), Map.of(
+                        "appointmentDate", slot.toString(),
+                        "type", "Sessão",
+                        "psychologistId", tenant.psychologist().getId(),
+                        "patientIds", List.of(tenant.patient().getId()))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("PSYCHOLOGIST_SCHEDULE_CONFLICT"))
+                .andExpect(jsonPath("$.message").isNotEmpty());
+    }
+
+    @Test
+    void missingResourceIsAnswered404() throws Exception {
+        Tenant tenant = seedTenant();
+
+        mockMvc.perform(authorized(get("/patients/{id}", Long.MAX_VALUE), tenant.token()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PATIENT_NOT_FOUND"));
+    }
+
+    @Test
+    void brokenBusinessRuleIsAnswered400() throws Exception {
+        mockMvc.perform(post("/auth/reset-password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "token", UUID.randomUUID().toString(),
+                                "newPassword", "novaSenha456"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_RESET_TOKEN"));
+    }
+
+    @Test
+    void exportYearOutsideTheSupportedRangeIsAnswered400() throws Exception {
+        Tenant tenant = seedTenant();
+
+        for (String year : List.of("-1", "99999")) {
+            mockMvc.perform(authorized(get("/finance/export").param("year", year), tenant.token()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INVALID_ARGUMENT"));
+        }
+    }
+
+    @Test
+    void invalidPayloadIsAnswered400WithTheFields() throws Exception {
+        Tenant tenant = seedTenant();
+
+        mockMvc.perform(authorized(post("/payers"), tenant.token(), Map.of(
+                        "fullName", "Pagador",
+                        "cpf", "12345678900",
+                        "phoneNumber", TestData.phone(SEEDS.incrementAndGet()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_FAILED"))
+                .andExpect(jsonPath("$.errors[0].field").value("cpf"));
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request, String token) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request, String token, Object body)
+            throws Exception {
+        return authorized(request, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+    }
+
+    private void scheduleAt(Tenant tenant, LocalDateTime slot) {
+        AppointmentModel appointment = new AppointmentModel();
+        appointment.setAppointmentDate(slot);
+        appointment.setAppointmentType("Sessão");
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setPsychologist(tenant.psychologist());
+        appointment.setPatients(new ArrayList<>(List.of(tenant.patient())));
+        appointmentRepository.save(appointment);
+    }
+
+    private Tenant seedTenant() {
+        long seed = SEEDS.addAndGet(10);
+        PsychologistModel psychologist = psychologistRepository.save(new PsychologistModel(
+                "Psicóloga " + seed, TestData.cpf(seed), TestData.phone(seed), "erro" + seed + "@ampliar.test", "senha-" + seed));
+        PatientModel patient = patientRepository.save(new PatientModel(
+                LocalDate.of(1990, 1, 1), new ArrayList<>(), "Paciente " + seed, TestData.cpf(seed + 1),
+                TestData.phone(seed + 1), "paciente" + seed + "@ampliar.test", null, null, psychologist, null));
+        String token = jwtUtil.generateToken(psychologist.getEmail(), psychologist.getId(), UUID.randomUUID().toString());
+        return new Tenant(token, psychologist, patient);
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.ampliar.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.ampliar.model.AppointmentModel;
+import com.example.ampliar.model.PatientModel;
+import com.example.ampliar.model.PayerModel;
+import com.example.ampliar.model.PaymentModel;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.model.enums.AppointmentStatus;
+import com.example.ampliar.repository.AppointmentRepository;
+import com.example.ampliar.repository.PatientRepository;
+import com.example.ampliar.repository.PayerRepository;
+import com.example.ampliar.repository.PaymentAllocationRepository;
+import com.example.ampliar.repository.PaymentRepository;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.security.JwtUtil;
+import com.example.ampliar.support.PostgresTestContainerConfig;
+import com.example.ampliar.support.TestData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Endpoints de alocação de pagamentos: IDs de outro psicólogo respondem 404 sem ler nem alterar
+ * nada, e a atualização parcial de um agendamento preserva as alocações existentes.
+ */
+@SpringBootTest(properties = {
+        // Mesmas propriedades do EndpointStatementBudgetTest: o contexto (e o contêiner) é reaproveitado.
+        "security.revocation.refresh-interval=PT1H",
+        "security.revocation.purge-cron=-",
+        "security.refresh-token.purge-cron=-",
+        "password-reset.sweeper.interval=PT1H"
+})
+@AutoConfigureMockMvc
+@Import(PostgresTestContainerConfig.class)
+class PaymentAllocationEndpointsTest {
+
+    private static final AtomicLong SEEDS = new AtomicLong(500_000);
+
+    private record Tenant(String token, Long psychologistId, Long patientId, Long payerId, Long paymentId, List<Long> appointments) {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PsychologistRepository psychologistRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PayerRepository payerRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PaymentAllocationRepository allocationRepository;
+
+    @Test
+    void allocationIsCreatedListedAndRemoved() throws Exception {
+        Tenant tenant = seedTenant();
+        Long appointmentId = tenant.appointments().get(0);
+
+        mockMvc.perform(authorized(post("/payments/{id}/allocations", tenant.paymentId()), tenant.token(), Map.of(
+                        "appointmentId", appointmentId,
+                        "amount", new BigDecimal("80.00"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paymentId").value(tenant.paymentId()))
+                .andExpect(jsonPath("$.appointmentId").value(appointmentId))
+                .andExpect(jsonPath("$.amount").value(80.00));
+
+        mockMvc.perform(authorized(get("/payments/{id}/allocations", tenant.paymentId()), tenant.token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].appointmentId").value(appointmentId));
+
+        mockMvc.perform(authorized(delete("/payments/{id}/allocations/{appointmentId}", tenant.paymentId(), appointmentId),
+                        tenant.token()))
+                .andExpect(status().isNoContent());
+
+        assertThat(allocationRepository.sumAmountByPaymentId(tenant.paymentId())).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void autoAllocationPaysTheOldestSessionsFirst() throws Exception {
+        Tenant tenant = seedTenant();
+
+        // Pagamento de 200,00 e sessões de 150,00: a mais antiga é quitada e a seguinte recebe o resto.
+        mockMvc.perform(authorized(post("/payments/{id}/allocations/auto", tenant.paymentId()), tenant.token(), Map.of(
+                        "patientId", tenant.patientId(),
+                        "sessionPrice", new BigDecimal("150.00"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.appointmentId == %d)].amount", tenant.appointments().get(2)).value(150.00))
+                .andExpect(jsonPath("$[?(@.appointmentId == %d)].amount", tenant.appointments().get(1)).value(50.00));
+    }
+
+    @Test
+    void paymentOfAnotherPsychologistIsNotFound() throws Exception {
+        Tenant owner = seedTenant();
+        Tenant other = seedTenant();
+        allocate(owner, owner.appointments().get(0), "50.00");
+
+        mockMvc.perform(authorized(get("/payments/{id}/allocations", owner.paymentId()), other.token()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PAYMENT_NOT_FOUND"));
+
+        mockMvc.perform(authorized(post("/payments/{id}/allocations", owner.paymentId()), other.token(), Map.of(
+                        "appointmentId", other.appointments().get(0),
+                        "amount", new BigDecimal("10.00"))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PAYMENT_NOT_FOUND"));
+
+        mockMvc.perform(authorized(post("/payments/{id}/allocations/auto", owner.paymentId()), other.token(), Map.of(
+                        "patientId", other.patientId(),
+                        "sessionPrice", new BigDecimal("100.00"))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PAYMENT_NOT_FOUND"));
+
+        mockMvc.perform(authorized(delete("/payments/{id}/allocations/{appointmentId}",
+                        owner.paymentId(), owner.appointments().get(0)), other.token()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("ALLOCATION_NOT_FOUND"));
+
+        mockMvc.perform(authorized(delete("/payments/{id}", owner.paymentId()), other.token()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PAYMENT_NOT_FOUND"));
+
+        assertThat(allocationRepository.sumAmountByPaymentId(owner.paymentId())).isEqualByComparingTo("50.00");
+        assertThat(allocationRepository.sumAmountByPaymentId(other.paymentId())).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void appointmentOfAnotherPsychologistIsNotFound() throws Exception {
+        Tenant owner = seedTenant();
+        Tenant other = seedTenant();
+
+        mockMvc.perform(authorized(post("/payments/{id}/allocations", owner.paymentId()), owner.token(), Map.of(
+                        "appointmentId", other.appointments().get(0),
+                        "amount", new BigDecimal("10.00"))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("APPOINTMENT_NOT_FOUND"));
+
+        mockMvc.perform(authorized(put("/appointments/{id}", owner.appointments().get(0)), owner.token(), Map.of(
+                        "paymentId", other.paymentId())))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PAYMENT_NOT_FOUND"));
+
+        assertThat(allocationRepository.sumAmountByPaymentId(other.paymentId())).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void appointmentCannotBeCreatedOrMovedIntoAnotherPsychologist() throws Exception {
+        Tenant owner = seedTenant();
+        Tenant other = seedTenant();
+        Long appointmentId = owner.appointments().get(0);
+
+        mockMvc.perform(authorized(post("/appointments"), owner.token(), Map.of(
+                        "appointmentDate", LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.HOURS).toString(),
+                        "type", "Sessão",
+                        "psychologistId", other.psychologistId(),
+                        "patientIds", List.of(owner.patientId()),
+                        "paymentId", other.paymentId())))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PSYCHOLOGIST_NOT_FOUND"));
+
+        mockMvc.perform(authorized(put("/appointments/{id}", appointmentId), owner.token(), Map.of(
+                        "psychologistId", other.psychologistId(),
+                        "paymentId", other.paymentId())))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PSYCHOLOGIST_NOT_FOUND"));
+
+        assertThat(allocationRepository.sumAmountByPaymentId(other.paymentId())).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(appointmentRepository.findByIdAndPsychologistId(appointmentId, owner.psychologistId())).isPresent();
+    }
+
+    @Test
+    void paymentCannotBeCreatedForThePayerOfAnotherPsychologist() throws Exception {
+        Tenant owner = seedTenant();
+        Tenant other = seedTenant();
+
+        mockMvc.perform(authorized(post("/payments"), other.token(), Map.of(
+                        "valor", new BigDecimal("90.00"),
+                        "paymentDate", LocalDate.now(),
+                        "payerId", owner.payerId())))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PAYER_NOT_FOUND"));
+
+        assertThat(paymentRepository.findAllDTOByPsychologistId(owner.psychologistId())).hasSize(1);
+        assertThat(paymentRepository.findAllDTOByPsychologistId(other.psychologistId())).hasSize(1);
+    }
+
+    @Test
+    void paymentWithAnIssuedReceiptIsNotDeleted() throws Exception {
+        Tenant tenant = seedTenant();
+        allocate(tenant, tenant.appointments().get(0), "50.00");
+
+        mockMvc.perform(authorized(delete("/payments/{id}", tenant.paymentId()), tenant.token()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("RECEIPT_ALREADY_ISSUED"));
+
+        assertThat(paymentRepository.findById(tenant.paymentId())).isPresent();
+        assertThat(allocationRepository.sumAmountByPaymentId(tenant.paymentId())).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void allocationBeyondThePaymentBalanceIsRejected() throws Exception {
+        Tenant tenant = seedTenant();
+        allocate(tenant, tenant.appointments().get(0), "150.00");
+
+        mockMvc.perform(authorized(post("/payments/{id}/allocations", tenant.paymentId()), tenant.token(), Map.of(
+                        "appointmentId", tenant.appointments().get(1),
+                        "amount", new BigDecimal("60.00"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INSUFFICIENT_PAYMENT_BALANCE"));
+    }
+
+    @Test
+    void partialUpdateKeepsTheAllocationsUntilExplicitlyCleared() throws Exception {
+        Tenant tenant = seedTenant();
+        Long appointmentId = tenant.appointments().get(0);
+        allocate(tenant, appointmentId, "120.00");
+
+        mockMvc.perform(authorized(put("/appointments/{id}", appointmentId), tenant.token(), Map.of(
+                        "notes", "Observação atualizada")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paymentId").value(tenant.paymentId()));
+        assertThat(allocationRepository.sumAmountByPaymentId(tenant.paymentId())).isEqualByComparingTo("120.00");
+
+        mockMvc.perform(authorized(put("/appointments/{id}", appointmentId), tenant.token(), Map.of(
+                        "clearAllocations", true)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paymentId").doesNotExist());
+        assertThat(allocationRepository.sumAmountByPaymentId(tenant.paymentId())).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    private void allocate(Tenant tenant, Long appointmentId, String amount) throws Exception {
+        mockMvc.perform(authorized(post("/payments/{id}/allocations", tenant.paymentId()), tenant.token(), Map.of(
+                        "appointmentId", appointmentId,
+                        "amount", new BigDecimal(amount))))
+                .andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request, String token) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request, String token, Object body)
+            throws Exception {
+        return authorized(request, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+    }
+
+    /** Psicólogo com um paciente, um pagamento de 200,00 e três sessões realizadas, da mais recente à mais antiga. */
+    private Tenant seedTenant() {
+        long seed = SEEDS.addAndGet(10);
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            PsychologistModel psychologist = psychologistRepository.save(new PsychologistModel(
+                    "Psicóloga " + seed,
+                    TestData.cpf(seed),
+                    TestData.phone(seed),
+                    "alocacao" + seed + "@ampliar.test",
+                    passwordEncoder.encode("senha123")
+            ));
+            PatientModel patient = patientRepository.save(new PatientModel(
+                    LocalDate.of(1990, 1, 1), new ArrayList<>(), "Paciente " + seed,
+                    TestData.cpf(seed + 1), TestData.phone(seed + 1),
+                    "paciente" + seed + "@ampliar.test", null, null, psychologist, null));
+            PayerModel payer = payerRepository.save(new PayerModel(
+                    "Pagador " + seed, TestData.cpf(seed + 2), TestData.phone(seed + 2), psychologist));
+
+            PaymentModel payment = new PaymentModel();
+            payment.setValor(new BigDecimal("200.00"));
+            payment.setPaymentDate(LocalDate.now());
+            payment.setPayer(payer);
+            payment.setReceiptNumber(1L);
+            payment = paymentRepository.save(payment);
+
+            List<Long> appointments = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                AppointmentModel appointment = new AppointmentModel();
+                appointment.setAppointmentDate(LocalDateTime.now().minusDays(i + 1L).truncatedTo(ChronoUnit.HOURS));
+                appointment.setAppointmentType("Sessão");
+                appointment.setStatus(AppointmentStatus.COMPLETED);
+                appointment.setPsychologist(psychologist);
+                appointment.setPatients(new ArrayList<>(List.of(patient)));
+                appointments.add(appointmentRepository.save(appointment).getId());
+            }
+
+            String token = jwtUtil.generateToken(psychologist.getEmail(), psychologist.getId(), UUID.randomUUID().toString());
+            return new Tenant(token, psychologist.getId(), patient.getId(), payer.getId(), payment.getId(), appointments);
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.ampliar.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.security.JwtUtil;
+import com.example.ampliar.service.RefreshTokenService;
+import com.example.ampliar.support.PostgresTestContainerConfig;
+import com.example.ampliar.support.TestData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Troca de senha e logout encerram as sessões: o token de acesso em mãos deixa de ser aceito
+ * na hora, sem esperar o TTL, e o refresh token não renova mais.
+ */
+@SpringBootTest(properties = {
+        // Mesmas propriedades do EndpointStatementBudgetTest: o contexto (e o contêiner) é reaproveitado.
+        "security.revocation.refresh-interval=PT1H",
+        "security.revocation.purge-cron=-",
+        "security.refresh-token.purge-cron=-",
+        "password-reset.sweeper.interval=PT1H"
+})
+@AutoConfigureMockMvc
+@Import(PostgresTestContainerConfig.class)
+class SessionRevocationTest {
+
+    private static final AtomicLong SEEDS = new AtomicLong(540_000);
+    private static final String PASSWORD = "senha123";
+
+    private record Tokens(String token, String refreshToken) {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PsychologistRepository psychologistRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void passwordChangeRevokesEverySessionOfThePsychologist() throws Exception {
+        PsychologistModel psychologist = createPsychologist();
+        Tokens first = startSession(psychologist);
+        Tokens second = startSession(psychologist);
+
+        mockMvc.perform(json(put("/psychologists/{id}", psychologist.getId()), Map.of("password", "novaSenha456"))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + first.token()))
+                .andExpect(status().isOk());
+
+        for (Tokens session : new Tokens[] {first, second}) {
+            mockMvc.perform(get("/patients").header(HttpHeaders.AUTHORIZATION, "Bearer " + session.token()))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(json(post("/auth/refresh"), Map.of("refreshToken", session.refreshToken())))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(json(post("/auth/login"), Map.of("email", psychologist.getEmail(), "password", PASSWORD)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void updateWithoutPasswordKeepsTheSessions() throws Exception {
+        PsychologistModel psychologist = createPsychologist();
+        Tokens session = startSession(psychologist);
+
+        mockMvc.perform(json(put("/psychologists/{id}", psychologist.getId()), Map.of("fullName", "Psicóloga Renomeada"))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + session.token()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/patients").header(HttpHeaders.AUTHORIZATION, "Bearer " + session.token()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void logoutRevokesOnlyThatSession() throws Exception {
+        PsychologistModel psychologist = createPsychologist();
+        Tokens closed = startSession(psychologist);
+        Tokens open = startSession(psychologist);
+
+        mockMvc.perform(json(post("/auth/logout"), Map.of("refreshToken", closed.refreshToken())))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/patients").header(HttpHeaders.AUTHORIZATION, "Bearer " + closed.token()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(json(post("/auth/refresh"), Map.of("refreshToken", closed.refreshToken())))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/patients").header(HttpHeaders.AUTHORIZATION, "Bearer " + open.token()))
+                .andExpect(status().isOk());
+    }
+
+    /** Sessão como a do login, sem passar pelo rate limit por IP que os outros testes do contexto consomem. */
+    private Tokens startSession(PsychologistModel psychologist) {
+        RefreshTokenService.Session session = refreshTokenService.startSession(psychologist);
+        return new Tokens(jwtUtil.generateToken(session.email(), session.psychologistId(), session.sessionId()),
+                session.refreshToken());
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+    }
+
+    private PsychologistModel createPsychologist() {
+        long seed = SEEDS.addAndGet(10);
+        return psychologistRepository.save(new PsychologistModel(
+                "Psicóloga " + seed,
+                TestData.cpf(seed),
+                TestData.phone(seed),
+                "sessao" + seed + "@ampliar.test",
+                passwordEncoder.encode(PASSWORD)
+        ));
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.ampliar.exception;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.ampliar.security.CurrentPsychologist;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Cada {@link ErrorCode} sai com o status HTTP declarado e com o próprio nome no campo
+ * {@code code} do corpo, venha de qualquer {@link DomainException} ou das exceções que o
+ * handler traduz.
+ */
+class GlobalExceptionHandlerTest {
+
+    @RestController
+    static class FailingController {
+
+        private final CurrentPsychologist currentPsychologist = new CurrentPsychologist(null);
+
+        @GetMapping("/domain/{code}")
+        void domain(@PathVariable ErrorCode code) {
+            throw new DomainException(code, "Falha " + code) {
+            };
+        }
+
+        @GetMapping("/conflict")
+        void conflict() {
+            throw new ConflictException(ErrorCode.PSYCHOLOGIST_SCHEDULE_CONFLICT, "O psicólogo já tem um agendamento nesse horário");
+        }
+
+        @GetMapping("/business-rule")
+        void businessRule() {
+            throw new BusinessRuleException(ErrorCode.INSUFFICIENT_PAYMENT_BALANCE, "Saldo insuficiente");
+        }
+
+        @GetMapping("/not-found")
+        void notFound() {
+            throw new ResourceNotFoundException(ErrorCode.PATIENT_NOT_FOUND, "Paciente não encontrado");
+        }
+
+        @GetMapping("/rate-limited")
+        void rateLimited() {
+            throw new TooManyRequestsException("Muitas tentativas", Duration.ofMillis(1500));
+        }
+
+        @GetMapping("/entity-not-found")
+        void entityNotFound() {
+            throw new EntityNotFoundException("Entidade não encontrada");
+        }
+
+        @GetMapping("/illegal-argument")
+        void illegalArgument() {
+            throw new IllegalArgumentException("Argumento inválido");
+        }
+
+        @GetMapping("/unexpected")
+        void unexpected() {
+            throw new UnsupportedOperationException("detalhe interno");
+        }
+
+        @GetMapping("/me")
+        Long me() {
+            return currentPsychologist.getId();
+        }
+    }
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(ErrorCode.class)
+    void everyCodeIsAnsweredWithItsStatus(ErrorCode code) throws Exception {
+        mockMvc.perform(get("/domain/{code}", code))
+                .andExpect(status().is(code.getStatus().value()))
+                .andExpect(jsonPath("$.code").value(code.name()))
+                .andExpect(jsonPath("$.message").value("Falha " + code));
+    }
+
+    @Test
+    void conflictIsAnswered409() throws Exception {
+        mockMvc.perform(get("/conflict"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("PSYCHOLOGIST_SCHEDULE_CONFLICT"));
+    }
+
+    @Test
+    void brokenBusinessRuleIsAnswered400() throws Exception {
+        mockMvc.perform(get("/business-rule"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INSUFFICIENT_PAYMENT_BALANCE"));
+    }
+
+    @Test
+    void missingResourceIsAnswered404() throws Exception {
+        mockMvc.perform(get("/not-found"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PATIENT_NOT_FOUND"));
+        mockMvc.perform(get("/entity-not-found"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("RESOURCE_NOT_FOUND"));
+    }
+
+    @Test
+    void rateLimitIsAnswered429WithRetryAfterInWholeSeconds() throws Exception {
+        mockMvc.perform(get("/rate-limited"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.code").value("RATE_LIMITED"));
+    }
+
+    @Test
+    void illegalArgumentIsAnswered400() throws Exception {
+        mockMvc.perform(get("/illegal-argument"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_ARGUMENT"));
+    }
+
+    @Test
+    void unexpectedErrorDoesNotLeakItsMessage() throws Exception {
+        mockMvc.perform(get("/unexpected"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.code").value("INTERNAL_ERROR"))
+                .andExpect(jsonPath("$.message").value("Erro interno do servidor"));
+    }
+
+    @Test
+    void missingAuthenticationIsAnswered401() throws Exception {
+        mockMvc.perform(get("/me"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value("AUTHENTICATION_REQUIRED"));
+    }
+}
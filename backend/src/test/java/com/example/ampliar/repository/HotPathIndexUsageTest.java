@@ -0,0 +1,301 @@
+package com.example.ampliar.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.ampliar.model.AppointmentModel;
+import com.example.ampliar.model.LegalGuardianModel;
+import com.example.ampliar.model.PatientModel;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.model.enums.AppointmentStatus;
+import com.example.ampliar.support.PostgresTestContainerConfig;
+import com.example.ampliar.support.StatementRecorder;
+import com.example.ampliar.support.TestData;
+
+/**
+ * Chama cada consulta quente dos repositórios, captura o SQL que o Hibernate gerou
+ * ({@link StatementRecorder}) e roda EXPLAIN nele, com os parâmetros ligados, sobre o esquema
+ * criado pelas migrations, conferindo que o plano usa o índice esperado. Com as tabelas vazias o
+ * planner preferiria seq scan, então ele é desligado na transação do teste: se o índice não
+ * servir para o filtro, o plano continua sem ele e o teste falha.
+ *
+ * <p>Nas tabelas particionadas o plano mostra os índices das partições, então o índice esperado
+ * é aceito por qualquer um dos seus ({@code pg_partition_tree}). As consultas por período também
+ * são conferidas quanto à poda: só a partição do ano consultado pode aparecer no plano.
+ */
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.ampliar.support.StatementRecorder")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PostgresTestContainerConfig.class)
+class HotPathIndexUsageTest {
+
+    private static final int YEAR = Year.now().getValue();
+    private static final List<AppointmentStatus> ACTIVE = List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.COMPLETED);
+    private static final AtomicInteger PREPARED = new AtomicInteger();
+
+    /** Consulta a explicar; o último statement que ela gera é o analisado. */
+    @FunctionalInterface
+    private interface HotPathQuery {
+        void run(HotPathIndexUsageTest test);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PayerRepository payerRepository;
+
+    @Autowired
+    private LegalGuardianRepository legalGuardianRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PaymentAllocationRepository paymentAllocationRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private Long guardianId;
+    private Long appointmentId;
+
+    @BeforeEach
+    void setUp() {
+        // Dono das coleções carregadas sob demanda; o carregamento da coleção é o que se analisa.
+        PsychologistModel psychologist = entityManager.persist(new PsychologistModel(
+                "Psicóloga Plano", TestData.cpf(800_001), TestData.phone(800_001), "plano@ampliar.test", "hash"));
+        LegalGuardianModel guardian = entityManager.persist(new LegalGuardianModel(
+                new ArrayList<>(), "Responsável Plano", TestData.cpf(800_002), TestData.phone(800_002), psychologist));
+        PatientModel patient = entityManager.persist(new PatientModel(
+                LocalDate.of(2015, 1, 1), new ArrayList<>(List.of(guardian)), "Paciente Plano", TestData.cpf(800_003),
+                TestData.phone(800_003), "paciente.plano@ampliar.test", null, null, psychologist, null));
+        AppointmentModel appointment = new AppointmentModel();
+        appointment.setAppointmentDate(LocalDateTime.of(YEAR, 3, 10, 14, 0));
+        appointment.setAppointmentType("Sessão");
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setPsychologist(psychologist);
+        appointment.setPatients(new ArrayList<>(List.of(patient)));
+        entityManager.persist(appointment);
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictAllRegions();
+        guardianId = guardian.getId();
+        appointmentId = appointment.getId();
+
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    static Stream<Arguments> hotPathQueries() {
+        return Stream.of(
+                Arguments.of("PatientRepository.findAllByPsychologistIdAndDeletedAtIsNull",
+                        (HotPathQuery) t -> t.patientRepository.findAllByPsychologistIdAndDeletedAtIsNull(1L),
+                        List.of("idx_patient_psychologist_active")),
+                Arguments.of("PatientRepository.findByIdInAndPsychologistIdAndDeletedAtIsNull",
+                        (HotPathQuery) t -> t.patientRepository.findByIdInAndPsychologistIdAndDeletedAtIsNull(List.of(1L, 2L), 1L),
+                        List.of("patient_pkey")),
+                Arguments.of("PayerRepository.findAllByPsychologistIdAndDeletedAtIsNull",
+                        (HotPathQuery) t -> t.payerRepository.findAllByPsychologistIdAndDeletedAtIsNull(1L),
+                        List.of("idx_payer_psychologist_deleted")),
+                Arguments.of("LegalGuardianRepository.findAllByPsychologistId",
+                        (HotPathQuery) t -> t.legalGuardianRepository.findAllByPsychologistId(1L),
+                        List.of("idx_legal_guardian_psychologist_active")),
+                Arguments.of("AppointmentRepository.existsByAppointmentDateAndPsychologistIdAndStatusIn",
+                        (HotPathQuery) t -> t.appointmentRepository.existsByAppointmentDateAndPsychologistIdAndStatusIn(
+                                LocalDateTime.of(YEAR, 3, 10, 14, 0), 1L, ACTIVE),
+                        List.of("idx_appointment_psychologist_date_status")),
+                Arguments.of("AppointmentRepository.findByPsychologistId",
+                        (HotPathQuery) t -> t.appointmentRepository.findByPsychologistId(1L),
+                        List.of("idx_appointment_psychologist_date_status")),
+                Arguments.of("AppointmentRepository.findByPatientsContainingAndStatus",
+                        (HotPathQuery) t -> t.appointmentRepository.findByPatientsContainingAndStatus(
+                                t.entityManager.getEntityManager().getReference(PatientModel.class, 1L), AppointmentStatus.SCHEDULED),
+                        List.of("idx_appointment_patients_patient")),
+                Arguments.of("LegalGuardianModel.patients (patient_guardians por responsável)",
+                        (HotPathQuery) t -> Hibernate.initialize(t.entityManager.find(LegalGuardianModel.class, t.guardianId).getPatients()),
+                        List.of("idx_patient_guardians_guardian")),
+                Arguments.of("PaymentAllocationRepository.findByPaymentIdOrderByAllocatedAtAsc",
+                        (HotPathQuery) t -> t.paymentAllocationRepository.findByPaymentIdOrderByAllocatedAtAsc(1L),
+                        List.of("uk_payment_allocation_payment_appointment")),
+                Arguments.of("AppointmentModel.allocations (AppointmentDTOMapper)",
+                        (HotPathQuery) t -> Hibernate.initialize(t.entityManager.find(AppointmentModel.class, t.appointmentId).getAllocations()),
+                        List.of("idx_payment_allocation_appointment")),
+                Arguments.of("PaymentRepository.findReceiptDataByPeriod",
+                        (HotPathQuery) t -> t.paymentRepository.findReceiptDataByPeriod(
+                                1L, LocalDate.of(YEAR, 1, 1), LocalDate.of(YEAR, 1, 31)),
+                        List.of("idx_payer_psychologist_deleted", "idx_payment_payer_date")),
+                Arguments.of("PaymentRepository.findAllDTOByPsychologistId",
+                        (HotPathQuery) t -> t.paymentRepository.findAllDTOByPsychologistId(1L),
+                        List.of("idx_payer_psychologist_deleted", "idx_payment_payer_date")),
+                Arguments.of("PatientRepository.findGuardianLinks",
+                        (HotPathQuery) t -> t.patientRepository.findGuardianLinks(List.of(1L, 2L)),
+                        List.of("pk_patient_guardians")),
+                Arguments.of("LegalGuardianRepository.findPatientLinks",
+                        (HotPathQuery) t -> t.legalGuardianRepository.findPatientLinks(List.of(1L, 2L)),
+                        List.of("idx_patient_guardians_guardian")),
+                Arguments.of("AppointmentRepository.findPatientRows",
+                        (HotPathQuery) t -> t.appointmentRepository.findPatientRows(List.of(1L, 2L)),
+                        List.of("pk_appointment_patients")),
+                Arguments.of("PasswordResetTokenRepository.findByTokenHashAndUsedFalse",
+                        (HotPathQuery) t -> t.passwordResetTokenRepository.findByTokenHashAndUsedFalse("abc"),
+                        List.of("uk_password_reset_token_hash")),
+                Arguments.of("RefreshTokenRepository.findByTokenHashForUpdate",
+                        (HotPathQuery) t -> t.refreshTokenRepository.findByTokenHashForUpdate("abc"),
+                        List.of("uk_refresh_token_hash"))
+        );
+    }
+
+    static Stream<Arguments> partitionKeyQueries() {
+        // As migrations criam as partições do ano corrente e do seguinte.
+        LocalDate monthStart = LocalDate.of(YEAR, 3, 1);
+        LocalDate monthEnd = LocalDate.of(YEAR, 3, 31);
+        LocalDate yearStart = LocalDate.of(YEAR, 1, 1);
+        LocalDate yearEnd = LocalDate.of(YEAR, 12, 31);
+        LocalDateTime session = LocalDateTime.of(YEAR, 3, 10, 14, 0);
+        return Stream.of(
+                Arguments.of("PaymentRepository.findReceiptDataByPeriod",
+                        (HotPathQuery) t -> t.paymentRepository.findReceiptDataByPeriod(1L, monthStart, monthEnd),
+                        List.of(monthStart, monthEnd),
+                        "payment_y" + YEAR),
+                Arguments.of("PaymentRepository.sumIncomeByPayerCpfAndMonth",
+                        (HotPathQuery) t -> t.paymentRepository.sumIncomeByPayerCpfAndMonth(1L, yearStart, yearEnd),
+                        List.of(yearStart, yearEnd),
+                        "payment_y" + YEAR),
+                Arguments.of("AppointmentRepository.existsByAppointmentDateAndPsychologistIdAndStatusIn",
+                        (HotPathQuery) t -> t.appointmentRepository.existsByAppointmentDateAndPsychologistIdAndStatusIn(session, 1L, ACTIVE),
+                        List.of(session),
+                        "appointment_y" + YEAR),
+                Arguments.of("AppointmentRepository.existsByAppointmentDateAndPatients_IdAndStatusIn",
+                        (HotPathQuery) t -> t.appointmentRepository.existsByAppointmentDateAndPatients_IdAndStatusIn(session, 1L, ACTIVE),
+                        List.of(session),
+                        "appointment_y" + YEAR)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotPathQueries")
+    void queryUsesExpectedIndex(String repositoryQuery, HotPathQuery query, List<String> expectedIndexes) {
+        String plan = explain(generatedSql(query), List.of());
+
+        for (String index : expectedIndexes) {
+            List<String> indexAndPartitions = jdbcTemplate.queryForList(
+                    "SELECT relid::TEXT FROM pg_partition_tree(?::REGCLASS)", String.class, index);
+            assertThat(indexAndPartitions)
+                    .as("Plano de %s sem %s:%n%s", repositoryQuery, index, plan)
+                    .anyMatch(plan::contains);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("partitionKeyQueries")
+    void queryReadsOnlyThePartitionOfItsPeriod(String repositoryQuery, HotPathQuery query, List<Temporal> period, String partition) {
+        String plan = explain(generatedSql(query), period);
+        String parent = partition.substring(0, partition.lastIndexOf("_y"));
+        String nextYear = parent + "_y" + (YEAR + 1);
+
+        assertThat(plan)
+                .as("Plano de %s:%n%s", repositoryQuery, plan)
+                .contains(partition)
+                .doesNotContain(parent + "_default")
+                .doesNotContain(nextYear);
+    }
+
+    private String generatedSql(HotPathQuery query) {
+        StatementRecorder.clear();
+        query.run(this);
+        List<String> statements = StatementRecorder.statements();
+        assertThat(statements).as("A consulta não gerou SQL").isNotEmpty();
+        return statements.get(statements.size() - 1);
+    }
+
+    /**
+     * EXPLAIN do statement com os parâmetros ligados: o SQL vira um PREPARE (os {@code ?} passam a
+     * {@code $n}) e cada parâmetro recebe um valor do tipo que o Postgres inferiu. Datas e
+     * timestamps vêm de {@code temporals}, na ordem do SQL, para que a poda de partições use o
+     * período consultado; os demais valores não mudam a escolha de índice com as tabelas vazias.
+     */
+    private String explain(String sql, List<Temporal> temporals) {
+        String name = "hot_path_" + PREPARED.incrementAndGet();
+        jdbcTemplate.execute("PREPARE " + name + " AS " + numberedParameters(sql));
+        List<String> types = jdbcTemplate.queryForList(
+                "SELECT t::TEXT FROM pg_prepared_statements, unnest(parameter_types) WITH ORDINALITY AS u(t, n) "
+                        + "WHERE name = ? ORDER BY n", String.class, name);
+
+        Iterator<Temporal> temporal = temporals.iterator();
+        String arguments = types.stream()
+                .map(type -> "'" + sampleValue(type, temporal) + "'")
+                .collect(Collectors.joining(", ", "(", ")"));
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN EXECUTE " + name + (types.isEmpty() ? "" : arguments), String.class));
+        jdbcTemplate.execute("DEALLOCATE " + name);
+        return plan;
+    }
+
+    private static String sampleValue(String type, Iterator<Temporal> temporals) {
+        if (type.endsWith("[]")) {
+            return "{1}";
+        }
+        if (type.equals("date")) {
+            return temporals.hasNext() ? temporals.next().toString() : YEAR + "-03-10";
+        }
+        if (type.startsWith("timestamp")) {
+            return temporals.hasNext() ? temporals.next().toString() : YEAR + "-03-10 14:00";
+        }
+        if (type.equals("boolean")) {
+            return "false";
+        }
+        return "1";
+    }
+
+    private static String numberedParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        boolean inLiteral = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
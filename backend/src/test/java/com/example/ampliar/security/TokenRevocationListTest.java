@@ -0,0 +1,93 @@
+package com.example.ampliar.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.example.ampliar.model.TokenRevocationModel;
+import com.example.ampliar.repository.TokenRevocationRepository;
+
+class TokenRevocationListTest {
+
+    private static final long TTL_MILLIS = 900_000;
+
+    private TokenRevocationRepository repository;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TokenRevocationRepository.class);
+        when(repository.save(any(TokenRevocationModel.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        revocationList = new TokenRevocationList(repository, TTL_MILLIS);
+    }
+
+    @Test
+    void revocationIsStoredAtTheSecondPrecisionOfTheIat() {
+        Instant before = Instant.now();
+        revocationList.revokePsychologist(7L);
+
+        ArgumentCaptor<TokenRevocationModel> saved = ArgumentCaptor.forClass(TokenRevocationModel.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getTokenKey()).isEqualTo("p:7");
+        assertThat(saved.getValue().getRevokedAt().getNano()).isZero();
+        assertThat(saved.getValue().getRevokedAt()).isAfter(before);
+        assertThat(saved.getValue().getExpiresAt()).isEqualTo(saved.getValue().getRevokedAt().plusMillis(TTL_MILLIS));
+    }
+
+    @Test
+    void tokensIssuedUpToTheSecondOfTheRevocationAreRevoked() {
+        Instant revokedAt = Instant.now();
+        revocationList.revokePsychologist(7L);
+        Instant revocationSecond = revokedAt.truncatedTo(ChronoUnit.SECONDS);
+
+        assertThat(revocationList.isRevoked("a", 7L, revocationSecond.minusSeconds(60))).isTrue();
+        assertThat(revocationList.isRevoked("a", 7L, revocationSecond)).isTrue();
+        // Um "iat" com fração (outro emissor) é comparado pelo segundo, como o do JwtUtil.
+        assertThat(revocationList.isRevoked("a", 7L, revocationSecond.plusMillis(999))).isTrue();
+        assertThat(revocationList.isRevoked("a", 7L, revocationSecond.plusSeconds(2))).isFalse();
+    }
+
+    @Test
+    void sessionRevocationOnlyAffectsThatSession() {
+        Instant issuedAt = Instant.now().minusSeconds(30);
+        revocationList.revokeSession("revogada");
+
+        assertThat(revocationList.isRevoked("revogada", 7L, issuedAt)).isTrue();
+        assertThat(revocationList.isRevoked("outra", 7L, issuedAt)).isFalse();
+    }
+
+    @Test
+    void psychologistRevocationAffectsAllItsSessionsOnly() {
+        Instant issuedAt = Instant.now().minusSeconds(30);
+        revocationList.revokePsychologist(7L);
+
+        assertThat(revocationList.isRevoked("a", 7L, issuedAt)).isTrue();
+        assertThat(revocationList.isRevoked("b", 7L, issuedAt)).isTrue();
+        assertThat(revocationList.isRevoked("a", 8L, issuedAt)).isFalse();
+    }
+
+    @Test
+    void refreshLoadsRevocationsFromOtherInstancesAndKeepsLocalOnes() {
+        Instant issuedAt = Instant.now().minusSeconds(30);
+        Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        when(repository.findByExpiresAtAfter(any(Instant.class))).thenReturn(List.of(
+                new TokenRevocationModel("p:8", revokedAt, revokedAt.plusMillis(TTL_MILLIS))));
+        revocationList.revokeSession("local");
+
+        revocationList.refresh();
+
+        assertThat(revocationList.isRevoked("a", 8L, issuedAt)).isTrue();
+        assertThat(revocationList.isRevoked("local", 7L, issuedAt)).isTrue();
+        assertThat(revocationList.isRevoked("a", 7L, issuedAt)).isFalse();
+    }
+}
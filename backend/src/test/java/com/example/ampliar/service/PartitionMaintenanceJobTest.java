@@ -0,0 +1,266 @@
+package com.example.ampliar.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.ampliar.model.AppointmentModel;
+import com.example.ampliar.model.PatientModel;
+import com.example.ampliar.model.PayerModel;
+import com.example.ampliar.model.PaymentModel;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.model.enums.AppointmentStatus;
+import com.example.ampliar.model.enums.VersionedResource;
+import com.example.ampliar.repository.AppointmentRepository;
+import com.example.ampliar.repository.PatientRepository;
+import com.example.ampliar.repository.PayerRepository;
+import com.example.ampliar.repository.PaymentRepository;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.support.PostgresTestContainerConfig;
+import com.example.ampliar.support.TestData;
+
+/**
+ * Ciclo de vida das partições anuais: criação antecipada, linhas que caíram na default movidas
+ * para a partição do seu ano e arquivamento (DETACH, exportação e DROP) dos anos além da
+ * retenção, sem perder alocações cujo outro lado continua no banco.
+ */
+@SpringBootTest(properties = {
+        "partition.maintenance.years-ahead=3",
+        "partition.archive.retention-years=2",
+        // O teste chama o job diretamente; o agendamento do arquivamento fica desligado.
+        "partition.archive.cron=-"
+})
+@Import(PostgresTestContainerConfig.class)
+class PartitionMaintenanceJobTest {
+
+    private static final int CURRENT_YEAR = Year.now().getValue();
+    private static final AtomicLong SEEDS = new AtomicLong(600_000);
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("partition.archive.directory", () -> archiveDirectory.toString());
+    }
+
+    private record Owner(PsychologistModel psychologist, PatientModel patient, PayerModel payer) {
+    }
+
+    @Autowired
+    private PartitionMaintenanceJob job;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private PsychologistRepository psychologistRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PayerRepository payerRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Test
+    void partitionsAreCreatedAheadOfTime() {
+        job.ensurePartitions();
+
+        for (int year = CURRENT_YEAR; year <= CURRENT_YEAR + 3; year++) {
+            assertThat(exists("appointment_y" + year)).isTrue();
+            assertThat(exists("payment_y" + year)).isTrue();
+        }
+        assertThat(exists("appointment_y" + (CURRENT_YEAR + 4))).isFalse();
+    }
+
+    @Test
+    void rowsInTheDefaultPartitionMoveToTheNewPartitionOfTheirYear() {
+        int year = CURRENT_YEAR - 1;
+        assertThat(exists("appointment_y" + year)).isFalse();
+
+        Owner owner = createOwner();
+        Long appointment = createAppointment(owner, LocalDate.of(year, 6, 1));
+        Long payment = createPayment(owner, LocalDate.of(year, 6, 1));
+        assertThat(count("appointment_default", appointment)).isEqualTo(1);
+        assertThat(count("payment_default", payment)).isEqualTo(1);
+
+        job.ensurePartitions();
+
+        assertThat(count("appointment_y" + year, appointment)).isEqualTo(1);
+        assertThat(count("appointment_default", appointment)).isZero();
+        assertThat(count("payment_y" + year, payment)).isEqualTo(1);
+        assertThat(count("payment_default", payment)).isZero();
+        assertThat(appointmentRepository.findById(appointment)).isPresent();
+    }
+
+    @Test
+    void oldPartitionsAreArchivedKeepingAllocationsOfRetainedRows() throws IOException {
+        int oldYear = CURRENT_YEAR - 4;
+        jdbcTemplate.queryForObject("SELECT ensure_yearly_partition('appointment', 'appointment_date', ?)", Boolean.class, oldYear);
+        jdbcTemplate.queryForObject("SELECT ensure_yearly_partition('payment', 'payment_date', ?)", Boolean.class, oldYear);
+
+        Owner owner = createOwner();
+        LocalDate old = LocalDate.of(oldYear, 3, 1);
+        LocalDate recent = LocalDate.of(CURRENT_YEAR, 1, 1);
+        Long oldAppointment = createAppointment(owner, old);
+        Long oldAppointmentPaidLater = createAppointment(owner, old.plusDays(7));
+        Long recentAppointment = createAppointment(owner, recent);
+        Long oldPayment = createPayment(owner, old);
+        Long recentPayment = createPayment(owner, recent);
+
+        allocate(oldPayment, oldAppointment);
+        allocate(recentPayment, oldAppointmentPaidLater);
+        allocate(oldPayment, recentAppointment);
+
+        Long psychologistId = owner.psychologist().getId();
+        long appointmentsVersion = resourceVersionService.currentVersion(psychologistId, VersionedResource.APPOINTMENTS);
+        long paymentsVersion = resourceVersionService.currentVersion(psychologistId, VersionedResource.PAYMENTS);
+
+        job.archiveOldPartitions();
+
+        assertThat(exists("appointment_y" + oldYear)).isFalse();
+        assertThat(exists("payment_y" + oldYear)).isFalse();
+        assertThat(appointmentRepository.findById(oldAppointment)).isEmpty();
+        assertThat(paymentRepository.findById(oldPayment)).isEmpty();
+        assertThat(appointmentRepository.findById(recentAppointment)).isPresent();
+
+        // Só a alocação com os dois lados arquivados sai; as outras continuam contando no saldo.
+        assertThat(allocations(oldPayment, oldAppointment)).isZero();
+        assertThat(allocations(recentPayment, oldAppointmentPaidLater)).isEqualTo(1);
+        assertThat(allocations(oldPayment, recentAppointment)).isEqualTo(1);
+
+        assertThat(resourceVersionService.currentVersion(psychologistId, VersionedResource.APPOINTMENTS))
+                .isGreaterThan(appointmentsVersion);
+        assertThat(resourceVersionService.currentVersion(psychologistId, VersionedResource.PAYMENTS))
+                .isGreaterThan(paymentsVersion);
+
+        assertThat(archived("appointment_y" + oldYear))
+                .contains(oldAppointment.toString(), oldAppointmentPaidLater.toString());
+        assertThat(archived("payment_y" + oldYear)).contains(oldPayment.toString());
+        assertThat(archived("appointment_y" + oldYear + ".appointment_patients")).contains(oldAppointment.toString());
+        assertThat(archived("appointment_y" + oldYear + ".payment_allocation"))
+                .contains(oldPayment + "," + oldAppointment)
+                .hasLineCount(2);
+        assertThat(archiveDirectory.resolve("payment_y" + oldYear + ".csv.gz.tmp")).doesNotExist();
+    }
+
+    @Test
+    void oldRowsInTheDefaultPartitionAreArchived() throws IOException {
+        int oldYear = CURRENT_YEAR - 3;
+        assertThat(exists("appointment_y" + oldYear)).isFalse();
+
+        Owner owner = createOwner();
+        Long appointment = createAppointment(owner, LocalDate.of(oldYear, 9, 1));
+        Long payment = createPayment(owner, LocalDate.of(oldYear, 9, 1));
+        allocate(payment, appointment);
+        assertThat(count("appointment_default", appointment)).isEqualTo(1);
+        assertThat(count("payment_default", payment)).isEqualTo(1);
+
+        // A criação de partições não toca anos além da retenção.
+        job.ensurePartitions();
+        assertThat(count("appointment_default", appointment)).isEqualTo(1);
+
+        job.archiveOldPartitions();
+
+        assertThat(count("appointment_default", appointment)).isZero();
+        assertThat(count("payment_default", payment)).isZero();
+        assertThat(exists("appointment_y" + oldYear)).isFalse();
+        assertThat(exists("payment_y" + oldYear)).isFalse();
+        assertThat(allocations(payment, appointment)).isZero();
+        assertThat(archived("appointment_y" + oldYear)).contains(appointment.toString());
+        assertThat(archived("payment_y" + oldYear)).contains(payment.toString());
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private int count(String table, Long id) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE id = ?", Integer.class, id);
+    }
+
+    private int allocations(Long paymentId, Long appointmentId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM payment_allocation WHERE payment_id = ? AND appointment_id = ?",
+                Integer.class, paymentId, appointmentId);
+    }
+
+    private String archived(String fileName) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archiveDirectory.resolve(fileName + ".csv.gz")))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private void allocate(Long paymentId, Long appointmentId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            AppointmentModel appointment = appointmentRepository.findById(appointmentId).orElseThrow();
+            appointment.allocate(paymentRepository.findById(paymentId).orElseThrow(), new BigDecimal("50.00"));
+        });
+    }
+
+    private Owner createOwner() {
+        long n = SEEDS.addAndGet(10);
+        PsychologistModel psychologist = psychologistRepository.save(new PsychologistModel(
+                "Psicóloga " + n, TestData.cpf(n), TestData.phone(n), "particao" + n + "@ampliar.test", "senha-" + n));
+        PatientModel patient = patientRepository.save(new PatientModel(
+                LocalDate.of(1990, 1, 1), new ArrayList<>(), "Paciente " + n, TestData.cpf(n + 1),
+                TestData.phone(n + 1), "paciente" + n + "@ampliar.test", null, null, psychologist, null));
+        PayerModel payer = payerRepository.save(new PayerModel(
+                "Pagador " + n, TestData.cpf(n + 2), TestData.phone(n + 2), psychologist));
+        return new Owner(psychologist, patient, payer);
+    }
+
+    private Long createAppointment(Owner owner, LocalDate date) {
+        AppointmentModel appointment = new AppointmentModel();
+        appointment.setAppointmentDate(LocalDateTime.of(date, LocalTime.of(10, 0)));
+        appointment.setAppointmentType("Sessão");
+        appointment.setStatus(AppointmentStatus.COMPLETED);
+        appointment.setPsychologist(owner.psychologist());
+        appointment.setPatients(new ArrayList<>(List.of(owner.patient())));
+        return appointmentRepository.save(appointment).getId();
+    }
+
+    private Long createPayment(Owner owner, LocalDate date) {
+        PaymentModel payment = new PaymentModel();
+        payment.setValor(new BigDecimal("200.00"));
+        payment.setPaymentDate(date);
+        payment.setPayer(owner.payer());
+        payment.setReceiptNumber(SEEDS.incrementAndGet());
+        return paymentRepository.save(payment).getId();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.ampliar.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.example.ampliar.exception.BusinessRuleException;
+import com.example.ampliar.exception.ErrorCode;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.support.PostgresTestContainerConfig;
+import com.example.ampliar.support.TestData;
+
+/** Um token de redefinição usado por várias requisições ao mesmo tempo troca a senha uma única vez. */
+@SpringBootTest(properties = {
+        // Mesmas propriedades do EndpointStatementBudgetTest: o contexto (e o contêiner) é reaproveitado.
+        "security.revocation.refresh-interval=PT1H",
+        "security.revocation.purge-cron=-",
+        "security.refresh-token.purge-cron=-",
+        "password-reset.sweeper.interval=PT1H"
+})
+@Import(PostgresTestContainerConfig.class)
+class PasswordResetServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final long SEED = 620_000;
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private PsychologistRepository psychologistRepository;
+
+    @Test
+    void tokenIsConsumedByASingleConcurrentReset() throws Exception {
+        PsychologistModel psychologist = psychologistRepository.save(new PsychologistModel(
+                "Psicóloga " + SEED, TestData.cpf(SEED), TestData.phone(SEED), "redefinicao" + SEED + "@ampliar.test",
+                "senha-" + SEED));
+        String token = passwordResetService.createPasswordResetToken(psychologist.getEmail());
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String newPassword = "novaSenha" + t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        passwordResetService.resetPassword(token, newPassword);
+                        succeeded.incrementAndGet();
+                    } catch (BusinessRuleException e) {
+                        assertThat(e.getCode()).isEqualTo(ErrorCode.INVALID_RESET_TOKEN);
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(succeeded).hasValue(1);
+        assertThat(rejected).hasValue(THREADS - 1);
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.ampliar.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.ampliar.exception.BusinessRuleException;
+import com.example.ampliar.exception.ErrorCode;
+import com.example.ampliar.model.AppointmentModel;
+import com.example.ampliar.model.PatientModel;
+import com.example.ampliar.model.PayerModel;
+import com.example.ampliar.model.PaymentModel;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.model.enums.AppointmentStatus;
+import com.example.ampliar.repository.AppointmentRepository;
+import com.example.ampliar.repository.PatientRepository;
+import com.example.ampliar.repository.PayerRepository;
+import com.example.ampliar.repository.PaymentAllocationRepository;
+import com.example.ampliar.repository.PaymentRepository;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.support.PostgresTestContainerConfig;
+import com.example.ampliar.support.TestData;
+
+@SpringBootTest
+@Import(PostgresTestContainerConfig.class)
+class PaymentAllocationServiceTest {
+
+    private static final AtomicLong SEEDS = new AtomicLong(520_000);
+
+    private record Owner(PsychologistModel psychologist, PatientModel patient) {
+    }
+
+    /** Pagamento -> psicólogo dono, para travar o pagamento como o serviço faz. */
+    private final Map<Long, Long> paymentOwners = new ConcurrentHashMap<>();
+
+    @Autowired
+    private PaymentAllocationService paymentAllocationService;
+
+    @Autowired
+    private PsychologistRepository psychologistRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PayerRepository payerRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PaymentAllocationRepository allocationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void allocationWithoutAmountTakesTheRemainingBalance() {
+        Owner owner = createOwner();
+        Long payment = createPayment(owner, "200.00");
+        Long first = createAppointment(owner, AppointmentStatus.COMPLETED, 1);
+        Long second = createAppointment(owner, AppointmentStatus.COMPLETED, 2);
+
+        allocate(payment, first, new BigDecimal("70.00"));
+        allocate(payment, second, null);
+
+        assertThat(allocationRepository.findByPaymentIdOrderByAllocatedAtAsc(payment))
+                .extracting(allocation -> allocation.getAppointment().getId(), allocation -> allocation.getAmount())
+                .containsExactly(
+                        tuple(first, new BigDecimal("70.00")),
+                        tuple(second, new BigDecimal("130.00")));
+    }
+
+    @Test
+    void secondAllocationToTheSameAppointmentIsAddedToTheFirst() {
+        Owner owner = createOwner();
+        Long payment = createPayment(owner, "200.00");
+        Long appointment = createAppointment(owner, AppointmentStatus.COMPLETED, 1);
+
+        allocate(payment, appointment, new BigDecimal("50.00"));
+        allocate(payment, appointment, new BigDecimal("30.00"));
+
+        assertThat(allocationRepository.findByPaymentIdOrderByAllocatedAtAsc(payment))
+                .singleElement()
+                .satisfies(allocation -> assertThat(allocation.getAmount()).isEqualByComparingTo("80.00"));
+    }
+
+    @Test
+    void cancelledAppointmentDoesNotReceiveAllocations() {
+        Owner owner = createOwner();
+        Long payment = createPayment(owner, "200.00");
+        Long appointment = createAppointment(owner, AppointmentStatus.CANCELLED, 1);
+
+        assertThatThrownBy(() -> allocate(payment, appointment, new BigDecimal("50.00")))
+                .isInstanceOf(BusinessRuleException.class)
+                .extracting("code")
+                .isEqualTo(ErrorCode.ALLOCATION_NOT_ALLOWED);
+        assertThat(allocationRepository.sumAmountByPaymentId(payment)).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void paymentOfAnotherPsychologistIsNotAllocated() {
+        Long payment = createPayment(createOwner(), "200.00");
+        Long appointment = createAppointment(createOwner(), AppointmentStatus.COMPLETED, 1);
+
+        assertThatThrownBy(() -> allocate(payment, appointment, new BigDecimal("50.00")))
+                .isInstanceOf(BusinessRuleException.class)
+                .extracting("code")
+                .isEqualTo(ErrorCode.ALLOCATION_NOT_ALLOWED);
+    }
+
+    @Test
+    void concurrentAllocationsNeverExceedThePayment() throws Exception {
+        Owner owner = createOwner();
+        Long payment = createPayment(owner, "100.00");
+        List<Long> appointments = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            appointments.add(createAppointment(owner, AppointmentStatus.COMPLETED, i));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(appointments.size());
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (Long appointment : appointments) {
+                Callable<Boolean> task = () -> {
+                    try {
+                        allocate(payment, appointment, new BigDecimal("40.00"));
+                        return true;
+                    } catch (BusinessRuleException e) {
+                        return false;
+                    }
+                };
+                results.add(pool.submit(task));
+            }
+            long succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+            // O lock no pagamento serializa as alocações: só duas de 40,00 cabem em 100,00.
+            assertThat(succeeded).isEqualTo(2);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(allocationRepository.sumAmountByPaymentId(payment)).isEqualByComparingTo("80.00");
+    }
+
+    private void allocate(Long paymentId, Long appointmentId, BigDecimal amount) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            PaymentModel payment = paymentRepository.findByIdAndPsychologistIdForUpdate(paymentId, paymentOwners.get(paymentId))
+                    .orElseThrow();
+            AppointmentModel appointment = appointmentRepository.findById(appointmentId).orElseThrow();
+            paymentAllocationService.allocate(payment, appointment, amount);
+        });
+    }
+
+    private Owner createOwner() {
+        long seed = SEEDS.addAndGet(10);
+        PsychologistModel psychologist = psychologistRepository.save(new PsychologistModel(
+                "Psicóloga " + seed, TestData.cpf(seed), TestData.phone(seed), "psi" + seed + "@ampliar.test", "senha-" + seed));
+        PatientModel patient = patientRepository.save(new PatientModel(
+                LocalDate.of(1990, 1, 1), new ArrayList<>(), "Paciente " + seed, TestData.cpf(seed + 1),
+                TestData.phone(seed + 1), "paciente" + seed + "@ampliar.test", null, null, psychologist, null));
+        return new Owner(psychologist, patient);
+    }
+
+    private Long createPayment(Owner owner, String valor) {
+        long seed = SEEDS.addAndGet(10);
+        PayerModel payer = payerRepository.save(new PayerModel(
+                "Pagador " + seed, TestData.cpf(seed), TestData.phone(seed), owner.psychologist()));
+        PaymentModel payment = new PaymentModel();
+        payment.setValor(new BigDecimal(valor));
+        payment.setPaymentDate(LocalDate.now());
+        payment.setPayer(payer);
+        payment.setReceiptNumber(seed);
+        Long id = paymentRepository.save(payment).getId();
+        paymentOwners.put(id, owner.psychologist().getId());
+        return id;
+    }
+
+    private Long createAppointment(Owner owner, AppointmentStatus status, int daysAgo) {
+        AppointmentModel appointment = new AppointmentModel();
+        appointment.setAppointmentDate(LocalDateTime.now().minusDays(daysAgo).truncatedTo(ChronoUnit.HOURS));
+        appointment.setAppointmentType("Sessão");
+        appointment.setStatus(status);
+        appointment.setPsychologist(owner.psychologist());
+        appointment.setPatients(new ArrayList<>(List.of(owner.patient())));
+        return appointmentRepository.save(appointment).getId();
+    }
+}
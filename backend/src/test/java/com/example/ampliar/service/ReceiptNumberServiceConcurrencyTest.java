@@ -0,0 +1,139 @@
+package com.example.ampliar.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.support.PostgresTestContainerConfig;
+import com.example.ampliar.support.TestData;
+
+@SpringBootTest
+@Import(PostgresTestContainerConfig.class)
+class ReceiptNumberServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int PAYMENTS_PER_THREAD = 10;
+    /** Simula o restante da transação do pagamento enquanto o lock do contador está aberto. */
+    private static final long WORK_MILLIS = 10;
+
+    @Autowired
+    private ReceiptNumberService receiptNumberService;
+
+    @Autowired
+    private PsychologistRepository psychologistRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void numbersAreGaplessPerPsychologistUnderConcurrency() throws Exception {
+        List<Long> psychologists = createPsychologists(2, 100);
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+
+        run(thread -> psychologists.get(thread % psychologists.size()), (psychologistId, number) ->
+                issued.add(psychologistId + ":" + number));
+
+        int perPsychologist = THREADS * PAYMENTS_PER_THREAD / psychologists.size();
+        for (Long psychologistId : psychologists) {
+            assertThat(issuedTo(issued, psychologistId)).containsExactlyInAnyOrderElementsOf(
+                    LongStream.rangeClosed(1, perPsychologist).boxed().toList());
+        }
+    }
+
+    @Test
+    void numbersStayUniqueAndGaplessWhenEveryThreadUsesItsOwnPsychologist() throws Exception {
+        // A vazão por psicólogo é medida no JMH (benchmarks); aqui só a correção do contador.
+        List<Long> psychologists = createPsychologists(THREADS, 300);
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        List<String> duplicates = Collections.synchronizedList(new ArrayList<>());
+
+        run(psychologists::get, (psychologistId, number) -> {
+            if (!issued.add(psychologistId + ":" + number)) {
+                duplicates.add(psychologistId + ":" + number);
+            }
+        });
+
+        assertThat(duplicates).isEmpty();
+        for (Long psychologistId : psychologists) {
+            assertThat(issuedTo(issued, psychologistId)).containsExactlyInAnyOrderElementsOf(
+                    LongStream.rangeClosed(1, PAYMENTS_PER_THREAD).boxed().toList());
+        }
+    }
+
+    private void run(IntFunction<Long> psychologistForThread, IssuedNumberConsumer consumer) throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Long psychologistId = psychologistForThread.apply(t);
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < PAYMENTS_PER_THREAD; i++) {
+                        long number = tx.execute(status -> {
+                            long next = receiptNumberService.nextReceiptNumber(psychologistId);
+                            sleep(WORK_MILLIS);
+                            return next;
+                        });
+                        consumer.accept(psychologistId, number);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Long> createPsychologists(int count, long seed) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long n = seed + i;
+            PsychologistModel psychologist = new PsychologistModel(
+                    "Psicólogo " + n, TestData.cpf(n), TestData.phone(n), "psi" + n + "@ampliar.test", "senha-" + n);
+            ids.add(psychologistRepository.save(psychologist).getId());
+        }
+        return ids;
+    }
+
+    private List<Long> issuedTo(Set<String> issued, Long psychologistId) {
+        return issued.stream()
+                .filter(entry -> entry.startsWith(psychologistId + ":"))
+                .map(entry -> Long.parseLong(entry.substring(entry.indexOf(':') + 1)))
+                .collect(Collectors.toList());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IssuedNumberConsumer {
+        void accept(Long psychologistId, long number);
+    }
+}
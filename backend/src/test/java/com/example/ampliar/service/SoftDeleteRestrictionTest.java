@@ -0,0 +1,193 @@
+package com.example.ampliar.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.ampliar.exception.BusinessRuleException;
+import com.example.ampliar.exception.ErrorCode;
+import com.example.ampliar.model.LegalGuardianModel;
+import com.example.ampliar.model.PatientModel;
+import com.example.ampliar.model.PsychologistModel;
+import com.example.ampliar.repository.LegalGuardianRepository;
+import com.example.ampliar.repository.PatientRepository;
+import com.example.ampliar.repository.PsychologistRepository;
+import com.example.ampliar.security.JwtUtil;
+import com.example.ampliar.support.PostgresTestContainerConfig;
+import com.example.ampliar.support.TestData;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Psicólogos e responsáveis excluídos somem de toda leitura pelo @SQLRestriction: busca por ID,
+ * coleção de responsáveis do paciente, renovação de sessão e redefinição de senha. O psicólogo
+ * fica no cache de segundo nível, que não aplica a restrição, então os testes aquecem o cache
+ * antes da exclusão.
+ */
+@SpringBootTest(properties = {
+        // Mesmas propriedades do EndpointStatementBudgetTest: o contexto (e o contêiner) é reaproveitado.
+        "security.revocation.refresh-interval=PT1H",
+        "security.revocation.purge-cron=-",
+        "security.refresh-token.purge-cron=-",
+        "password-reset.sweeper.interval=PT1H"
+})
+@AutoConfigureMockMvc
+@Import(PostgresTestContainerConfig.class)
+class SoftDeleteRestrictionTest {
+
+    private static final AtomicLong SEEDS = new AtomicLong(580_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PsychologistService psychologistService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private PsychologistRepository psychologistRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private LegalGuardianRepository legalGuardianRepository;
+
+    @Test
+    void deletedPsychologistIsNotFoundEvenAfterBeingCached() {
+        PsychologistModel psychologist = createPsychologist();
+        warmCache(psychologist);
+
+        psychologistService.deletePsychologist(psychologist.getId());
+
+        assertThat(psychologistRepository.findById(psychologist.getId())).isEmpty();
+        assertThat(psychologistRepository.findByEmail(psychologist.getEmail())).isEmpty();
+        assertThat(psychologistRepository.findDTOById(psychologist.getId())).isEmpty();
+        assertThat(psychologistRepository.findAllDTO())
+                .noneMatch(dto -> dto.id().equals(psychologist.getId()));
+    }
+
+    @Test
+    void refreshTokenOfADeletedPsychologistDoesNotRenewTheSession() {
+        PsychologistModel psychologist = createPsychologist();
+        RefreshTokenService.Session session = refreshTokenService.startSession(psychologist);
+        warmCache(psychologist);
+
+        // Só a exclusão lógica, sem revogar as sessões: quem barra a renovação é o @SQLRestriction.
+        softDelete(psychologist);
+
+        assertThat(refreshTokenService.rotate(session.refreshToken())).isEmpty();
+    }
+
+    @Test
+    void resetTokenOfADeletedPsychologistIsRejected() {
+        PsychologistModel psychologist = createPsychologist();
+        String token = passwordResetService.createPasswordResetToken(psychologist.getEmail());
+        warmCache(psychologist);
+
+        softDelete(psychologist);
+
+        assertThatThrownBy(() -> passwordResetService.resetPassword(token, "novaSenha456"))
+                .isInstanceOf(BusinessRuleException.class)
+                .extracting("code")
+                .isEqualTo(ErrorCode.INVALID_RESET_TOKEN);
+    }
+
+    @Test
+    void deletedGuardianLeavesThePatientGuardians() throws Exception {
+        PsychologistModel psychologist = createPsychologist();
+        String token = jwtUtil.generateToken(psychologist.getEmail(), psychologist.getId(), UUID.randomUUID().toString());
+        LegalGuardianModel deleted = createGuardian(psychologist);
+        LegalGuardianModel kept = createGuardian(psychologist);
+        PatientModel patient = createPatient(psychologist, List.of(deleted, kept));
+
+        mockMvc.perform(delete("/guardians/{id}", deleted.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+
+        assertThat(legalGuardianRepository.findById(deleted.getId())).isEmpty();
+        assertThat(legalGuardianRepository.findAllByPsychologistId(psychologist.getId()))
+                .extracting(LegalGuardianModel::getId)
+                .containsExactly(kept.getId());
+        List<Long> guardianIds = transactionTemplate.execute(status -> patientRepository.findById(patient.getId())
+                .orElseThrow()
+                .getLegalGuardians()
+                .stream()
+                .map(LegalGuardianModel::getId)
+                .toList());
+        assertThat(guardianIds).containsExactly(kept.getId());
+
+        mockMvc.perform(get("/patients/{id}", patient.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.legalGuardianIds.length()").value(1))
+                .andExpect(jsonPath("$.legalGuardianIds[0]").value(kept.getId()));
+    }
+
+    /** Carrega o psicólogo por ID para que a próxima leitura possa vir da região "psychologist". */
+    private void warmCache(PsychologistModel psychologist) {
+        assertThat(psychologistRepository.findById(psychologist.getId())).isPresent();
+        assertThat(secondLevelCache().containsEntity(PsychologistModel.class, psychologist.getId())).isTrue();
+    }
+
+    private void softDelete(PsychologistModel psychologist) {
+        transactionTemplate.executeWithoutResult(status ->
+                psychologistRepository.softDelete(psychologist.getId(), LocalDateTime.now()));
+    }
+
+    private Cache secondLevelCache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    private PsychologistModel createPsychologist() {
+        long seed = SEEDS.addAndGet(10);
+        return psychologistRepository.save(new PsychologistModel(
+                "Psicóloga " + seed, TestData.cpf(seed), TestData.phone(seed), "excluida" + seed + "@ampliar.test", "senha-" + seed));
+    }
+
+    private LegalGuardianModel createGuardian(PsychologistModel psychologist) {
+        long seed = SEEDS.addAndGet(10);
+        return legalGuardianRepository.save(new LegalGuardianModel(
+                new ArrayList<>(), "Responsável " + seed, TestData.cpf(seed), TestData.phone(seed), psychologist));
+    }
+
+    private PatientModel createPatient(PsychologistModel psychologist, List<LegalGuardianModel> guardians) {
+        long seed = SEEDS.addAndGet(10);
+        return patientRepository.save(new PatientModel(
+                LocalDate.of(2015, 1, 1), new ArrayList<>(guardians), "Paciente " + seed, TestData.cpf(seed),
+                TestData.phone(seed), "paciente" + seed + "@ampliar.test", null, null, psychologist, null));
+    }
+}
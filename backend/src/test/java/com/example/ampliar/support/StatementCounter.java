@@ -0,0 +1,34 @@
+package com.example.ampliar.support;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Conta os statements JDBC preparados pelo Hibernate entre {@link #reset()} e {@link #count()}.
+ * Usa as estatísticas globais da SessionFactory, então também enxerga o que roda em outras
+ * threads (downloads em streaming); os testes que usam o contador não podem rodar em paralelo.
+ */
+public class StatementCounter {
+
+    private final SessionFactory sessionFactory;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /** Zera a contagem e esvazia o cache de segundo nível, para que toda medição parta do mesmo estado. */
+    public void reset() {
+        sessionFactory.getCache().evictAllRegions();
+        statistics().clear();
+    }
+
+    public long count() {
+        return statistics().getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return sessionFactory.getStatistics();
+    }
+}
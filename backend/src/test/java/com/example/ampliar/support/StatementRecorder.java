@@ -0,0 +1,32 @@
+package com.example.ampliar.support;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Guarda o SQL que o Hibernate prepara, já com o limite e o lock aplicados, para que os testes
+ * inspecionem o statement real em vez de uma cópia escrita à mão. É registrado pela propriedade
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}; como o Hibernate
+ * instancia a classe, os statements ficam numa lista estática, e os testes que a usam não podem
+ * rodar em paralelo (como os do {@link StatementCounter}).
+ */
+public class StatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+}
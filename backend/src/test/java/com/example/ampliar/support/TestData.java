@@ -0,0 +1,50 @@
+package com.example.ampliar.support;
+
+public final class TestData {
+
+    private TestData() {
+    }
+
+    /** Gera um CPF com dígitos verificadores válidos a partir de uma semente numérica. */
+    public static String cpf(long seed) {
+        int[] digits = new int[11];
+        long base = Math.floorMod(seed, 1_000_000_000L);
+        for (int i = 8; i >= 0; i--) {
+            digits[i] = (int) (base % 10);
+            base /= 10;
+        }
+        if (allEqual(digits)) {
+            digits[8] = (digits[8] + 1) % 10;
+        }
+        digits[9] = checkDigit(digits, 9);
+        digits[10] = checkDigit(digits, 10);
+
+        StringBuilder cpf = new StringBuilder(11);
+        for (int digit : digits) {
+            cpf.append(digit);
+        }
+        return cpf.toString();
+    }
+
+    public static String phone(long seed) {
+        return "119" + String.format("%08d", Math.floorMod(seed, 100_000_000L));
+    }
+
+    private static int checkDigit(int[] digits, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += digits[i] * (length + 1 - i);
+        }
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+
+    private static boolean allEqual(int[] digits) {
+        for (int i = 1; i < 9; i++) {
+            if (digits[i] != digits[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ampliar.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.ampliar.support.TestData;
+
+class FieldFormatsTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12345678909", "52998224725", "39053344705"})
+    void acceptsCpfWithValidCheckDigits(String cpf) {
+        assertThat(FieldFormats.isCpf(cpf)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12345678900", "52998224752", "11111111111", "00000000000", "1234567890",
+            "123456789099", "123.456.789-09", "1234567890a", ""})
+    void rejectsInvalidCpf(String cpf) {
+        assertThat(FieldFormats.isCpf(cpf)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 42, 123_456, 999_999_999})
+    void agreesWithTestDataGenerator(long seed) {
+        assertThat(FieldFormats.isCpf(TestData.cpf(seed))).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"11222333000181", "11444777000161", "12ABC34501DE35"})
+    void acceptsCnpjWithValidCheckDigits(String cnpj) {
+        assertThat(FieldFormats.isCnpj(cnpj)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"11222333000182", "00000000000000", "1122233300018", "11.222.333/0001-81",
+            "12abc34501de35", "12ABC34501DE3A"})
+    void rejectsInvalidCnpj(String cnpj) {
+        assertThat(FieldFormats.isCnpj(cnpj)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1133334444", "11987654321"})
+    void acceptsPhoneNumbers(String phone) {
+        assertThat(FieldFormats.isPhoneNumber(phone)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"113333444", "119876543210", "(11)98765-4321", "1198765432a"})
+    void rejectsInvalidPhoneNumbers(String phone) {
+        assertThat(FieldFormats.isPhoneNumber(phone)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ana@clinica.com", "ana.souza@clinica-ampliar.com.br", "a_b@x.io"})
+    void acceptsEmails(String email) {
+        assertThat(FieldFormats.isEmail(email)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ana@clinica", "ana clinica@x.com", "@clinica.com", "ana@.c"})
+    void rejectsInvalidEmails(String email) {
+        assertThat(FieldFormats.isEmail(email)).isFalse();
+    }
+}
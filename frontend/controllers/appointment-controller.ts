@@ -224,6 +224,10 @@ export class AppointmentController {
       body.paymentId = payload.paymentId === null ? null : Number(payload.paymentId)
     }
 
+    if (payload.clearAllocations !== undefined) {
+      body.clearAllocations = payload.clearAllocations
+    }
+
     const updated = (await api(`/appointments/${id}`, {
       method: "PUT",
       body,
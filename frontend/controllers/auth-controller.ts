@@ -2,6 +2,7 @@ import type { LoginCredentials, RegisterData, AuthState, User } from "@/models/a
 
 const AUTH_USER_KEY = "ampliar-auth-user"
 const AUTH_TOKEN_KEY = "ampliar-auth-token"
+const AUTH_REFRESH_TOKEN_KEY = "ampliar-auth-refresh-token"
 
 export class AuthController {
   private static instance: AuthController
@@ -12,6 +13,7 @@ export class AuthController {
     error: null,
     token: null,
   }
+  private refreshInFlight: Promise<boolean> | null = null
 
   static getInstance(): AuthController {
     if (!AuthController.instance) {
@@ -35,6 +37,7 @@ export class AuthController {
           console.error("Falha ao carregar estado de autenticação", e)
           localStorage.removeItem(AUTH_USER_KEY)
           localStorage.removeItem(AUTH_TOKEN_KEY)
+          localStorage.removeItem(AUTH_REFRESH_TOKEN_KEY)
         }
       }
     }
@@ -69,8 +72,9 @@ export class AuthController {
 
         localStorage.setItem(AUTH_USER_KEY, JSON.stringify(user))
         localStorage.setItem(AUTH_TOKEN_KEY, data.token)
+        localStorage.setItem(AUTH_REFRESH_TOKEN_KEY, data.refreshToken)
 
-        console.log("Login com sucesso, token armazenado:", this.authState.token)
+        console.log("Login com sucesso, token armazenado")
         return { success: true }
 
       } else {
@@ -207,13 +211,66 @@ export class AuthController {
     }
   }
 
+  // Troca o refresh token por um novo par de tokens. Chamadas simultâneas compartilham a mesma troca,
+  // já que cada refresh token só pode ser usado uma vez.
+  refresh(): Promise<boolean> {
+    if (!this.refreshInFlight) {
+      this.refreshInFlight = this.doRefresh().finally(() => {
+        this.refreshInFlight = null
+      })
+    }
+    return this.refreshInFlight
+  }
+
+  private async doRefresh(): Promise<boolean> {
+    const refreshToken = localStorage.getItem(AUTH_REFRESH_TOKEN_KEY)
+    if (!refreshToken) {
+      return false
+    }
+
+    try {
+      const response = await fetch("http://localhost:8080/auth/refresh", {
+        method: "POST",
+        headers: { "Content-Type": "application/json" },
+        body: JSON.stringify({ refreshToken }),
+      })
+
+      if (!response.ok) {
+        this.clearSession()
+        return false
+      }
+
+      const data = await response.json()
+      this.authState.token = data.token
+      localStorage.setItem(AUTH_TOKEN_KEY, data.token)
+      localStorage.setItem(AUTH_REFRESH_TOKEN_KEY, data.refreshToken)
+      return true
+    } catch (error) {
+      console.error("Falha ao renovar sessão:", error)
+      return false
+    }
+  }
+
   logout(): void {
+    const refreshToken = localStorage.getItem(AUTH_REFRESH_TOKEN_KEY)
+    if (refreshToken) {
+      fetch("http://localhost:8080/auth/logout", {
+        method: "POST",
+        headers: { "Content-Type": "application/json" },
+        body: JSON.stringify({ refreshToken }),
+      }).catch((error) => console.error("Falha ao encerrar sessão no servidor:", error))
+    }
+    this.clearSession()
+  }
+
+  private clearSession(): void {
     this.authState.user = null
     this.authState.isAuthenticated = false
     this.authState.error = null
     this.authState.token = null
     localStorage.removeItem(AUTH_USER_KEY)
     localStorage.removeItem(AUTH_TOKEN_KEY)
+    localStorage.removeItem(AUTH_REFRESH_TOKEN_KEY)
   }
 
   getAuthState(): AuthState {
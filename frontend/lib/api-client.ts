@@ -6,7 +6,7 @@ type ApiOptions = Omit<RequestInit, 'body'> & {
     body?: object;
 };
 
-export const api = async (endpoint: string, options: ApiOptions = {}) => {
+export const api = async (endpoint: string, options: ApiOptions = {}, retried = false): Promise<any> => {
     const authController = AuthController.getInstance();
     const { token } = authController.getAuthState();
 
@@ -32,6 +32,13 @@ export const api = async (endpoint: string, options: ApiOptions = {}) => {
 
     const response = await fetch(`${BASE_URL}${endpoint}`, config);
 
+    // Token de acesso expirado: renova a sessão uma vez e repete a requisição.
+    if ((response.status === 401 || response.status === 403) && token && !retried) {
+        if (await authController.refresh()) {
+            return api(endpoint, options, true);
+        }
+    }
+
     if (!response.ok) {
         let errorMessage = `Erro ${response.status} ao acessar ${endpoint}`;
 
@@ -51,6 +51,7 @@ export interface UpdateAppointmentPayload {
   psychologistId?: number
   patientIds?: number[]
   paymentId?: number | null
+  clearAllocations?: boolean
 }
 
 export interface CalendarDay {